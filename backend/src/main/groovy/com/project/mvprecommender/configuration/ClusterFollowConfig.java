@@ -0,0 +1,16 @@
+package com.project.mvprecommender.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the local {@code @Scheduled} check by which every node catches up on snapshots published by the others
+ * that it missed. Independent of {@link SchedulingConfig}, so a read-only node with the ingestion jobs switched
+ * off still follows; switched off with {@code mvp.cluster.follow-enabled=false}, e.g. in tests.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "mvp.cluster.follow-enabled", havingValue = "true", matchIfMissing = true)
+public class ClusterFollowConfig {
+}
@@ -19,6 +19,9 @@ public class MvpExternalClientProperties {
     @Value("${mvp.api.player-url}")
     private String playerUrl;
 
+    @Value("${mvp.api.live-url}")
+    private String liveUrl;
+
     @Value("${mvp.ai.openai.model}")
     private String model;
 
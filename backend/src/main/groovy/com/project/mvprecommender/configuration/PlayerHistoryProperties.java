@@ -0,0 +1,30 @@
+package com.project.mvprecommender.configuration;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limits for the per-player {@code element-summary} sweep, so it stays within what FPL tolerates.
+ */
+@Configuration
+@Data
+public class PlayerHistoryProperties {
+    @Value("${mvp.history.parallelism:16}")
+    private int parallelism;
+
+    @Value("${mvp.history.requests-per-second:50}")
+    private double requestsPerSecond;
+
+    @Value("${mvp.history.burst:20}")
+    private int burst;
+
+    @Value("${mvp.history.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${mvp.history.min-backoff-ms:250}")
+    private long minBackoffMs;
+
+    @Value("${mvp.ingestion.chunk-size:200}")
+    private int batchSize;
+}
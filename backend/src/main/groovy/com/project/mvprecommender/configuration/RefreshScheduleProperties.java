@@ -0,0 +1,40 @@
+package com.project.mvprecommender.configuration;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cadence of scheduled data refreshes: frequent while matches are on or about to start, regular in the day
+ * before a gameweek deadline, and backed off otherwise, waking up at the fixed times FPL publishes news.
+ */
+@Configuration
+@Data
+public class RefreshScheduleProperties {
+    @Value("${mvp.scheduler.refresh.live-interval-minutes:2}")
+    private long liveIntervalMinutes;
+
+    @Value("${mvp.scheduler.refresh.deadline-interval-minutes:15}")
+    private long deadlineIntervalMinutes;
+
+    @Value("${mvp.scheduler.refresh.idle-interval-minutes:360}")
+    private long idleIntervalMinutes;
+
+    // How long before a kickoff polling switches to the live interval
+    @Value("${mvp.scheduler.refresh.pre-kickoff-minutes:60}")
+    private long preKickoffMinutes;
+
+    // FPL locks teams this long before the first kickoff of a gameweek
+    @Value("${mvp.scheduler.refresh.deadline-offset-minutes:90}")
+    private long deadlineOffsetMinutes;
+
+    @Value("${mvp.scheduler.refresh.deadline-window-hours:24}")
+    private long deadlineWindowHours;
+
+    // Local times at which upstream data predictably changes, e.g. overnight price changes
+    @Value("${mvp.scheduler.refresh.daily-times:01:35}")
+    private String[] dailyTimes;
+
+    @Value("${mvp.scheduler.refresh.zone:Europe/London}")
+    private String zone;
+}
@@ -0,0 +1,97 @@
+package com.project.mvprecommender.configuration;
+
+import com.project.mvprecommender.service.ScheduledJobs;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Registers the refresh, live polling, history sweep and weekly alert jobs with Quartz, whose clustered JDBC job
+ * store fires each of them on one node only. Catching up on other nodes' snapshots is set up separately by
+ * {@link ClusterFollowConfig}. Switched off with {@code mvp.scheduler.enabled=false}, e.g. in tests or on
+ * read-only nodes, where nothing should call FPL on its own.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mvp.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+
+    @Bean
+    public JobDetail refreshJob() {
+        return job(ScheduledJobs.Refresh.class, ScheduledJobs.REFRESH);
+    }
+
+    @Bean
+    public JobDetail livePollJob() {
+        return job(ScheduledJobs.LivePoll.class, ScheduledJobs.LIVE_POLL);
+    }
+
+    /**
+     * Refresh and live polling move their own triggers, so they are not trigger beans: overwrite-existing-jobs
+     * would reset them to now on every node start. They are stored once, when the cluster has none yet.
+     */
+    @Bean
+    public SmartInitializingSingleton selfPlanningTriggers(
+            Scheduler scheduler,
+            @Value("${mvp.scheduler.refresh.idle-interval-minutes:360}") long refreshFallbackMinutes,
+            @Value("${mvp.live.idle-check-minutes:5}") long livePollFallbackMinutes) {
+        return () -> {
+            try {
+                // The refresh fallback is the longest gap the cadence plans, so a lost reschedule never delays a refresh beyond it
+                ScheduledJobs.scheduleIfAbsent(scheduler, ScheduledJobs.recurring(
+                        ScheduledJobs.REFRESH, Instant.now(), Duration.ofMinutes(refreshFallbackMinutes)));
+                ScheduledJobs.scheduleIfAbsent(scheduler, ScheduledJobs.recurring(
+                        ScheduledJobs.LIVE_POLL, Instant.now(), Duration.ofMinutes(livePollFallbackMinutes)));
+            } catch (SchedulerException e) {
+                throw new IllegalStateException("Could not register the refresh and live poll triggers", e);
+            }
+        };
+    }
+
+    @Bean
+    public JobDetail historySweepJob() {
+        return job(ScheduledJobs.HistorySweep.class, ScheduledJobs.HISTORY_SWEEP);
+    }
+
+    @Bean
+    public Trigger historySweepTrigger(@Value("${mvp.scheduler.update-history-cron}") String cron) {
+        return cron(ScheduledJobs.HISTORY_SWEEP, cron);
+    }
+
+    @Bean
+    public JobDetail weeklyAlertsJob() {
+        return job(ScheduledJobs.WeeklyAlerts.class, ScheduledJobs.WEEKLY_ALERTS);
+    }
+
+    @Bean
+    public Trigger weeklyAlertsTrigger(@Value("${mvp.scheduler.weekly-alert-cron}") String cron) {
+        return cron(ScheduledJobs.WEEKLY_ALERTS, cron);
+    }
+
+    private static JobDetail job(Class<? extends Job> type, JobKey key) {
+        // Recovery re-runs a job on another node when the one running it dies
+        return JobBuilder.newJob(type).withIdentity(key).storeDurably().requestRecovery().build();
+    }
+
+    private static Trigger cron(JobKey job, String expression) {
+        // A run missed while no node was up fires once when one is, then the cron continues
+        return TriggerBuilder.newTrigger()
+                .withIdentity(job.getName(), job.getGroup())
+                .forJob(job)
+                .withSchedule(CronScheduleBuilder.cronSchedule(expression).withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+}
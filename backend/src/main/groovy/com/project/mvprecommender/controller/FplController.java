@@ -1,26 +1,30 @@
 package com.project.mvprecommender.controller;
 
+import com.project.mvprecommender.dto.BatchSquadRequest;
+import com.project.mvprecommender.dto.BatchSquadResult;
 import com.project.mvprecommender.dto.BudgetSquadRequest;
 import com.project.mvprecommender.dto.BudgetSquadResponse;
+import com.project.mvprecommender.dto.FormationSearchRequest;
+import com.project.mvprecommender.dto.FormationSearchResponse;
 import com.project.mvprecommender.dto.MvpRecommendationResponse;
+import com.project.mvprecommender.dto.RefreshJobStatus;
 import com.project.mvprecommender.dto.WeeklyAlert;
 import com.project.mvprecommender.service.FPLDataService;
 import com.project.mvprecommender.service.MvpRecommendationService;
+import com.project.mvprecommender.service.RefreshCoordinator;
 import com.project.mvprecommender.service.WeeklyAlertService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Set;
-
 @RestController
 @RequestMapping("/api/v1/fpl")
 @RequiredArgsConstructor
@@ -31,14 +35,7 @@ public class FplController {
     private final MvpRecommendationService mvpService;
     private final WeeklyAlertService alertService;
     private final FPLDataService fplDataService;
-    private Set<Long> availablePlayerIds;
-
-    @PostConstruct
-    public void init() {
-        // Safely initialize after Spring injects dependencies
-        this.availablePlayerIds = fplDataService.getAvailablePlayersId();
-        log.info("Loaded {} player IDs into memory", availablePlayerIds.size());
-    }
+    private final RefreshCoordinator refreshCoordinator;
 
     @GetMapping("/mvp/top-players")
     @Operation(summary = "Get top MVP players", description = "Fetches top performing players for MVP recommendation")
@@ -62,12 +59,42 @@ public class FplController {
     })
     public Mono<ResponseEntity<BudgetSquadResponse>> generateSquad(@Valid @RequestBody BudgetSquadRequest request) {
         log.info("API: Generating squad with budget: £{}m", request.getBudget());
-        request.validateBusinessRules(availablePlayerIds);
+        // Checked against the ids of the current snapshot, so players added by a refresh are accepted straight away
+        request.validateBusinessRules(fplDataService.getPlayerIdIndex());
         return mvpService.generateBudgetSquad(request)
                 .doOnError(ex -> log.error("Failed to generate squad", ex))
                 .map(ResponseEntity::ok);
     }
 
+    @PostMapping(value = "/squad/generate/best-formation", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Generate the best squad across formations", description = "Evaluates every legal formation in parallel and returns the best squad with the top alternatives")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Squads generated successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation failed or invalid request"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public Mono<ResponseEntity<FormationSearchResponse>> generateBestFormationSquad(@Valid @RequestBody FormationSearchRequest request) {
+        log.info("API: Searching all formations with budget: £{}m", request.getBudget());
+        request.validateBusinessRules(fplDataService.getPlayerIdIndex());
+        return mvpService.generateBestFormationSquad(request)
+                .doOnError(ex -> log.error("Failed to search formations", ex))
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/squad/generate/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Generate budget squads in batch", description = "Solves many squad requests against one snapshot and streams one NDJSON line per request")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Squads streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation failed or invalid request"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public Flux<BatchSquadResult> generateSquadBatch(@Valid @RequestBody BatchSquadRequest request) {
+        log.info("API: Generating {} squads in batch", request.getRequests().size());
+        request.validateBusinessRules(fplDataService.getPlayerIdIndex());
+        return mvpService.generateBudgetSquadBatch(request)
+                .doOnError(ex -> log.error("Failed to generate squad batch", ex));
+    }
+
     @GetMapping("/alerts/weekly")
     @Operation(summary = "Get weekly FPL alert", description = "Retrieves the weekly alert containing key player or fixture info")
     @ApiResponses({
@@ -80,15 +107,26 @@ public class FplController {
     }
 
     @PostMapping("/data/refresh")
-    @Operation(summary = "Manual data refresh", description = "Triggers a manual update of FPL data")
+    @Operation(summary = "Manual data refresh", description = "Triggers a manual update of FPL data, or joins the one already running, and returns its job")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Data refresh initiated successfully"),
+            @ApiResponse(responseCode = "202", description = "Data refresh initiated successfully"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<String> refreshData() {
+    public ResponseEntity<RefreshJobStatus> refreshData() {
         log.info("API: Manual data refresh triggered");
-        fplDataService.updateDatabase();
-        return ResponseEntity.ok("Data refresh initiated");
+        return ResponseEntity.accepted().body(refreshCoordinator.trigger("manual"));
+    }
+
+    @GetMapping("/data/refresh/{jobId}")
+    @Operation(summary = "Data refresh status", description = "Returns the state and per-stage durations of a refresh job")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Job status retrieved"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired job id")
+    })
+    public ResponseEntity<RefreshJobStatus> getRefreshStatus(@PathVariable("jobId") String jobId) {
+        return refreshCoordinator.status(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/gameWeek/current")
@@ -0,0 +1,29 @@
+package com.project.mvprecommender.dto;
+
+import com.project.mvprecommender.snapshot.PlayerIdIndex;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSquadRequest {
+    @NotEmpty(message = "At least one squad request is required")
+    @Size(max = 100, message = "A batch can not exceed 100 squad requests")
+    private List<@Valid @NotNull(message = "Squad request cannot be null") BudgetSquadRequest> requests;
+    @Builder.Default
+    private Boolean includeAiAnalysis = false; // one batched AI call for all distinct squads when true
+
+    public void validateBusinessRules(PlayerIdIndex playerIds) {
+        requests.forEach(request -> request.validateBusinessRules(playerIds));
+    }
+}
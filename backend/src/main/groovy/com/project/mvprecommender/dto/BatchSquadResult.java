@@ -0,0 +1,19 @@
+package com.project.mvprecommender.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One NDJSON line of a batch response; {@code index} points back into the request list.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSquadResult {
+    private Integer index;
+    private BudgetSquadResponse squad;
+    private String error;
+}
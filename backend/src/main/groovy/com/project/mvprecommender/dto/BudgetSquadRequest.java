@@ -1,5 +1,6 @@
 package com.project.mvprecommender.dto;
 
+import com.project.mvprecommender.snapshot.PlayerIdIndex;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,7 +8,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
-import java.util.Set;
 
 @Data
 @Builder
@@ -24,7 +24,7 @@ public class BudgetSquadRequest {
     private List<@NotNull(message = "Player ID cannot be null") Long> mustHavePlayers;
     private List<@NotNull(message = "Player ID cannot be null") Long> excludedPlayers;
 
-    public void validateBusinessRules(Set<Long> availablePlayerIds) {
+    public void validateBusinessRules(PlayerIdIndex playerIds) {
         // Check overlapping players
         if (mustHavePlayers != null && excludedPlayers != null) {
             for (Long p : mustHavePlayers) {
@@ -37,7 +37,7 @@ public class BudgetSquadRequest {
         // Check if all player IDs exist in your dataset
         if (mustHavePlayers != null) {
             for (Long p : mustHavePlayers) {
-                if (!availablePlayerIds.contains(p)) {
+                if (!playerIds.contains(p)) {
                     throw new IllegalArgumentException("Must-have player ID " + p + " does not exist.");
                 }
             }
@@ -45,7 +45,7 @@ public class BudgetSquadRequest {
 
         if (excludedPlayers != null) {
             for (Long p : excludedPlayers) {
-                if (!availablePlayerIds.contains(p)) {
+                if (!playerIds.contains(p)) {
                     throw new IllegalArgumentException("Excluded player ID " + p + " does not exist.");
                 }
             }
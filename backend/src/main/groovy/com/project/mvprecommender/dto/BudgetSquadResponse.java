@@ -13,9 +13,13 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 public class BudgetSquadResponse {
+    private String formation;
     private List<PlayerRecommendation> selectedPlayers;
     private Double totalCost;
     private Integer projectedPoints;
     private String aiAnalysis;
     private Map<Integer, Integer> positionBreakdown;
+    private Double totalScore;
+    private Boolean optimal; // false when the search ran out of time and returned its best squad so far
+    private Long snapshotVersion; // data snapshot the squad was computed from
 }
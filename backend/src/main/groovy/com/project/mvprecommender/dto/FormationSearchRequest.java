@@ -0,0 +1,43 @@
+package com.project.mvprecommender.dto;
+
+import com.project.mvprecommender.snapshot.PlayerIdIndex;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Budget squad request without a fixed formation: every legal formation is evaluated.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormationSearchRequest {
+    @NotNull(message = "Budget is required")
+    @DecimalMin(value = "0.1", message = "Budget must be at least 0.1 million")
+    @DecimalMax(value = "100", message = "Budget can not exceed 100 million")
+    private Double budget; // Budget in millions
+    private List<@NotNull(message = "Player ID cannot be null") Long> mustHavePlayers;
+    private List<@NotNull(message = "Player ID cannot be null") Long> excludedPlayers;
+    @Min(value = 0, message = "Alternatives must be at least 0")
+    @Max(value = 7, message = "Alternatives can not exceed 7")
+    @Builder.Default
+    private Integer alternatives = 2; // runner-up formations returned next to the best squad
+
+    public BudgetSquadRequest forFormation(String formation) {
+        return BudgetSquadRequest.builder()
+                .budget(budget)
+                .formation(formation)
+                .mustHavePlayers(mustHavePlayers)
+                .excludedPlayers(excludedPlayers)
+                .build();
+    }
+
+    public void validateBusinessRules(PlayerIdIndex playerIds) {
+        forFormation(null).validateBusinessRules(playerIds);
+    }
+}
@@ -0,0 +1,19 @@
+package com.project.mvprecommender.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormationSearchResponse {
+    private BudgetSquadResponse best;
+    private List<BudgetSquadResponse> alternatives; // next best formations, without AI analysis
+    private Integer formationsEvaluated; // formations with a feasible squad
+    private Long snapshotVersion;
+}
@@ -17,4 +17,5 @@ public class MvpRecommendationResponse {
     private Integer currentGameWeek;
     private LocalDateTime generatedAt;
     private String aiInsights;
+    private Long snapshotVersion; // data snapshot the response was computed from
 }
@@ -24,6 +24,8 @@ public class PlayerRecommendation {
     private List<String> nextFixtures;
     private String injuryStatus;
     private Integer chanceOfPlaying;
+    private Integer livePoints; // points so far in the current gameweek, null without live stats
+    private Integer liveMinutes;
     private Double aiScore;
     //private String aiAnalysis;
     private String recommendation; // BUY, HOLD, SELL, WATCH
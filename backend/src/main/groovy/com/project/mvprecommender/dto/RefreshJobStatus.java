@@ -0,0 +1,31 @@
+package com.project.mvprecommender.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * State of a data refresh run. {@code coalesced} is true when the trigger joined a run that was already in flight;
+ * {@code unchanged} lists payloads that upstream reported as not modified.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshJobStatus {
+    private String jobId;
+    private String trigger;
+    private String state;
+    private Boolean coalesced;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long totalMs;
+    private List<RefreshStageTiming> stages;
+    private List<String> unchanged;
+    private String error;
+    private Long snapshotVersion;
+}
@@ -0,0 +1,13 @@
+package com.project.mvprecommender.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshStageTiming {
+    private String stage;
+    private Double durationMs;
+}
@@ -9,6 +9,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
 @Entity
 @Table(name= "fixtures")
 @Data
@@ -44,4 +49,21 @@ public class Fixture {
 
     @JsonProperty("finished")
     private Boolean finished;
+
+    /**
+     * Kickoff as an instant; FPL sends UTC ISO-8601 ("2025-08-16T14:00:00Z").
+     * Returns null for fixtures that have not been scheduled yet.
+     */
+    public Instant kickoffInstant() {
+        if (kickoffTime == null || kickoffTime.isBlank()) return null;
+        try {
+            return Instant.parse(kickoffTime);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(kickoffTime).toInstant(ZoneOffset.UTC);
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
 }
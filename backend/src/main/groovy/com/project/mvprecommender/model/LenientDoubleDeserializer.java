@@ -0,0 +1,39 @@
+package com.project.mvprecommender.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * FPL sends most decimal stats as strings ("5.4"). Parses them once at ingestion; blank values map
+ * to null, and malformed ones map to null and are counted in the reader's {@link MalformedValues}.
+ */
+public class LenientDoubleDeserializer extends JsonDeserializer<Double> {
+
+    @Override
+    public Double deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            if (text.isEmpty()) return null;
+            try {
+                double value = Double.parseDouble(text);
+                if (Double.isFinite(value)) return value;
+            } catch (NumberFormatException ignored) {
+                // counted below
+            }
+        } else {
+            parser.skipChildren();
+        }
+        if (context.getAttribute(MalformedValues.ATTRIBUTE) instanceof MalformedValues malformed) {
+            malformed.record(parser.currentName());
+        }
+        return null;
+    }
+}
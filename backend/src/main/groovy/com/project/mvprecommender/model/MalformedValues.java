@@ -0,0 +1,27 @@
+package com.project.mvprecommender.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tally of values that could not be parsed during one ingestion, keyed by JSON field name.
+ * Passed to Jackson as a reader attribute under {@link #ATTRIBUTE}.
+ */
+public final class MalformedValues {
+
+    public static final String ATTRIBUTE = MalformedValues.class.getName();
+
+    private final Map<String, Integer> counts = new TreeMap<>();
+
+    public synchronized void record(String field) {
+        counts.merge(field != null ? field : "unknown", 1, Integer::sum);
+    }
+
+    public synchronized Map<String, Integer> counts() {
+        return Map.copyOf(counts);
+    }
+
+    public synchronized int total() {
+        return counts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -1,6 +1,7 @@
 package com.project.mvprecommender.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
@@ -52,13 +53,16 @@ public class Player {
     private Integer totalPoints;
 
     @JsonProperty("form")
-    private String form;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double form;
 
     @JsonProperty("points_per_game")
-    private String pointsPerGame;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double pointsPerGame;
 
     @JsonProperty("selected_by_percent")
-    private String selectedByPercent;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double selectedByPercent;
 
     @JsonProperty("goals_scored")
     private Integer goalsScored;
@@ -88,28 +92,36 @@ public class Player {
     private Integer redCards;
 
     @JsonProperty("influence")
-    private String influence;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double influence;
 
     @JsonProperty("creativity")
-    private String creativity;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double creativity;
 
     @JsonProperty("threat")
-    private String threat;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double threat;
 
     @JsonProperty("ict_index")
-    private String ictIndex;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double ictIndex;
 
     @JsonProperty("expected_goals")
-    private String expectedGoals;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double expectedGoals;
 
     @JsonProperty("expected_assists")
-    private String expectedAssists;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double expectedAssists;
 
     @JsonProperty("expected_goal_involvements")
-    private String expectedGoalInvolvements;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double expectedGoalInvolvements;
 
     @JsonProperty("expected_goals_conceded")
-    private String expectedGoalsConceded;
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double expectedGoalsConceded;
 
     @JsonProperty("status")
     private String status; // a=available, d=doubtful, i=injured, u=unavailable
@@ -123,12 +135,6 @@ public class Player {
     private LocalDateTime lastUpdated;
 
     // Calculated fields
-    @Transient
-    private Double valueForMoney; // Points per million
-
-    @Transient
-    private Double fixtureScore; // Difficulty score for upcoming fixtures
-
     @Transient
     private Double aiRecommendationScore;
 
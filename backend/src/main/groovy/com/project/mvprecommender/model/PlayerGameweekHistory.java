@@ -0,0 +1,97 @@
+package com.project.mvprecommender.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One player's match in a gameweek, from the "history" array of {@code element-summary/{id}/}.
+ * A player has one row per fixture, so double gameweeks yield two rows for the same round.
+ */
+@Entity
+@Table(name = "player_history", indexes = @Index(name = "idx_player_history_player", columnList = "player_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerGameweekHistory {
+
+    // Derived from (player, fixture) by key(), so re-fetched rows map onto the stored ones
+    @Id
+    private long id;
+
+    @JsonProperty("element")
+    private Long playerId;
+
+    @JsonProperty("fixture")
+    private Long fixtureId;
+
+    @JsonProperty("round")
+    private Integer gameWeek;
+
+    @JsonProperty("opponent_team")
+    private Integer opponentTeam;
+
+    @JsonProperty("was_home")
+    private Boolean wasHome;
+
+    @JsonProperty("kickoff_time")
+    private String kickoffTime;
+
+    @JsonProperty("minutes")
+    private Integer minutes;
+
+    @JsonProperty("total_points")
+    private Integer totalPoints;
+
+    @JsonProperty("goals_scored")
+    private Integer goalsScored;
+
+    @JsonProperty("assists")
+    private Integer assists;
+
+    @JsonProperty("clean_sheets")
+    private Integer cleanSheets;
+
+    @JsonProperty("goals_conceded")
+    private Integer goalsConceded;
+
+    @JsonProperty("saves")
+    private Integer saves;
+
+    @JsonProperty("bonus")
+    private Integer bonus;
+
+    @JsonProperty("bps")
+    private Integer bps;
+
+    @JsonProperty("ict_index")
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double ictIndex;
+
+    @JsonProperty("expected_goals")
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double expectedGoals;
+
+    @JsonProperty("expected_assists")
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double expectedAssists;
+
+    @JsonProperty("expected_goals_conceded")
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double expectedGoalsConceded;
+
+    @JsonProperty("value")
+    private Integer price; // Price at the time, in 0.1m units
+
+    public static long key(long playerId, long fixtureId) {
+        return playerId * 1_000_000L + fixtureId;
+    }
+}
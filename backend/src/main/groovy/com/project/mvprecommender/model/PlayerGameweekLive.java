@@ -0,0 +1,78 @@
+package com.project.mvprecommender.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A player's running stats in the gameweek being played, from the "stats" object of an element in
+ * {@code event/{gw}/live/}. One row per player and gameweek, overwritten as the matches progress.
+ */
+@Entity
+@Table(name = "player_live", indexes = @Index(name = "idx_player_live_game_week", columnList = "game_week"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerGameweekLive {
+
+    // Derived from (player, gameweek) by key()
+    @Id
+    private long id;
+
+    private Long playerId;
+
+    private Integer gameWeek;
+
+    @JsonProperty("minutes")
+    private Integer minutes;
+
+    @JsonProperty("total_points")
+    private Integer totalPoints;
+
+    @JsonProperty("goals_scored")
+    private Integer goalsScored;
+
+    @JsonProperty("assists")
+    private Integer assists;
+
+    @JsonProperty("clean_sheets")
+    private Integer cleanSheets;
+
+    @JsonProperty("goals_conceded")
+    private Integer goalsConceded;
+
+    @JsonProperty("saves")
+    private Integer saves;
+
+    @JsonProperty("yellow_cards")
+    private Integer yellowCards;
+
+    @JsonProperty("red_cards")
+    private Integer redCards;
+
+    @JsonProperty("bonus")
+    private Integer bonus;
+
+    @JsonProperty("bps")
+    private Integer bps;
+
+    @JsonProperty("expected_goals")
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double expectedGoals;
+
+    @JsonProperty("expected_assists")
+    @JsonDeserialize(using = LenientDoubleDeserializer.class)
+    private Double expectedAssists;
+
+    public static long key(long playerId, int gameWeek) {
+        return playerId * 1_000L + gameWeek;
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.mvprecommender.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide marker of ingested data: one row per kind of publication (see {@code SnapshotPublications.Kind})
+ * whose generation is bumped by whichever node ingested and published it, so the other nodes know to reload
+ * theirs from the DB.
+ */
+@Entity
+@Table(name = "snapshot_publication")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SnapshotPublication {
+
+    @Id
+    private Integer id;
+
+    private Long generation;
+
+    private LocalDateTime publishedAt;
+
+    private String publishedBy;
+}
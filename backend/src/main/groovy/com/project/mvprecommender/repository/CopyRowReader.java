@@ -0,0 +1,68 @@
+package com.project.mvprecommender.repository;
+
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Presents rows as CSV for {@code COPY ... FROM STDIN (FORMAT csv)}, encoding one row at a time as
+ * the driver reads, so the whole load is never materialised as text. Null is an unquoted empty field;
+ * strings are always quoted, so an empty string stays distinct from null.
+ */
+class CopyRowReader<T> extends Reader {
+
+    private final UpsertTable<T> table;
+    private final Iterator<T> rows;
+    private final StringBuilder line = new StringBuilder(256);
+    private int position;
+
+    CopyRowReader(UpsertTable<T> table, List<T> rows) {
+        this.table = table;
+        this.rows = rows.iterator();
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        if (length == 0) return 0;
+        int written = 0;
+        while (written < length) {
+            if (position == line.length()) {
+                if (!rows.hasNext()) break;
+                encode(rows.next());
+            }
+            int count = Math.min(length - written, line.length() - position);
+            line.getChars(position, position + count, buffer, offset + written);
+            position += count;
+            written += count;
+        }
+        return written == 0 ? -1 : written;
+    }
+
+    private void encode(T row) {
+        line.setLength(0);
+        position = 0;
+        Object[] values = table.insertArgs(row);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append(',');
+            Object value = values[i];
+            if (value == null) continue;
+            if (value instanceof CharSequence text) {
+                line.append('"');
+                for (int c = 0; c < text.length(); c++) {
+                    char ch = text.charAt(c);
+                    if (ch == '"') line.append('"');
+                    line.append(ch);
+                }
+                line.append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        line.append('\n');
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release; rows are held by the caller
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.mvprecommender.repository;
+
+import com.project.mvprecommender.model.PlayerGameweekHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PlayerHistoryRepository extends JpaRepository<PlayerGameweekHistory, Long> {
+
+    List<PlayerGameweekHistory> findByPlayerIdOrderByGameWeekAsc(Long playerId);
+}
@@ -0,0 +1,13 @@
+package com.project.mvprecommender.repository;
+
+import com.project.mvprecommender.model.PlayerGameweekLive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PlayerLiveRepository extends JpaRepository<PlayerGameweekLive, Long> {
+
+    List<PlayerGameweekLive> findByGameWeek(Integer gameWeek);
+}
@@ -0,0 +1,19 @@
+package com.project.mvprecommender.repository;
+
+import com.project.mvprecommender.model.SnapshotPublication;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SnapshotPublicationRepository extends JpaRepository<SnapshotPublication, Integer> {
+
+    @Modifying
+    @Query("UPDATE SnapshotPublication p SET p.generation = p.generation + 1, p.publishedAt = :publishedAt, p.publishedBy = :node "
+            + "WHERE p.id = :id")
+    int bump(@Param("id") Integer id, @Param("publishedAt") LocalDateTime publishedAt, @Param("node") String node);
+}
@@ -0,0 +1,81 @@
+package com.project.mvprecommender.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Plain JDBC writes for ingested rows; callers decide which rows are new, so there is no
+ * select-before-write per row. Two paths:
+ * <ul>
+ *     <li>batch: one batched INSERT or UPDATE statement per list, on any database;</li>
+ *     <li>copy: on PostgreSQL, rows are streamed into a temp staging table with {@code COPY FROM STDIN}
+ *     and merged with a single {@code INSERT ... ON CONFLICT DO UPDATE}, in one transaction.</li>
+ * </ul>
+ */
+@Repository
+@Slf4j
+public class UpsertRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean copyEnabled;
+    private volatile Boolean postgres;
+
+    public UpsertRepository(JdbcTemplate jdbcTemplate, @Value("${mvp.ingestion.copy-enabled:true}") boolean copyEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.copyEnabled = copyEnabled;
+    }
+
+    public <T> void insert(UpsertTable<T> table, List<T> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(table.insertSql(), rows.stream().map(table::insertArgs).toList());
+    }
+
+    public <T> void update(UpsertTable<T> table, List<T> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(table.updateSql(), rows.stream().map(table::updateArgs).toList());
+    }
+
+    /**
+     * Whether {@link #merge} can be used: enabled and connected to PostgreSQL. Other databases (H2 in tests)
+     * keep using the batch path.
+     */
+    public boolean supportsCopy() {
+        if (!copyEnabled) return false;
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class));
+            log.info("Bulk ingestion uses {}", postgres ? "COPY into staging tables" : "JDBC batches");
+        }
+        return postgres;
+    }
+
+    /**
+     * Inserts or updates {@code rows} in one set-based statement, streaming them through {@code COPY}.
+     * PostgreSQL only; see {@link #supportsCopy()}.
+     */
+    @Transactional
+    public <T> void merge(UpsertTable<T> table, List<T> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(table.createStagingSql());
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(table.copySql(), new CopyRowReader<>(table, rows));
+                statement.executeUpdate(table.mergeSql());
+                // Emptied rather than dropped, in case the surrounding transaction merges into this table again
+                statement.execute("TRUNCATE " + table.stagingName());
+            } catch (IOException e) {
+                throw new SQLException("COPY into " + table.stagingName() + " failed", e);
+            }
+            return null;
+        });
+    }
+}
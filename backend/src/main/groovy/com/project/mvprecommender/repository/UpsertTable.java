@@ -0,0 +1,235 @@
+package com.project.mvprecommender.repository;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.PlayerGameweekHistory;
+import com.project.mvprecommender.model.PlayerGameweekLive;
+import com.project.mvprecommender.model.Team;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Column layout of an ingested table, used to write it with plain JDBC batches and to compute
+ * a 64-bit content hash of each row. Columns must match the names Hibernate generates for the entity.
+ */
+public final class UpsertTable<T> {
+
+    public static final UpsertTable<Player> PLAYERS = new UpsertTable<>("players", Player::getId, List.of(
+            new Column<>("web_name", Player::getWebName, true),
+            new Column<>("first_name", Player::getFirstName, true),
+            new Column<>("second_name", Player::getSecondName, true),
+            new Column<>("team", Player::getTeam, true),
+            new Column<>("position", Player::getPosition, true),
+            new Column<>("now_cost", Player::getNowCost, true),
+            new Column<>("total_points", Player::getTotalPoints, true),
+            new Column<>("form", Player::getForm, true),
+            new Column<>("points_per_game", Player::getPointsPerGame, true),
+            new Column<>("selected_by_percent", Player::getSelectedByPercent, true),
+            new Column<>("goals_scored", Player::getGoalsScored, true),
+            new Column<>("assists", Player::getAssists, true),
+            new Column<>("clean_sheets", Player::getCleanSheets, true),
+            new Column<>("bonus", Player::getBonus, true),
+            new Column<>("minutes", Player::getMinutes, true),
+            new Column<>("saves", Player::getSaves, true),
+            new Column<>("goals_conceded", Player::getGoalsConceded, true),
+            new Column<>("yellow_cards", Player::getYellowCards, true),
+            new Column<>("red_cards", Player::getRedCards, true),
+            new Column<>("influence", Player::getInfluence, true),
+            new Column<>("creativity", Player::getCreativity, true),
+            new Column<>("threat", Player::getThreat, true),
+            new Column<>("ict_index", Player::getIctIndex, true),
+            new Column<>("expected_goals", Player::getExpectedGoals, true),
+            new Column<>("expected_assists", Player::getExpectedAssists, true),
+            new Column<>("expected_goal_involvements", Player::getExpectedGoalInvolvements, true),
+            new Column<>("expected_goals_conceded", Player::getExpectedGoalsConceded, true),
+            new Column<>("status", Player::getStatus, true),
+            new Column<>("news", Player::getNews, true),
+            new Column<>("chance_of_playing_next_round", Player::getChanceOfPlayingNextRound, true),
+            // Stamped when the row is written, so it must not make an otherwise identical row look changed
+            new Column<>("last_updated", Player::getLastUpdated, false)
+    ));
+
+    public static final UpsertTable<Team> TEAMS = new UpsertTable<>("teams", Team::getId, List.of(
+            new Column<>("name", Team::getName, true),
+            new Column<>("short_name", Team::getShortName, true),
+            new Column<>("strength", Team::getStrength, true),
+            new Column<>("strength_overall_home", Team::getStrengthOverallHome, true),
+            new Column<>("strength_overall_away", Team::getStrengthOverallAway, true),
+            new Column<>("strength_attack_home", Team::getStrengthAttackHome, true),
+            new Column<>("strength_attack_away", Team::getStrengthAttackAway, true),
+            new Column<>("strength_defence_home", Team::getStrengthDefenceHome, true),
+            new Column<>("strength_defence_away", Team::getStrengthDefenceAway, true)
+    ));
+
+    public static final UpsertTable<Fixture> FIXTURES = new UpsertTable<>("fixtures", Fixture::getId, List.of(
+            new Column<>("game_week", Fixture::getGameWeek, true),
+            new Column<>("team_home", Fixture::getTeamHome, true),
+            new Column<>("team_away", Fixture::getTeamAway, true),
+            new Column<>("team_home_difficulty", Fixture::getTeamHomeDifficulty, true),
+            new Column<>("team_away_difficulty", Fixture::getTeamAwayDifficulty, true),
+            new Column<>("kickoff_time", Fixture::getKickoffTime, true),
+            new Column<>("started", Fixture::getStarted, true),
+            new Column<>("finished", Fixture::getFinished, true)
+    ));
+
+    public static final UpsertTable<PlayerGameweekHistory> PLAYER_HISTORY = new UpsertTable<>("player_history", PlayerGameweekHistory::getId, List.of(
+            new Column<>("player_id", PlayerGameweekHistory::getPlayerId, true),
+            new Column<>("fixture_id", PlayerGameweekHistory::getFixtureId, true),
+            new Column<>("game_week", PlayerGameweekHistory::getGameWeek, true),
+            new Column<>("opponent_team", PlayerGameweekHistory::getOpponentTeam, true),
+            new Column<>("was_home", PlayerGameweekHistory::getWasHome, true),
+            new Column<>("kickoff_time", PlayerGameweekHistory::getKickoffTime, true),
+            new Column<>("minutes", PlayerGameweekHistory::getMinutes, true),
+            new Column<>("total_points", PlayerGameweekHistory::getTotalPoints, true),
+            new Column<>("goals_scored", PlayerGameweekHistory::getGoalsScored, true),
+            new Column<>("assists", PlayerGameweekHistory::getAssists, true),
+            new Column<>("clean_sheets", PlayerGameweekHistory::getCleanSheets, true),
+            new Column<>("goals_conceded", PlayerGameweekHistory::getGoalsConceded, true),
+            new Column<>("saves", PlayerGameweekHistory::getSaves, true),
+            new Column<>("bonus", PlayerGameweekHistory::getBonus, true),
+            new Column<>("bps", PlayerGameweekHistory::getBps, true),
+            new Column<>("ict_index", PlayerGameweekHistory::getIctIndex, true),
+            new Column<>("expected_goals", PlayerGameweekHistory::getExpectedGoals, true),
+            new Column<>("expected_assists", PlayerGameweekHistory::getExpectedAssists, true),
+            new Column<>("expected_goals_conceded", PlayerGameweekHistory::getExpectedGoalsConceded, true),
+            new Column<>("price", PlayerGameweekHistory::getPrice, true)
+    ));
+
+    public static final UpsertTable<PlayerGameweekLive> PLAYER_LIVE = new UpsertTable<>("player_live", PlayerGameweekLive::getId, List.of(
+            new Column<>("player_id", PlayerGameweekLive::getPlayerId, true),
+            new Column<>("game_week", PlayerGameweekLive::getGameWeek, true),
+            new Column<>("minutes", PlayerGameweekLive::getMinutes, true),
+            new Column<>("total_points", PlayerGameweekLive::getTotalPoints, true),
+            new Column<>("goals_scored", PlayerGameweekLive::getGoalsScored, true),
+            new Column<>("assists", PlayerGameweekLive::getAssists, true),
+            new Column<>("clean_sheets", PlayerGameweekLive::getCleanSheets, true),
+            new Column<>("goals_conceded", PlayerGameweekLive::getGoalsConceded, true),
+            new Column<>("saves", PlayerGameweekLive::getSaves, true),
+            new Column<>("yellow_cards", PlayerGameweekLive::getYellowCards, true),
+            new Column<>("red_cards", PlayerGameweekLive::getRedCards, true),
+            new Column<>("bonus", PlayerGameweekLive::getBonus, true),
+            new Column<>("bps", PlayerGameweekLive::getBps, true),
+            new Column<>("expected_goals", PlayerGameweekLive::getExpectedGoals, true),
+            new Column<>("expected_assists", PlayerGameweekLive::getExpectedAssists, true)
+    ));
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long NULL_MARKER = 0x9e3779b97f4a7c15L;
+
+    public record Column<T>(String name, Function<T, Object> value, boolean hashed) {
+    }
+
+    private final String name;
+    private final ToLongFunction<T> id;
+    private final List<Column<T>> columns;
+    private final String insertSql;
+    private final String updateSql;
+    private final String copySql;
+    private final String mergeSql;
+
+    private UpsertTable(String name, ToLongFunction<T> id, List<Column<T>> columns) {
+        this.name = name;
+        this.id = id;
+        this.columns = columns;
+        String names = columns.stream().map(Column::name).collect(Collectors.joining(", "));
+        String placeholders = columns.stream().map(column -> "?").collect(Collectors.joining(", "));
+        this.insertSql = "INSERT INTO " + name + " (id, " + names + ") VALUES (?, " + placeholders + ")";
+        this.updateSql = "UPDATE " + name + " SET "
+                + columns.stream().map(column -> column.name() + " = ?").collect(Collectors.joining(", "))
+                + " WHERE id = ?";
+        this.copySql = "COPY " + stagingName() + " (id, " + names + ") FROM STDIN (FORMAT csv)";
+        this.mergeSql = "INSERT INTO " + name + " (id, " + names + ") SELECT id, " + names + " FROM " + stagingName()
+                + " ON CONFLICT (id) DO UPDATE SET "
+                + columns.stream().map(column -> column.name() + " = EXCLUDED." + column.name()).collect(Collectors.joining(", "));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long id(T row) {
+        return id.applyAsLong(row);
+    }
+
+    String insertSql() {
+        return insertSql;
+    }
+
+    String updateSql() {
+        return updateSql;
+    }
+
+    String stagingName() {
+        return "copy_" + name;
+    }
+
+    String createStagingSql() {
+        return "CREATE TEMP TABLE IF NOT EXISTS " + stagingName() + " (LIKE " + name + " INCLUDING DEFAULTS) ON COMMIT DROP";
+    }
+
+    String copySql() {
+        return copySql;
+    }
+
+    String mergeSql() {
+        return mergeSql;
+    }
+
+    Object[] insertArgs(T row) {
+        Object[] args = new Object[columns.size() + 1];
+        args[0] = id(row);
+        for (int i = 0; i < columns.size(); i++) {
+            args[i + 1] = columns.get(i).value().apply(row);
+        }
+        return args;
+    }
+
+    Object[] updateArgs(T row) {
+        Object[] args = new Object[columns.size() + 1];
+        for (int i = 0; i < columns.size(); i++) {
+            args[i] = columns.get(i).value().apply(row);
+        }
+        args[columns.size()] = id(row);
+        return args;
+    }
+
+    /**
+     * FNV-1a over the hashed columns in declaration order; null is distinct from every value.
+     */
+    public long contentHash(T row) {
+        long hash = FNV_OFFSET;
+        for (Column<T> column : columns) {
+            if (!column.hashed()) continue;
+            Object value = column.value().apply(row);
+            if (value == null) {
+                hash = mix(hash, NULL_MARKER);
+            } else if (value instanceof String text) {
+                hash = mix(hash, text.length());
+                for (int i = 0; i < text.length(); i++) {
+                    hash = mix(hash, text.charAt(i));
+                }
+            } else if (value instanceof Double number) {
+                hash = mix(hash, Double.doubleToLongBits(number));
+            } else if (value instanceof Number number) {
+                hash = mix(hash, number.longValue());
+            } else if (value instanceof Boolean flag) {
+                hash = mix(hash, flag ? 1 : 2);
+            } else {
+                hash = mix(hash, value.hashCode());
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -6,12 +6,16 @@ import com.openai.models.chat.completions.*;
 import com.project.mvprecommender.configuration.MvpExternalClientProperties;
 import com.project.mvprecommender.model.Fixture;
 import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.snapshot.ScoredPlayer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,10 +23,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AiAnalysisService {
 
+    private static final Pattern BATCH_SQUAD_MARKER = Pattern.compile("(?im)^\\W*squad\\s+(\\d+)\\W*:");
+
     private final OpenAIClient openAIClient;
     private final MvpExternalClientProperties properties;
 
-    public CompletableFuture<String> analyzeTopPlayers(List<Player> players, String position) {
+    public CompletableFuture<String> analyzeTopPlayers(List<ScoredPlayer> players, String position) {
         String prompt = buildTopPlayersPrompt(players, position);
         return getChatCompletionAsync(prompt);
     }
@@ -32,11 +38,44 @@ public class AiAnalysisService {
         return getChatCompletionAsync(prompt);
     }
 
-    public CompletableFuture<String> analyzeSquad(List<Player> squad, Double budget) {
+    public CompletableFuture<String> analyzeSquad(List<ScoredPlayer> squad, Double budget) {
         String prompt = buildSquadAnalysisPrompt(squad, budget);
         return getChatCompletionAsync(prompt);
     }
 
+    /**
+     * One completion for many squads; the answer is split back into one comment per squad, in order.
+     */
+    public CompletableFuture<List<String>> analyzeSquads(List<List<ScoredPlayer>> squads, List<Double> budgets) {
+        if (squads.isEmpty()) return CompletableFuture.completedFuture(List.of());
+        String prompt = buildBatchSquadAnalysisPrompt(squads, budgets);
+        return getChatCompletionAsync(prompt).thenApply(text -> splitBatchAnalysis(text, squads.size()));
+    }
+
+    /**
+     * Splits "Squad n: ..." lines into per-squad comments. Squads the model skipped, or an answer without
+     * any markers (e.g. the fallback message), get the whole text.
+     */
+    static List<String> splitBatchAnalysis(String text, int count) {
+        String[] comments = new String[count];
+        Matcher matcher = BATCH_SQUAD_MARKER.matcher(text);
+        int previousIndex = -1;
+        int previousEnd = 0;
+        while (matcher.find()) {
+            if (previousIndex >= 0) comments[previousIndex] = text.substring(previousEnd, matcher.start()).trim();
+            int squad = Integer.parseInt(matcher.group(1)) - 1;
+            previousIndex = squad >= 0 && squad < count ? squad : -1;
+            previousEnd = matcher.end();
+        }
+        if (previousIndex >= 0) comments[previousIndex] = text.substring(previousEnd).trim();
+
+        List<String> result = new ArrayList<>(count);
+        for (String comment : comments) {
+            result.add(comment != null && !comment.isEmpty() ? comment : text.trim());
+        }
+        return result;
+    }
+
     private CompletableFuture<String> getChatCompletionAsync(String prompt) {
         List<ChatCompletionMessageParam> messages = List.of(
                 ChatCompletionMessageParam.ofSystem(
@@ -120,13 +159,13 @@ public class AiAnalysisService {
         );
     }
 
-    private String buildTopPlayersPrompt(List<Player> players, String position) {
+    private String buildTopPlayersPrompt(List<ScoredPlayer> players, String position) {
         StringBuilder prompt = new StringBuilder();
         prompt.append(String.format("Analyze these top 5 %s players for Fantasy Premier League:\n\n", position));
         for (int i = 0; i < players.size(); i++) {
-            Player p = players.get(i);
+            ScoredPlayer p = players.get(i);
             prompt.append(String.format("%d. %s (£%.1fm) - %d pts, Form: %s\n",
-                    i + 1, p.getWebName(), p.getPriceInMillions(), p.getTotalPoints(), p.getForm()));
+                    i + 1, p.webName(), p.priceInMillions(), p.totalPoints(), p.form()));
         }
         prompt.append("\nProvide: 1) Best value pick, 2) Premium option, 3) Differential pick. Max 3 sentences total.");
         return prompt.toString();
@@ -144,18 +183,34 @@ public class AiAnalysisService {
         return prompt.toString();
     }
 
-    private String buildSquadAnalysisPrompt(List<Player> squad, Double budget) {
+    private String buildSquadAnalysisPrompt(List<ScoredPlayer> squad, Double budget) {
         StringBuilder prompt = new StringBuilder();
         prompt.append(String.format("Analyze this FPL squad (Budget: £%.1fm):\n\n", budget));
         squad.forEach(p ->
                 prompt.append(String.format("%s - %s (£%.1fm): %d pts\n",
-                        p.getWebName(), getPositionName(p.getPosition()),
-                        p.getPriceInMillions(), p.getTotalPoints()))
+                        p.webName(), getPositionName(p.position()),
+                        p.priceInMillions(), p.totalPoints()))
         );
         prompt.append("\nProvide: 1) Squad balance assessment, 2) Weak areas, 3) Transfer suggestions. Max 4 sentences.");
         return prompt.toString();
     }
 
+    private String buildBatchSquadAnalysisPrompt(List<List<ScoredPlayer>> squads, List<Double> budgets) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append(String.format("Analyze these %d FPL squads:\n", squads.size()));
+        for (int i = 0; i < squads.size(); i++) {
+            prompt.append(String.format("\nSquad %d (Budget: £%.1fm):\n", i + 1, budgets.get(i)));
+            squads.get(i).forEach(p ->
+                    prompt.append(String.format("%s - %s (£%.1fm): %d pts\n",
+                            p.webName(), getPositionName(p.position()),
+                            p.priceInMillions(), p.totalPoints()))
+            );
+        }
+        prompt.append("\nFor each squad, start a new line with \"Squad <number>:\" and give its balance, weak areas "
+                + "and one transfer suggestion. Max 2 sentences per squad.");
+        return prompt.toString();
+    }
+
     private String getPositionName(Integer position) {
         return switch (position) {
             case 1 -> "Goalkeeper";
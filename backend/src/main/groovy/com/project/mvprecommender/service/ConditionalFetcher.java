@@ -0,0 +1,145 @@
+package com.project.mvprecommender.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conditional GETs against the FPL API. Remembers the ETag, Last-Modified and a SHA-256 of the body
+ * of the last response that was fully processed for each URL, and completes empty when upstream
+ * answers 304 or sends the same bytes again, so callers skip parsing and persistence altogether.
+ *
+ * <p>A changed body is spooled to a temp file while it is hashed and then streamed back from disk,
+ * which keeps heap usage independent of the payload size.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConditionalFetcher {
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final WebClient mvpWebClient;
+
+    private final Map<String, Validators> validators = new ConcurrentHashMap<>();
+
+    public record Validators(String etag, String lastModified, String bodyHash) {
+    }
+
+    /**
+     * A changed response body, spooled at {@code file} until {@code content} has been read. Call {@link #commit()}
+     * once it has been processed, so the next fetch is conditional on it; an uncommitted body is fetched again
+     * in full next time.
+     */
+    public record Body(Flux<DataBuffer> content, Path file, String sha256, Runnable onProcessed) {
+
+        public void commit() {
+            onProcessed.run();
+        }
+    }
+
+    private record Spooled(Path path, String hash) {
+    }
+
+    /**
+     * The body of {@code url} if it changed since the last committed fetch, otherwise empty.
+     */
+    public Mono<Body> fetch(String url) {
+        return Mono.defer(() -> {
+            Validators previous = validators.get(url);
+            return mvpWebClient
+                    .get()
+                    .uri(url)
+                    .headers(headers -> {
+                        if (previous == null) return;
+                        if (previous.etag() != null) headers.setIfNoneMatch(previous.etag());
+                        if (previous.lastModified() != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+                    })
+                    .retrieve()
+                    .toEntityFlux(DataBuffer.class)
+                    .flatMap(response -> response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                            ? notModified(url, response)
+                            : changed(url, previous, response));
+        });
+    }
+
+    public Validators validators(String url) {
+        return validators.get(url);
+    }
+
+    private Mono<Body> notModified(String url, ResponseEntity<Flux<DataBuffer>> response) {
+        log.info("{} not modified upstream", url);
+        return Objects.requireNonNull(response.getBody())
+                .doOnNext(DataBufferUtils::release)
+                .then(Mono.empty());
+    }
+
+    private Mono<Body> changed(String url, Validators previous, ResponseEntity<Flux<DataBuffer>> response) {
+        HttpHeaders headers = response.getHeaders();
+        return spool(Objects.requireNonNull(response.getBody())).flatMap(spooled -> {
+            Validators current = new Validators(headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED), spooled.hash());
+            if (previous != null && spooled.hash().equals(previous.bodyHash())) {
+                log.info("{} returned an identical body", url);
+                delete(spooled.path());
+                validators.put(url, current);
+                return Mono.empty();
+            }
+            Flux<DataBuffer> content = DataBufferUtils
+                    .read(spooled.path(), DefaultDataBufferFactory.sharedInstance, READ_BUFFER_SIZE)
+                    .doFinally(signal -> delete(spooled.path()));
+            return Mono.just(new Body(content, spooled.path(), spooled.hash(), () -> validators.put(url, current)));
+        });
+    }
+
+    private Mono<Spooled> spool(Flux<DataBuffer> body) {
+        return Mono.fromCallable(() -> Files.createTempFile("fpl-", ".json"))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(path -> {
+                    MessageDigest digest = sha256();
+                    Flux<DataBuffer> hashed = body.doOnNext(buffer -> {
+                        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                            iterator.forEachRemaining(digest::update);
+                        }
+                    });
+                    return DataBufferUtils.write(hashed, path)
+                            .then(Mono.fromCallable(() -> new Spooled(path, HexFormat.of().formatHex(digest.digest()))))
+                            .doOnError(error -> delete(path));
+                });
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled response {}", path, e);
+        }
+    }
+}
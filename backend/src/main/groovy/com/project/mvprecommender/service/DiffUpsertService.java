@@ -0,0 +1,96 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.repository.UpsertRepository;
+import com.project.mvprecommender.repository.UpsertTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Writes only the ingested rows that are new or whose content changed since the last write.
+ * Keeps one 64-bit content hash per stored row and table; rows whose hash matches are skipped
+ * without touching the database, so a refresh costs in proportion to churn rather than table size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DiffUpsertService {
+
+    private final UpsertRepository upsertRepository;
+
+    // table -> (id -> content hash of the stored row)
+    private final Map<String, Map<Long, Long>> hashes = new HashMap<>();
+
+    public record Counts(int inserted, int updated, int unchanged) {
+
+        public static final Counts NONE = new Counts(0, 0, 0);
+
+        public Counts plus(Counts other) {
+            return new Counts(inserted + other.inserted, updated + other.updated, unchanged + other.unchanged);
+        }
+    }
+
+    /**
+     * Records what is already stored, e.g. the rows loaded at startup.
+     */
+    public synchronized <T> void seed(UpsertTable<T> table, Collection<T> stored) {
+        Map<Long, Long> tableHashes = new HashMap<>(stored.size() * 2);
+        for (T row : stored) {
+            tableHashes.put(table.id(row), table.contentHash(row));
+        }
+        hashes.put(table.name(), tableHashes);
+    }
+
+    public <T> Counts upsert(UpsertTable<T> table, List<T> rows, Supplier<? extends Collection<T>> stored) {
+        return upsert(table, rows, row -> {
+        }, stored);
+    }
+
+    /**
+     * Inserts new rows and updates changed ones, in two JDBC batches or one COPY merge on PostgreSQL. {@code beforeWrite} runs on each row
+     * that is about to be written; {@code stored} loads the table if it was never seeded in this process.
+     */
+    public synchronized <T> Counts upsert(UpsertTable<T> table, List<T> rows, Consumer<T> beforeWrite,
+                                          Supplier<? extends Collection<T>> stored) {
+        if (!hashes.containsKey(table.name())) seed(table, stored.get());
+        Map<Long, Long> tableHashes = hashes.get(table.name());
+
+        List<T> inserts = new ArrayList<>();
+        List<T> updates = new ArrayList<>();
+        long[] rowHashes = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            T row = rows.get(i);
+            rowHashes[i] = table.contentHash(row);
+            Long previous = tableHashes.get(table.id(row));
+            if (previous == null) {
+                inserts.add(row);
+            } else if (previous != rowHashes[i]) {
+                updates.add(row);
+            }
+        }
+        inserts.forEach(beforeWrite);
+        updates.forEach(beforeWrite);
+        if (upsertRepository.supportsCopy()) {
+            List<T> changed = new ArrayList<>(inserts);
+            changed.addAll(updates);
+            upsertRepository.merge(table, changed);
+        } else {
+            upsertRepository.insert(table, inserts);
+            upsertRepository.update(table, updates);
+        }
+
+        // Only remember hashes once the batches went through, so a failed write is retried next time
+        for (int i = 0; i < rows.size(); i++) {
+            tableHashes.put(table.id(rows.get(i)), rowHashes[i]);
+        }
+        return new Counts(inserts.size(), updates.size(), rows.size() - inserts.size() - updates.size());
+    }
+}
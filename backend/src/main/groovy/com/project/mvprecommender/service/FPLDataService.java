@@ -1,142 +1,340 @@
 package com.project.mvprecommender.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.mvprecommender.configuration.MvpExternalClientProperties;
 import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.MalformedValues;
 import com.project.mvprecommender.model.Player;
 import com.project.mvprecommender.model.Team;
 import com.project.mvprecommender.repository.FixtureRepository;
 import com.project.mvprecommender.repository.PlayerRepository;
 import com.project.mvprecommender.repository.TeamRepository;
+import com.project.mvprecommender.repository.UpsertTable;
+import com.project.mvprecommender.snapshot.FplSnapshot;
+import com.project.mvprecommender.snapshot.PlayerIdIndex;
+import com.project.mvprecommender.snapshot.PlayerSnapshot;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FPLDataService {
-    private final WebClient mvpWebClient;
+    private static final Map<String, Class<?>> BOOTSTRAP_SECTIONS = Map.of("teams", Team.class, "elements", Player.class);
+
     private final MvpExternalClientProperties properties;
-    private final ObjectMapper objectMapper;
     private final PlayerRepository playerRepository;
     private final FixtureRepository fixtureRepository;
     private final TeamRepository teamRepository;
+    private final FplIndexService fplIndexService;
+    private final IngestionMetrics ingestionMetrics;
+    private final FplStreamReader fplStreamReader;
+    private final DiffUpsertService diffUpsertService;
+    private final ConditionalFetcher conditionalFetcher;
+    private final SnapshotArchive snapshotArchive;
+    private final PlayerStatsStore playerStatsStore;
+    private final SnapshotPublications snapshotPublications;
+
+    /**
+     * Refreshes bootstrap-static, then fixtures, then warms the score cache, as one pipeline timed per stage
+     * on {@code job}. Each payload is fetched conditionally and skipped entirely when upstream has not changed.
+     * A changed payload is streamed into the database chunk by chunk and never held in memory as a whole;
+     * only new or changed rows are written. The indexes of both payloads are staged off to the side and
+     * published as one new snapshot at the end, so readers never see new players with old fixtures.
+     * Start refreshes through {@link RefreshCoordinator} so that only one runs at a time.
+     */
+    public Mono<Void> refresh(RefreshJob job) {
+        if (snapshotArchive.replayGameweek().isPresent()) {
+            return Mono.error(new IllegalStateException(
+                    "Refresh is disabled while replaying archived gameweek " + snapshotArchive.replayGameweek().get()));
+        }
+        return Mono.defer(() -> {
+            FplSnapshot.Builder staged = fplIndexService.stage();
+            // Validators and archive entries only count once the snapshot they fed is published
+            List<Consumer<FplSnapshot>> onPublished = new ArrayList<>();
+            return ingestIfChanged(job, "bootstrap", properties.getBootstrapUrl(), onPublished,
+                    content -> ingestBootstrap(job, content, true, staged))
+                    .then(ingestIfChanged(job, "fixtures", properties.getFixturesUrl(), onPublished,
+                            content -> ingestFixtures(job, content, true, staged)))
+                    .publishOn(Schedulers.boundedElastic())
+                    .then(Mono.fromRunnable(() -> {
+                        FplSnapshot snapshot = fplIndexService.current();
+                        if (staged.isChanged()) {
+                            snapshot = fplIndexService.publish(staged);
+                            job.published(snapshot.version());
+                            playerStatsStore.append(snapshot);
+                            announce();
+                        }
+                        FplSnapshot published = snapshot;
+                        onPublished.forEach(action -> action.accept(published));
+                        job.measure(RefreshJob.Stage.WARM_CACHES, () -> fplIndexService.getPlayerScores(published));
+                    }))
+                    .then()
+                    .doOnSuccess(unused -> log.info("Database updated successfully"));
+        });
+    }
+
+    private Mono<Void> ingestIfChanged(RefreshJob job, String payload, String url, List<Consumer<FplSnapshot>> onPublished,
+                                       Function<Flux<DataBuffer>, Mono<Void>> ingest) {
+        return job.timed(RefreshJob.Stage.FETCH, conditionalFetcher.fetch(url))
+                .flatMap(body -> job.timed(RefreshJob.Stage.ARCHIVE, Mono
+                                .fromCallable(() -> snapshotArchive.store(payload, body.file(), body.sha256()))
+                                .subscribeOn(Schedulers.boundedElastic()))
+                        // Parsing and JDBC writes are blocking work; keep them off the I/O threads
+                        .flatMap(archived -> ingest.apply(body.content().publishOn(Schedulers.boundedElastic()))
+                                .then(Mono.fromRunnable(() -> onPublished.add(snapshot -> {
+                                    body.commit();
+                                    archived.ifPresent(entry -> snapshotArchive.record(entry, snapshot.currentGameweek(Instant.now())));
+                                })))))
+                .switchIfEmpty(Mono.fromRunnable(() -> job.unchanged(payload)))
+                .then();
+    }
+
+    /**
+     * Parses a bootstrap payload into {@code staged}, writing changed rows too when {@code persist} is set.
+     */
+    private Mono<Void> ingestBootstrap(RefreshJob job, Flux<DataBuffer> content, boolean persist, FplSnapshot.Builder staged) {
+        MalformedValues malformed = new MalformedValues();
+        LocalDateTime refreshedAt = LocalDateTime.now();
+        List<Team> teams = new ArrayList<>();
+        List<Player> players = new ArrayList<>();
+        AtomicReference<DiffUpsertService.Counts> teamCounts = new AtomicReference<>(DiffUpsertService.Counts.NONE);
+        AtomicReference<DiffUpsertService.Counts> playerCounts = new AtomicReference<>(DiffUpsertService.Counts.NONE);
+        return parseAndPersist(job, fplStreamReader.read(content, BOOTSTRAP_SECTIONS, malformed), chunk -> {
+            if (chunk.section().equals("teams")) {
+                List<Team> batch = chunk.itemsAs(Team.class);
+                if (persist) {
+                    teamCounts.accumulateAndGet(diffUpsertService.upsert(UpsertTable.TEAMS, batch, teamRepository::findAll),
+                            DiffUpsertService.Counts::plus);
+                }
+                teams.addAll(batch);
+            } else {
+                List<Player> batch = chunk.itemsAs(Player.class);
+                if (persist) {
+                    playerCounts.accumulateAndGet(diffUpsertService.upsert(UpsertTable.PLAYERS, batch,
+                            player -> player.setLastUpdated(refreshedAt), playerRepository::findAll), DiffUpsertService.Counts::plus);
+                }
+                players.addAll(batch);
+            }
+        }).then(Mono.fromRunnable(() -> {
+            // Decimal stats arrive as strings and are parsed once while streaming; malformed ones are counted
+            ingestionMetrics.recordMalformed("players", malformed);
+            if (persist) {
+                ingestionMetrics.recordUpsert("teams", teamCounts.get());
+                ingestionMetrics.recordUpsert("players", playerCounts.get());
+            }
+            job.measure(RefreshJob.Stage.REBUILD_INDEXES, () -> staged.teams(teams).players(players));
+        }));
+    }
 
-    @Cacheable(value = "fplData", key = "'bootstrap'")
-    public Mono<JsonNode> fetchBootStrapData() {
-        log.info("Fetching FPL bootstrap data");
-        return mvpWebClient
-                .get()
-                .uri(properties.getBootstrapUrl())
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .doOnSuccess(data -> log.info("Successfully fetched boostrap data"))
-                .doOnError(error -> log.error("Error fetching bootstrap data", error));
-
-    }
-
-    public void updateDatabase() {
-        fetchBootStrapData()
-                .subscribe(data -> {
-                    try {
-                        updateTeams(data.get("teams"));
-                        updatePlayers(data.get("elements"));
-                        updateFixtures();
-                        log.info("Database updated successfully");
-                    } catch (Exception e) {
-                        log.error("Error updating database", e);
-                    }
-                });
-    }
-
-    private void updateTeams(JsonNode teamsNode) {
+    private Mono<Void> ingestFixtures(RefreshJob job, Flux<DataBuffer> content, boolean persist, FplSnapshot.Builder staged) {
+        List<Fixture> fixtures = new ArrayList<>();
+        AtomicReference<DiffUpsertService.Counts> counts = new AtomicReference<>(DiffUpsertService.Counts.NONE);
+        return parseAndPersist(job, fplStreamReader.read(content, Map.of(FplStreamReader.ROOT, Fixture.class), new MalformedValues()), chunk -> {
+            List<Fixture> batch = chunk.itemsAs(Fixture.class);
+            if (persist) {
+                counts.accumulateAndGet(diffUpsertService.upsert(UpsertTable.FIXTURES, batch, fixtureRepository::findAll),
+                        DiffUpsertService.Counts::plus);
+            }
+            fixtures.addAll(batch);
+        }).then(Mono.fromRunnable(() -> {
+            if (persist) ingestionMetrics.recordUpsert("fixtures", counts.get());
+            job.measure(RefreshJob.Stage.REBUILD_INDEXES, () -> staged.fixtures(fixtures));
+        }));
+    }
+
+    /**
+     * Parsing and persisting run interleaved on one worker, so parse time is the stream's wall time minus
+     * the time spent writing chunks.
+     */
+    private Mono<Void> parseAndPersist(RefreshJob job, Flux<FplStreamReader.Chunk> chunks, Consumer<FplStreamReader.Chunk> persist) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong persistNanos = new AtomicLong();
+            return chunks
+                    .doOnNext(chunk -> {
+                        long chunkStart = System.nanoTime();
+                        persist.accept(chunk);
+                        persistNanos.addAndGet(System.nanoTime() - chunkStart);
+                    })
+                    .then()
+                    .doFinally(signal -> {
+                        job.record(RefreshJob.Stage.PERSIST, persistNanos.get());
+                        job.record(RefreshJob.Stage.PARSE, System.nanoTime() - start - persistNanos.get());
+                    });
+        });
+    }
+
+    /**
+     * Builds the in-memory indexes before the application serves its first request. The latest archived
+     * payloads are loaded when there are any, otherwise the indexes come from whatever the DB already holds.
+     * In replay mode the archived gameweek is loaded instead, without reading the DB.
+     */
+    @PostConstruct
+    public void loadIndexes() {
         try {
-            List<Team> teams = objectMapper.convertValue(
-                    teamsNode,
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, Team.class)
-            );
-            teamRepository.saveAll(teams);
-            log.info("Updated {} teams", teams.size());
+            if (snapshotArchive.replayGameweek().isPresent()) {
+                replay(snapshotArchive.replayGameweek().get()).block();
+                return;
+            }
+            boolean empty = playerRepository.count() == 0;
+            FplSnapshot.Builder stored = readDatabase();
+            if (warmStart(empty)) return;
+            fplIndexService.publish(stored);
         } catch (Exception e) {
-            log.error("Error updating teams", e);
+            log.error("Error loading in-memory indexes", e);
         }
     }
 
-    private void updatePlayers(JsonNode playersNode) {
-        try {
-            List<Player> players = objectMapper.convertValue(
-                    playersNode,
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, Player.class)
-            );
+    /**
+     * Publishes what the DB holds as the current snapshot, for a node picking up a full snapshot another node
+     * ingested. Stats are captured here as on the ingesting node, so every node keeps the same time series.
+     */
+    public FplSnapshot reloadFromDatabase() {
+        FplSnapshot snapshot = fplIndexService.publish(readDatabase());
+        playerStatsStore.append(snapshot);
+        log.info("Reloaded snapshot v{} from the database", snapshot.version());
+        return snapshot;
+    }
 
-            // Set last updated timestamp
-            players.forEach(player -> player.setLastUpdated(LocalDateTime.now()));
+    private FplSnapshot.Builder readDatabase() {
+        List<Team> teams = teamRepository.findAll();
+        List<Player> players = playerRepository.findAll();
+        List<Fixture> fixtures = fixtureRepository.findAll();
+        // What is stored now is the baseline the next refresh is diffed against
+        diffUpsertService.seed(UpsertTable.TEAMS, teams);
+        diffUpsertService.seed(UpsertTable.PLAYERS, players);
+        diffUpsertService.seed(UpsertTable.FIXTURES, fixtures);
+        return fplIndexService.stage().teams(teams).players(players).fixtures(fixtures);
+    }
 
-            playerRepository.saveAll(players);
-            log.info("Updated {} players", players.size());
-        } catch (Exception e) {
-            log.error("Error updating players", e);
+    /**
+     * Builds the snapshot from this node's archive. The archive is only written to the shared DB when the DB is
+     * empty or the archive is newer than the last publication of any node; otherwise the DB stays as it is and
+     * {@link SnapshotFollower} replaces the archived snapshot with the published one on its first check.
+     */
+    private boolean warmStart(boolean emptyDatabase) {
+        Optional<SnapshotArchive.Entry> bootstrap = snapshotArchive.latest(SnapshotArchive.BOOTSTRAP);
+        if (bootstrap.isEmpty()) return false;
+        Optional<SnapshotArchive.Entry> fixtures = snapshotArchive.latest(SnapshotArchive.FIXTURES);
+        boolean persist = emptyDatabase || isNewerThanLastPublication(bootstrap.get());
+        RefreshJob job = new RefreshJob("warm-start", "startup");
+        FplSnapshot.Builder staged = fplIndexService.stage();
+        try {
+            ingestBootstrap(job, snapshotArchive.read(bootstrap.get()), persist, staged)
+                    .then(fixtures.map(entry -> ingestFixtures(job, snapshotArchive.read(entry), persist, staged)).orElse(Mono.empty()))
+                    .block();
+            FplSnapshot snapshot = fplIndexService.publish(staged);
+            if (persist) {
+                playerStatsStore.append(snapshot);
+                announce();
+            }
+            log.info("Warm start from archived bootstrap {} and fixtures {}{}: {}", bootstrap.get().version(),
+                    fixtures.map(SnapshotArchive.Entry::version).orElse("-"), persist ? ", written to the DB" : "",
+                    job.status(false).getStages());
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Warm start from archive failed, loading indexes from the DB", e);
+            return false;
+        }
+    }
+
+    /**
+     * Announces a snapshot that is already published here; a failure is logged rather than failing the run
+     * that published it, and the other nodes pick it up with the next announcement.
+     */
+    private void announce() {
+        try {
+            snapshotPublications.announce(SnapshotPublications.Kind.SNAPSHOT);
+        } catch (RuntimeException e) {
+            log.error("Could not announce the published snapshot to other nodes", e);
         }
     }
 
-    private void updateFixtures() {
-        mvpWebClient
-                .get()
-                .uri(properties.getFixturesUrl())
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .subscribe(data -> {
-                    try {
-                        List<Fixture> fixtures = objectMapper.convertValue(
-                                data,
-                                objectMapper.getTypeFactory().constructCollectionType(List.class, Fixture.class)
-                        );
-                        fixtureRepository.saveAll(fixtures);
-                        log.info("Updated {} fixtures", fixtures.size());
-                    } catch (Exception e) {
-                        log.error("Error updating fixtures", e);
-                    }
-                });
+    private boolean isNewerThanLastPublication(SnapshotArchive.Entry entry) {
+        return snapshotPublications.latestPublishedAt()
+                .map(publishedAt -> entry.archivedAt().isAfter(publishedAt.atZone(ZoneId.systemDefault()).toInstant()))
+                .orElse(false);
+    }
+
+    /**
+     * Loads the archived payloads of {@code gameweek} into the in-memory indexes without touching the DB,
+     * for offline benchmarking and debugging. Fixtures are taken from the newest version archived up to
+     * that gameweek, as they change far less often than bootstrap.
+     */
+    public Mono<Void> replay(int gameweek) {
+        return Mono.defer(() -> {
+            SnapshotArchive.Entry bootstrap = snapshotArchive.latest(SnapshotArchive.BOOTSTRAP, gameweek)
+                    .filter(entry -> entry.gameweek() == gameweek)
+                    .orElse(null);
+            if (bootstrap == null) {
+                return Mono.error(new IllegalArgumentException("No archived bootstrap for gameweek " + gameweek));
+            }
+            Optional<SnapshotArchive.Entry> fixtures = snapshotArchive.latest(SnapshotArchive.FIXTURES, gameweek);
+            RefreshJob job = new RefreshJob("replay-" + gameweek, "replay");
+            FplSnapshot.Builder staged = fplIndexService.stage();
+            return ingestBootstrap(job, snapshotArchive.read(bootstrap), false, staged)
+                    .then(fixtures.map(entry -> ingestFixtures(job, snapshotArchive.read(entry), false, staged)).orElse(Mono.empty()))
+                    .then(Mono.<Void>fromRunnable(() -> fplIndexService.publish(staged)))
+                    .doOnSuccess(unused -> log.info("Replayed gameweek {} from bootstrap {} and fixtures {}: {}", gameweek,
+                            bootstrap.version(), fixtures.map(SnapshotArchive.Entry::version).orElse("-"),
+                            job.status(false).getStages()));
+        });
     }
 
     public List<Player> getAllPlayers() {
         return playerRepository.findAll();
     }
 
-    public Set<Long> getAvailablePlayersId() {
-        return playerRepository.getAllPlayerIds();
+    /**
+     * Player ids and status bits of the current snapshot, for validating requests.
+     */
+    public PlayerIdIndex getPlayerIdIndex() {
+        return fplIndexService.getPlayerSnapshot().idIndex();
     }
 
-    public List<Player> getPlayersByPosition(Integer position) {
-        return playerRepository.findByPosition(position);
+    /**
+     * Players flagged injured, unavailable or doubtful in the current snapshot.
+     */
+    public List<Player> getInjuredOrDoubtfulPlayers() {
+        PlayerSnapshot players = fplIndexService.getPlayerSnapshot();
+        List<Player> flagged = new ArrayList<>();
+        players.idIndex().forEach(id -> flagged.add(players.player(players.rowOf(id))),
+                PlayerIdIndex.Status.INJURED, PlayerIdIndex.Status.DOUBTFUL);
+        return flagged;
     }
 
-    public List<Fixture> getUpcomingFixtures(Integer teamId, int numFixtures) {
-        Integer currentGw = getCurrentGameweek();
-        return fixtureRepository.findTeamFixtures(teamId, currentGw, currentGw + numFixtures);
+    public List<Player> getPlayersByPosition(Integer position) {
+        return playerRepository.findByPosition(position);
     }
 
     public Integer getCurrentGameweek() {
-        // Logic to determine current gameweek
-        List<Fixture> fixtures = fixtureRepository.findAll();
-        return fixtures.stream()
-                .filter(f -> !f.getFinished())
-                .map(Fixture::getGameWeek)
-                .min(Integer::compareTo)
-                .orElse(1);
+        // Answered from the calendar built at ingestion; it advances on its own as fixtures finish
+        return fplIndexService.getCalendar().currentGameweek(Instant.now());
     }
 
     public Team getTeam(Integer teamId) {
-        return teamRepository.findById(teamId).orElse(null);
+        return fplIndexService.getTeamRegistry().get(teamId);
+    }
+
+    public String getTeamShortName(Integer teamId) {
+        return fplIndexService.getTeamRegistry().shortName(teamId);
     }
 }
@@ -0,0 +1,125 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.Team;
+import com.project.mvprecommender.snapshot.FixtureDifficultyMatrix;
+import com.project.mvprecommender.snapshot.FplSnapshot;
+import com.project.mvprecommender.snapshot.GameweekCalendar;
+import com.project.mvprecommender.snapshot.PlayerScores;
+import com.project.mvprecommender.snapshot.PlayerSnapshot;
+import com.project.mvprecommender.snapshot.StatWindow;
+import com.project.mvprecommender.snapshot.TeamRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link FplSnapshot}. Ingestion stages a complete new snapshot off to the side and
+ * publishes it with one atomic swap; readers {@link #current() pin} a snapshot once per request and read
+ * everything from it without locks.
+ */
+@Service
+@Slf4j
+public class FplIndexService {
+
+    private final AtomicReference<FplSnapshot> current = new AtomicReference<>(FplSnapshot.empty());
+    private final PlayerStatsStore playerStatsStore;
+    private volatile PlayerScores playerScores;
+
+    @Autowired
+    public FplIndexService(PlayerStatsStore playerStatsStore) {
+        this.playerStatsStore = playerStatsStore;
+    }
+
+    /**
+     * Without a stats history, so every form trend is flat; for tests and benchmarks.
+     */
+    public FplIndexService() {
+        this(new PlayerStatsStore(false, null));
+    }
+
+    public FplSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * A builder seeded with the current snapshot, for ingestion to replace parts of before {@link #publish}.
+     */
+    public FplSnapshot.Builder stage() {
+        return current.get().toBuilder();
+    }
+
+    /**
+     * Makes the staged snapshot current under the next version number.
+     */
+    public FplSnapshot publish(FplSnapshot.Builder staged) {
+        FplSnapshot published = current.updateAndGet(staged::build);
+        log.info("Published snapshot v{}: {} teams, {} players, fixtures up to gameweek {}", published.version(),
+                published.teams().size(), published.players().size(), published.fixtureMatrix().getMaxGameweek());
+        return published;
+    }
+
+    public void rebuildFixtures(Collection<Fixture> fixtures) {
+        publish(stage().fixtures(fixtures));
+    }
+
+    public void rebuildTeams(Collection<Team> teams) {
+        publish(stage().teams(teams));
+    }
+
+    public void rebuildPlayers(Collection<Player> players) {
+        publish(stage().players(players));
+    }
+
+    public FixtureDifficultyMatrix getFixtureMatrix() {
+        return current().fixtureMatrix();
+    }
+
+    public GameweekCalendar getCalendar() {
+        return current().calendar();
+    }
+
+    public TeamRegistry getTeamRegistry() {
+        return current().teams();
+    }
+
+    public PlayerSnapshot getPlayerSnapshot() {
+        return current().players();
+    }
+
+    public PlayerScores getPlayerScores() {
+        return getPlayerScores(current());
+    }
+
+    /**
+     * Scores for a pinned snapshot. Every player is scored once per snapshot, gameweek rollover and stats
+     * capture; all requests in between share the result.
+     */
+    public PlayerScores getPlayerScores(FplSnapshot snapshot) {
+        PlayerSnapshot players = snapshot.players();
+        FixtureDifficultyMatrix matrix = snapshot.fixtureMatrix();
+        int gameweek = snapshot.currentGameweek(Instant.now());
+        long historyVersion = playerStatsStore.version();
+        PlayerScores scores = playerScores;
+        if (scores != null && scores.isFor(players, matrix, gameweek, historyVersion)) return scores;
+
+        synchronized (this) {
+            scores = playerScores;
+            if (scores == null || !scores.isFor(players, matrix, gameweek, historyVersion)) {
+                long start = System.nanoTime();
+                StatWindow history = playerStatsStore.lastGameweeks(null, PlayerScores.TREND_WINDOW, gameweek);
+                scores = PlayerScores.build(players, matrix, gameweek, history, historyVersion);
+                // A request still pinned to an older snapshot must not evict the scores of the current one
+                if (snapshot == current()) playerScores = scores;
+                log.info("Scored {} players for gameweek {} in {} ms",
+                        players.size(), gameweek, (System.nanoTime() - start) / 1_000_000);
+            }
+            return scores;
+        }
+    }
+}
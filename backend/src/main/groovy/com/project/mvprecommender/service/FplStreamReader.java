@@ -0,0 +1,186 @@
+package com.project.mvprecommender.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.project.mvprecommender.model.MalformedValues;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams entities out of an FPL JSON response without building a tree of the payload.
+ *
+ * <p>Bytes are fed to Jackson's non-blocking parser as each {@link DataBuffer} arrives. Only the
+ * elements of the requested arrays are materialized, one element at a time, and handed downstream
+ * in chunks of at most {@code chunkSize}; every other field (events, element_stats, ...) is
+ * tokenized and dropped. Live memory is one network buffer, one element and one chunk,
+ * independent of the payload size.
+ */
+@Component
+public class FplStreamReader {
+
+    /**
+     * Section name for a response whose root is itself the array, e.g. /fixtures/.
+     */
+    public static final String ROOT = "";
+
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public FplStreamReader(ObjectMapper objectMapper, @Value("${mvp.ingestion.chunk-size:200}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * A bounded batch of entities from one section.
+     */
+    public record Chunk(String section, List<Object> items) {
+
+        @SuppressWarnings("unchecked")
+        public <T> List<T> itemsAs(Class<T> type) {
+            return (List<T>) items;
+        }
+    }
+
+    /**
+     * Emits the elements of each array in {@code sections} (top-level field name to entity type) as chunks,
+     * in document order. Malformed lenient values are counted in {@code malformed}.
+     */
+    public Flux<Chunk> read(Flux<DataBuffer> body, Map<String, Class<?>> sections, MalformedValues malformed) {
+        return Flux.defer(() -> {
+            Tokenizer tokenizer = new Tokenizer(sections, malformed);
+            return body
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .concatMapIterable(tokenizer::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.end())))
+                    .doFinally(signal -> tokenizer.close());
+        });
+    }
+
+    private final class Tokenizer {
+        private final Map<String, ObjectReader> readers = new HashMap<>();
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private byte[] scratch = new byte[8192];
+
+        private int depth;
+        private String field;
+        private String section;
+        private int sectionDepth;
+        private TokenBuffer element;
+        private List<Object> chunk;
+
+        Tokenizer(Map<String, Class<?>> sections, MalformedValues malformed) {
+            sections.forEach((name, type) ->
+                    readers.put(name, objectMapper.readerFor(type).withAttribute(MalformedValues.ATTRIBUTE, malformed)));
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<Chunk> feed(DataBuffer buffer) {
+            try {
+                int length = buffer.readableByteCount();
+                if (scratch.length < length) scratch = new byte[length];
+                buffer.read(scratch, 0, length);
+                // The parser has consumed all earlier input by now, so the scratch array can be reused
+                feeder.feedInput(scratch, 0, length);
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<Chunk> end() {
+            try {
+                feeder.endOfInput();
+                List<Chunk> out = drain();
+                if (depth != 0) throw new JsonParseException(parser, "Response ended inside a JSON value");
+                return out;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+
+        private List<Chunk> drain() throws IOException {
+            List<Chunk> out = new ArrayList<>(1);
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (element != null) {
+                    element.copyCurrentEvent(parser);
+                    if (token.isStructStart()) {
+                        depth++;
+                    } else if (token.isStructEnd() && --depth == sectionDepth) {
+                        add(readers.get(section).readValue(element.asParser()), out);
+                        element = null;
+                    }
+                } else if (token.isStructStart()) {
+                    depth++;
+                    if (section == null && token == JsonToken.START_ARRAY) {
+                        enterSection();
+                    } else if (section != null && depth == sectionDepth + 1 && token == JsonToken.START_OBJECT) {
+                        element = new TokenBuffer(parser);
+                        element.copyCurrentEvent(parser);
+                    }
+                } else if (token.isStructEnd()) {
+                    if (section != null && depth == sectionDepth) {
+                        flush(out);
+                        section = null;
+                    }
+                    depth--;
+                } else if (token == JsonToken.FIELD_NAME && depth == 1) {
+                    field = parser.currentName();
+                }
+            }
+            return out;
+        }
+
+        private void enterSection() {
+            String name = depth == 1 ? ROOT : depth == 2 ? field : null;
+            if (name != null && readers.containsKey(name)) {
+                section = name;
+                sectionDepth = depth;
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        private void add(Object item, List<Chunk> out) {
+            chunk.add(item);
+            if (chunk.size() >= chunkSize) flush(out);
+        }
+
+        private void flush(List<Chunk> out) {
+            if (chunk.isEmpty()) return;
+            out.add(new Chunk(section, chunk));
+            chunk = new ArrayList<>(chunkSize);
+        }
+    }
+}
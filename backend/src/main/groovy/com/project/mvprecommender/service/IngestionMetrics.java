@@ -0,0 +1,68 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.model.MalformedValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer counters for FPL ingestion, exposed through the actuator metrics endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IngestionMetrics {
+
+    public static final String MALFORMED_VALUES = "fpl.ingestion.malformed.values";
+    public static final String ROWS = "fpl.ingestion.rows";
+    public static final String FETCH_FAILURES = "fpl.ingestion.fetch.failures";
+    public static final String REFRESH_DURATION = "fpl.refresh.duration";
+    public static final String REFRESH_STAGE_DURATION = "fpl.refresh.stage.duration";
+    public static final String REFRESH_SKIPPED = "fpl.refresh.skipped";
+
+    private final MeterRegistry meterRegistry;
+
+    public void recordMalformed(String entity, MalformedValues malformed) {
+        if (malformed.total() == 0) return;
+        log.warn("Ingested {} with {} malformed values: {}", entity, malformed.total(), malformed.counts());
+        malformed.counts().forEach((field, count) ->
+                meterRegistry.counter(MALFORMED_VALUES, "entity", entity, "field", field).increment(count));
+    }
+
+    public void recordUpsert(String entity, DiffUpsertService.Counts counts) {
+        log.info("Upserted {}: {} inserted, {} updated, {} unchanged",
+                entity, counts.inserted(), counts.updated(), counts.unchanged());
+        meterRegistry.counter(ROWS, "entity", entity, "outcome", "inserted").increment(counts.inserted());
+        meterRegistry.counter(ROWS, "entity", entity, "outcome", "updated").increment(counts.updated());
+        meterRegistry.counter(ROWS, "entity", entity, "outcome", "unchanged").increment(counts.unchanged());
+    }
+
+    public void recordFetchFailures(String entity, int failures) {
+        meterRegistry.counter(FETCH_FAILURES, "entity", entity).increment(failures);
+    }
+
+    /**
+     * Wall time of a finished refresh run and of each of its stages, as histograms.
+     */
+    public void recordRefresh(RefreshJob job) {
+        Timer.builder(REFRESH_DURATION)
+                .tag("trigger", job.trigger())
+                .tag("outcome", job.state().name().toLowerCase())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(job.totalNanos(), TimeUnit.NANOSECONDS);
+        job.stageNanos().forEach((stage, nanos) -> Timer.builder(REFRESH_STAGE_DURATION)
+                .tag("stage", stage.label())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    public void recordRefreshSkipped(String trigger) {
+        meterRegistry.counter(REFRESH_SKIPPED, "trigger", trigger).increment();
+    }
+}
@@ -0,0 +1,209 @@
+package com.project.mvprecommender.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.project.mvprecommender.configuration.MvpExternalClientProperties;
+import com.project.mvprecommender.model.PlayerGameweekLive;
+import com.project.mvprecommender.repository.PlayerLiveRepository;
+import com.project.mvprecommender.repository.UpsertTable;
+import com.project.mvprecommender.snapshot.LiveGameweek;
+import com.project.mvprecommender.snapshot.GameweekCalendar;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Polls {@code event/{gw}/live/} while matches are on and folds the changes into the current snapshot
+ * and {@code player_live}. Every poll is diffed against the previous one for the same gameweek; only
+ * players whose stats moved are written and applied, and their point and minute deltas are reported.
+ */
+@Service
+@Slf4j
+public class LiveGameweekService {
+
+    private final WebClient mvpWebClient;
+    private final MvpExternalClientProperties clientProperties;
+    private final FplIndexService fplIndexService;
+    private final DiffUpsertService diffUpsertService;
+    private final PlayerLiveRepository playerLiveRepository;
+    private final IngestionMetrics ingestionMetrics;
+    private final SnapshotPublications snapshotPublications;
+    private final Duration pollInterval;
+    private final Duration idleCheckInterval;
+
+    private final AtomicBoolean polling = new AtomicBoolean();
+    // Stats of the last poll, per player, for the gameweek in previousGameweek
+    private final Map<Long, PlayerGameweekLive> previous = new HashMap<>();
+    private int previousGameweek;
+
+    public record Delta(long playerId, int points, int minutes) {
+    }
+
+    public record Poll(int gameweek, int players, int changed, List<Delta> deltas, Long snapshotVersion, long elapsedMs) {
+    }
+
+    record LiveFeed(List<Element> elements) {
+    }
+
+    record Element(@JsonProperty("id") Long id, @JsonProperty("stats") PlayerGameweekLive stats) {
+    }
+
+    public LiveGameweekService(WebClient mvpWebClient,
+                               MvpExternalClientProperties clientProperties,
+                               FplIndexService fplIndexService,
+                               DiffUpsertService diffUpsertService,
+                               PlayerLiveRepository playerLiveRepository,
+                               IngestionMetrics ingestionMetrics,
+                               SnapshotPublications snapshotPublications,
+                               @Value("${mvp.live.poll-interval-seconds:30}") long pollIntervalSeconds,
+                               @Value("${mvp.live.idle-check-minutes:5}") long idleCheckMinutes) {
+        this.mvpWebClient = mvpWebClient;
+        this.clientProperties = clientProperties;
+        this.fplIndexService = fplIndexService;
+        this.diffUpsertService = diffUpsertService;
+        this.playerLiveRepository = playerLiveRepository;
+        this.ingestionMetrics = ingestionMetrics;
+        this.snapshotPublications = snapshotPublications;
+        this.pollInterval = Duration.ofSeconds(pollIntervalSeconds);
+        this.idleCheckInterval = Duration.ofMinutes(idleCheckMinutes);
+    }
+
+    /**
+     * Whether matches are being played at {@code now}: within a fixture's match window, or flagged
+     * started and not finished by the last fixtures refresh.
+     */
+    public boolean isLive(Instant now) {
+        GameweekCalendar calendar = fplIndexService.current().calendar();
+        return calendar.isLive(now) || calendar.hasFixturesInPlay();
+    }
+
+    /**
+     * When to poll next: at the poll interval while live, otherwise at the next kickoff or idle check.
+     */
+    public Instant nextPoll(Instant now) {
+        if (isLive(now)) return now.plus(pollInterval);
+        Instant next = now.plus(idleCheckInterval);
+        Instant kickoff = fplIndexService.current().calendar().nextKickoff(now);
+        return kickoff != null && kickoff.isBefore(next) ? kickoff : next;
+    }
+
+    /**
+     * Polls the current gameweek. Completes empty when a poll is already in flight.
+     */
+    public Mono<Poll> poll() {
+        return Mono.defer(() -> poll(fplIndexService.current().currentGameweek(Instant.now())));
+    }
+
+    public Mono<Poll> poll(int gameweek) {
+        return Mono.defer(() -> {
+            if (!polling.compareAndSet(false, true)) {
+                log.info("Live poll of gameweek {} skipped, previous poll still running", gameweek);
+                return Mono.empty();
+            }
+            long start = System.nanoTime();
+            return mvpWebClient
+                    .get()
+                    .uri(clientProperties.getLiveUrl(), gameweek)
+                    .retrieve()
+                    .bodyToMono(LiveFeed.class)
+                    // Diffing and JDBC writes are blocking work; keep them off the I/O threads
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(feed -> {
+                        // Released before the result is emitted, so a caller can poll again as soon as it has it
+                        try {
+                            return apply(gameweek, rows(gameweek, feed), start);
+                        } finally {
+                            polling.set(false);
+                        }
+                    })
+                    .doFinally(signal -> polling.set(false));
+        });
+    }
+
+    private synchronized Poll apply(int gameweek, List<PlayerGameweekLive> rows, long start) {
+        if (gameweek != previousGameweek) {
+            previous.clear();
+            playerLiveRepository.findByGameWeek(gameweek).forEach(row -> previous.put(row.getPlayerId(), row));
+            previousGameweek = gameweek;
+        }
+        List<PlayerGameweekLive> changed = new ArrayList<>();
+        List<Delta> deltas = new ArrayList<>();
+        for (PlayerGameweekLive row : rows) {
+            PlayerGameweekLive before = previous.get(row.getPlayerId());
+            if (row.equals(before)) continue;
+            changed.add(row);
+            deltas.add(new Delta(row.getPlayerId(),
+                    intOrZero(row.getTotalPoints()) - (before != null ? intOrZero(before.getTotalPoints()) : 0),
+                    intOrZero(row.getMinutes()) - (before != null ? intOrZero(before.getMinutes()) : 0)));
+        }
+
+        if (!changed.isEmpty()) {
+            ingestionMetrics.recordUpsert("player_live", diffUpsertService.upsert(UpsertTable.PLAYER_LIVE, changed, playerLiveRepository::findAll));
+            changed.forEach(row -> previous.put(row.getPlayerId(), row));
+        }
+
+        Long version = null;
+        LiveGameweek live = fplIndexService.current().live();
+        // After a restart or a gameweek change the snapshot holds none of this gameweek yet, so it takes the full poll
+        boolean stale = live.gameweek() != gameweek || live.size() == 0;
+        if (stale && !rows.isEmpty()) {
+            version = fplIndexService.publish(fplIndexService.stage().live(LiveGameweek.build(gameweek, rows))).version();
+        } else if (!changed.isEmpty()) {
+            version = fplIndexService.publish(fplIndexService.stage().live(live.apply(gameweek, changed))).version();
+        }
+        // Announced as live only, so other nodes reload player_live rather than the whole snapshot
+        if (!changed.isEmpty()) {
+            try {
+                snapshotPublications.announce(SnapshotPublications.Kind.LIVE);
+            } catch (RuntimeException e) {
+                log.error("Could not announce live stats of gameweek {} to other nodes", gameweek, e);
+            }
+        }
+        Poll poll = new Poll(gameweek, rows.size(), changed.size(), deltas, version,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        log.info("Live poll of gameweek {}: {} of {} players changed in {} ms", gameweek, poll.changed(), poll.players(), poll.elapsedMs());
+        return poll;
+    }
+
+    /**
+     * Reloads the live stats of the current gameweek from the DB, after another node polled them.
+     */
+    public synchronized void reload() {
+        int gameweek = fplIndexService.current().currentGameweek(Instant.now());
+        List<PlayerGameweekLive> rows = playerLiveRepository.findByGameWeek(gameweek);
+        diffUpsertService.seed(UpsertTable.PLAYER_LIVE, playerLiveRepository.findAll());
+        previous.clear();
+        rows.forEach(row -> previous.put(row.getPlayerId(), row));
+        previousGameweek = gameweek;
+        if (!rows.isEmpty()) fplIndexService.publish(fplIndexService.stage().live(LiveGameweek.build(gameweek, rows)));
+    }
+
+    private static List<PlayerGameweekLive> rows(int gameweek, LiveFeed feed) {
+        if (feed.elements() == null) return List.of();
+        return feed.elements().stream()
+                .filter(element -> element.id() != null && element.stats() != null)
+                .map(element -> {
+                    PlayerGameweekLive row = element.stats();
+                    row.setPlayerId(element.id());
+                    row.setGameWeek(gameweek);
+                    row.setId(PlayerGameweekLive.key(element.id(), gameweek));
+                    return row;
+                })
+                .toList();
+    }
+
+    private static int intOrZero(Integer value) {
+        return Objects.requireNonNullElse(value, 0);
+    }
+}
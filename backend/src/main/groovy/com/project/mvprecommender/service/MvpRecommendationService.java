@@ -2,18 +2,24 @@ package com.project.mvprecommender.service;
 
 import com.project.mvprecommender.dto.*;
 import com.project.mvprecommender.model.Fixture;
-import com.project.mvprecommender.model.Player;
-import com.project.mvprecommender.model.Team;
-import com.project.mvprecommender.repository.PlayerRepository;
+import com.project.mvprecommender.snapshot.FplSnapshot;
+import com.project.mvprecommender.snapshot.LiveGameweek;
+import com.project.mvprecommender.snapshot.PlayerScores;
+import com.project.mvprecommender.snapshot.PlayerSnapshot;
+import com.project.mvprecommender.snapshot.ScoredPlayer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -23,29 +29,35 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MvpRecommendationService {
 
-    private final PlayerRepository playerRepository;
-    private final FPLDataService fplDataService;
+    // FPL allows 3-5 defenders, 2-5 midfielders and 1-3 forwards behind one goalkeeper
+    public static final List<String> LEGAL_FORMATIONS = List.of(
+            "3-4-3", "3-5-2", "4-3-3", "4-4-2", "4-5-1", "5-2-3", "5-3-2", "5-4-1");
+
     private final AiAnalysisService aiAnalysisService;
+    private final FplIndexService fplIndexService;
+    private final SquadOptimizer squadOptimizer;
 
     /**
      * ✅ Non-blocking version
      */
     public Mono<MvpRecommendationResponse> getTopMvpPlayers() {
         log.info("Generating MVP recommendations (async)");
+        FplSnapshot snapshot = fplIndexService.current();
+        PlayerScores scores = fplIndexService.getPlayerScores(snapshot);
 
         // Create parallel Monos for each position
         List<Mono<Map.Entry<String, PositionWiseRecommendation>>> positionMonos = new ArrayList<>();
 
         for (int position = 1; position <= 4; position++) {
             String positionName = getPositionName(position);
-            List<Player> players = getTopPlayersForPosition(position, 5);
+            List<ScoredPlayer> players = topPlayersForPosition(scores, position, 5);
 
             Mono<Map.Entry<String, PositionWiseRecommendation>> mono =
                     Mono.fromFuture(aiAnalysisService.analyzeTopPlayers(players, positionName))
                             .map(aiInsights -> {
                                 // Create PlayerRecommendation list WITHOUT setting aiAnalysis per player
                                 List<PlayerRecommendation> recommendations = players.stream()
-                                        .map(this::createPlayerRecommendation)
+                                        .map(player -> createPlayerRecommendation(snapshot, player))
                                         .toList();
 
                                 // Wrap players + aiAnalysis in PositionRecommendation
@@ -63,7 +75,8 @@ public class MvpRecommendationService {
                 .collectMap(Map.Entry::getKey, Map.Entry::getValue)
                 .map(topPlayersByPosition -> MvpRecommendationResponse.builder()
                         .topPlayersByPosition(topPlayersByPosition)
-                        .currentGameWeek(fplDataService.getCurrentGameweek())
+                        .currentGameWeek(snapshot.currentGameweek(Instant.now()))
+                        .snapshotVersion(snapshot.version())
                         .generatedAt(LocalDateTime.now())
                         .aiInsights("Top MVP recommendations generated successfully")
                         .build());
@@ -75,155 +88,253 @@ public class MvpRecommendationService {
     public Mono<BudgetSquadResponse> generateBudgetSquad(BudgetSquadRequest request) {
         log.info("Generating budget squad (async) with budget: £{}m", request.getBudget());
 
-        double budgetInTenths = request.getBudget() * 10;
-        List<Player> selectedPlayers = new ArrayList<>();
-        double remainingBudget = budgetInTenths;
-
-        Map<Integer, Integer> positionRequirements = parseFormation(request.getFormation());
-
-        // Build team within budget
-        for (Map.Entry<Integer, Integer> entry : positionRequirements.entrySet()) {
-            int position = entry.getKey();
-            int count = entry.getValue();
-
-            List<Player> positionPlayers = playerRepository.findAffordablePlayersByPosition(
-                    (int) remainingBudget, position);
-            if (positionPlayers == null) positionPlayers = List.of();
-            List<Player> bestPlayers = positionPlayers.stream()
-                    .filter(p -> !request.getExcludedPlayers().contains(p.getId()))
-                    .peek(this::calculatePlayerMetrics)
-                    .sorted((p1, p2) -> Double.compare(
-                            calculateOverallScore(p2),
-                            calculateOverallScore(p1)))
-                    .limit(count)
-                    .toList();
-
-            selectedPlayers.addAll(bestPlayers);
-            remainingBudget -= bestPlayers.stream()
-                    .mapToInt(Player::getNowCost)
-                    .sum();
+        FplSnapshot snapshot = fplIndexService.current();
+        SquadResult squad = solveSquad(snapshot, fplIndexService.getPlayerScores(snapshot), request);
+        return withSquadAnalysis(squad, request.getBudget());
+    }
+
+    /**
+     * Solves every legal formation in parallel against one scored snapshot and returns the best squad
+     * plus the runner-up formations. Formations with no feasible squad are skipped and not counted.
+     * Only the best squad is sent for AI analysis.
+     */
+    public Mono<FormationSearchResponse> generateBestFormationSquad(FormationSearchRequest request) {
+        log.info("Searching {} formations (async) with budget: £{}m", LEGAL_FORMATIONS.size(), request.getBudget());
+
+        FplSnapshot snapshot = fplIndexService.current();
+        PlayerScores scores = fplIndexService.getPlayerScores(snapshot);
+        int alternatives = request.getAlternatives() != null ? request.getAlternatives() : 0;
+
+        return Flux.fromIterable(LEGAL_FORMATIONS)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .flatMap(formation -> solveFormation(snapshot, scores, request.forFormation(formation)))
+                .sequential()
+                .collectSortedList(Comparator.comparingDouble((SquadResult result) -> result.solution().totalScore()).reversed())
+                .flatMap(results -> {
+                    if (results.isEmpty()) {
+                        return Mono.error(new IllegalArgumentException("Budget and must-have players do not fit any legal formation."));
+                    }
+                    List<BudgetSquadResponse> runnersUp = results.stream()
+                            .skip(1)
+                            .limit(alternatives)
+                            .map(SquadResult::response)
+                            .toList();
+                    return withSquadAnalysis(results.get(0), request.getBudget())
+                            .map(best -> FormationSearchResponse.builder()
+                                    .best(best)
+                                    .alternatives(runnersUp)
+                                    .formationsEvaluated(results.size())
+                                    .snapshotVersion(snapshot.version())
+                                    .build());
+                });
+    }
+
+    /**
+     * Solves a batch of squad requests against one scored snapshot. Requests that describe the same
+     * sub-problem are solved once; distinct ones run in parallel. Results stream back as they finish,
+     * one per request index. With AI analysis enabled all distinct squads share one AI call, so results
+     * are emitted once that call returns.
+     */
+    public Flux<BatchSquadResult> generateBudgetSquadBatch(BatchSquadRequest batch) {
+        FplSnapshot snapshot = fplIndexService.current();
+        PlayerScores scores = fplIndexService.getPlayerScores(snapshot);
+        Map<String, List<Integer>> indicesByKey = new LinkedHashMap<>();
+        Map<String, BudgetSquadRequest> requestByKey = new LinkedHashMap<>();
+        List<BudgetSquadRequest> requests = batch.getRequests();
+        for (int i = 0; i < requests.size(); i++) {
+            String key = canonicalKey(requests.get(i));
+            indicesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            requestByKey.putIfAbsent(key, requests.get(i));
+        }
+        log.info("Generating {} budget squads (async) from {} distinct requests", requests.size(), requestByKey.size());
+
+        Flux<BatchEntry> solved = Flux.fromIterable(requestByKey.entrySet())
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .map(entry -> solveBatchEntry(snapshot, scores, entry.getKey(), entry.getValue()))
+                .sequential();
+
+        if (Boolean.TRUE.equals(batch.getIncludeAiAnalysis())) {
+            solved = solved.collectList().flatMapMany(this::withBatchAnalysis);
+        }
+        return solved.flatMapIterable(entry -> indicesByKey.get(entry.key()).stream()
+                .map(index -> BatchSquadResult.builder()
+                        .index(index)
+                        .squad(entry.squad() != null ? entry.squad().response() : null)
+                        .error(entry.error())
+                        .build())
+                .toList());
+    }
+
+    private BatchEntry solveBatchEntry(FplSnapshot snapshot, PlayerScores scores, String key, BudgetSquadRequest request) {
+        try {
+            return new BatchEntry(key, request.getBudget(), solveSquad(snapshot, scores, request), null);
+        } catch (IllegalArgumentException e) {
+            return new BatchEntry(key, request.getBudget(), null, e.getMessage());
+        }
+    }
+
+    private Flux<BatchEntry> withBatchAnalysis(List<BatchEntry> entries) {
+        List<BatchEntry> squads = entries.stream()
+                .filter(entry -> entry.squad() != null)
+                .toList();
+        return Mono.fromFuture(aiAnalysisService.analyzeSquads(
+                        squads.stream().map(entry -> entry.squad().players()).toList(),
+                        squads.stream().map(BatchEntry::budget).toList()))
+                .flatMapMany(comments -> {
+                    for (int i = 0; i < squads.size(); i++) {
+                        squads.get(i).squad().response().setAiAnalysis(comments.get(i));
+                    }
+                    return Flux.fromIterable(entries);
+                });
+    }
+
+    // Same budget, formation and player sets in any order describe the same optimization problem
+    private static String canonicalKey(BudgetSquadRequest request) {
+        return Math.round(request.getBudget() * 10) + "|" + request.getFormation()
+                + "|" + sortedIds(request.getMustHavePlayers()) + "|" + sortedIds(request.getExcludedPlayers());
+    }
+
+    private static String sortedIds(List<Long> ids) {
+        return ids == null ? "" : ids.stream().distinct().sorted().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private record BatchEntry(String key, Double budget, SquadResult squad, String error) {
+    }
+
+    private Mono<SquadResult> solveFormation(FplSnapshot snapshot, PlayerScores scores, BudgetSquadRequest request) {
+        try {
+            return Mono.just(solveSquad(snapshot, scores, request));
+        } catch (IllegalArgumentException e) {
+            // e.g. four must-have forwards cannot play 4-4-2; other formations still can
+            log.debug("Skipping formation {}: {}", request.getFormation(), e.getMessage());
+            return Mono.empty();
         }
+    }
 
-        // Add must-have players
-        if (request.getMustHavePlayers() != null) {
-            request.getMustHavePlayers().forEach(id -> {
-                playerRepository.findById(id).ifPresent(selectedPlayers::add);
-            });
+    private SquadResult solveSquad(FplSnapshot snapshot, PlayerScores scores, BudgetSquadRequest request) {
+        int[] slots = parseFormation(request.getFormation());
+        int budgetInTenths = (int) Math.round(request.getBudget() * 10);
+
+        // Exact search over the whole pool: must-haves are fixed first, then budget, formation and club limit
+        SquadOptimizer.Solution solution = squadOptimizer.solve(scores, new SquadOptimizer.Constraints(
+                budgetInTenths, slots, request.getMustHavePlayers(), request.getExcludedPlayers()));
+        if (!solution.feasible()) {
+            throw new IllegalArgumentException("No " + request.getFormation() + " squad fits: "
+                    + solution.infeasibleReason() + ".");
+        }
+        if (!solution.optimal()) {
+            log.warn("Squad search for {} hit its time budget after {} nodes; returning best squad found",
+                    request.getFormation(), solution.nodes());
+        }
+
+        List<ScoredPlayer> selectedPlayers = Arrays.stream(solution.rows())
+                .mapToObj(scores::scored)
+                .toList();
+
+        Map<Integer, Integer> positionRequirements = new LinkedHashMap<>();
+        for (int position = 1; position < slots.length; position++) {
+            positionRequirements.put(position, slots[position]);
         }
 
         List<PlayerRecommendation> recommendations = selectedPlayers.stream()
-                .map(this::createPlayerRecommendation)
+                .map(player -> createPlayerRecommendation(snapshot, player))
                 .collect(Collectors.toList());
 
         double totalCost = selectedPlayers.stream()
-                .mapToDouble(Player::getPriceInMillions)
+                .mapToDouble(ScoredPlayer::priceInMillions)
                 .sum();
 
         int projectedPoints = selectedPlayers.stream()
-                .mapToInt(p -> p.getTotalPoints() != null ? p.getTotalPoints() : 0)
+                .mapToInt(ScoredPlayer::totalPoints)
                 .sum();
 
-        // ✅ Non-blocking AI call
-        return Mono.fromFuture(aiAnalysisService.analyzeSquad(selectedPlayers, request.getBudget()))
-                .map(aiAnalysis -> BudgetSquadResponse.builder()
-                        .selectedPlayers(recommendations)
-                        .totalCost(totalCost)
-                        .projectedPoints(projectedPoints)
-                        .aiAnalysis(aiAnalysis)
-                        .positionBreakdown(positionRequirements)
-                        .build());
+        BudgetSquadResponse response = BudgetSquadResponse.builder()
+                .formation(request.getFormation())
+                .selectedPlayers(recommendations)
+                .totalCost(totalCost)
+                .projectedPoints(projectedPoints)
+                .positionBreakdown(positionRequirements)
+                .totalScore(solution.totalScore())
+                .optimal(solution.optimal())
+                .snapshotVersion(snapshot.version())
+                .build();
+        return new SquadResult(response, selectedPlayers, solution);
     }
 
-    // --- Supporting methods (unchanged logic) ---
-    public List<Player> getTopPlayersForPosition(Integer position, int limit) {
-        List<Player> allPlayers = playerRepository.findByPosition(position);
-        return allPlayers.stream()
-                .filter(p -> !"i".equals(p.getStatus()) && !"u".equals(p.getStatus()))
-                .peek(this::calculatePlayerMetrics)
-                .sorted((p1, p2) -> Double.compare(calculateOverallScore(p2), calculateOverallScore(p1)))
-                .limit(limit)
-                .collect(Collectors.toList());
+    // ✅ Non-blocking AI call
+    private Mono<BudgetSquadResponse> withSquadAnalysis(SquadResult squad, double budget) {
+        return Mono.fromFuture(aiAnalysisService.analyzeSquad(squad.players(), budget))
+                .map(aiAnalysis -> {
+                    squad.response().setAiAnalysis(aiAnalysis);
+                    return squad.response();
+                });
     }
 
-    private void calculatePlayerMetrics(Player player) {
-        player.setValueForMoney(player.calculateValueForMoney());
-        List<Fixture> fixtures = fplDataService.getUpcomingFixtures(player.getTeam(), 5);
-
-        double avgDifficulty = fixtures.stream()
-                .mapToInt(f -> {
-                    boolean isHome = f.getTeamHome() != null && f.getTeamHome().equals(player.getTeam());
-                    Integer diff = isHome ? f.getTeamHomeDifficulty() : f.getTeamAwayDifficulty();
-                    return diff != null ? diff : 3; // default difficulty = 3 (average)
-                })
-                .average()
-                .orElse(3.0);
+    private record SquadResult(BudgetSquadResponse response, List<ScoredPlayer> players, SquadOptimizer.Solution solution) {
+    }
 
-        player.setFixtureScore(5.0 - avgDifficulty);
+    // --- Supporting methods (unchanged logic) ---
+    public List<ScoredPlayer> getTopPlayersForPosition(Integer position, int limit) {
+        return topPlayersForPosition(fplIndexService.getPlayerScores(), position, limit);
     }
 
-    private double calculateOverallScore(Player player) {
-        double formScore = parseDouble(player.getForm()) * 2.0;
-        double pointsScore = (player.getTotalPoints() != null ? player.getTotalPoints() : 0) / 10.0;
-        double valueScore = player.getValueForMoney() * 1.5;
-        double fixtureScore = player.getFixtureScore() * 1.5;
-        return formScore + pointsScore + valueScore + fixtureScore;
+    private static List<ScoredPlayer> topPlayersForPosition(PlayerScores scores, Integer position, int limit) {
+        return Arrays.stream(scores.topForPosition(position, limit))
+                .mapToObj(scores::scored)
+                .toList();
     }
 
-    private PlayerRecommendation createPlayerRecommendation(Player player) {
-        List<Fixture> nextFixtures = fplDataService.getUpcomingFixtures(player.getTeam(), 3);
+    // Everything shown for a player comes from the request's pinned snapshot
+    private PlayerRecommendation createPlayerRecommendation(FplSnapshot snapshot, ScoredPlayer player) {
+        Instant now = Instant.now();
+        List<Fixture> nextFixtures = snapshot.upcomingFixtures(player.team(), 3, now);
         List<String> fixtureStrings = nextFixtures.stream()
                 .limit(3)
-                .map(f -> formatFixture(f, player.getTeam()))
+                .map(f -> snapshot.teams().fixtureLabel(f, player.team()))
                 .collect(Collectors.toList());
         String recommendation = determineRecommendation(player);
+        // Live stats of an earlier gameweek are stale once the next one starts
+        LiveGameweek live = snapshot.live();
+        int liveRow = live.gameweek() == snapshot.currentGameweek(now) ? live.rowOf(player.id()) : -1;
         return PlayerRecommendation.builder()
-                .playerId(player.getId())
-                .name(player.getWebName())
-                .team(fplDataService.getTeam(player.getTeam()).getShortName())
-                .position(getPositionName(player.getPosition()))
-                .price(player.getPriceInMillions())
-                .totalPoints(player.getTotalPoints())
-                .form(parseDouble(player.getForm()))
-                .valueForMoney(player.getValueForMoney())
+                .playerId(player.id())
+                .name(player.webName())
+                .team(snapshot.teams().shortName(player.team()))
+                .position(getPositionName(player.position()))
+                .price(player.priceInMillions())
+                .totalPoints(player.totalPoints())
+                .form(player.form())
+                .valueForMoney(player.valueForMoney())
                 .nextFixtures(fixtureStrings)
-                .injuryStatus(player.getStatus())
-                .chanceOfPlaying(player.getChanceOfPlayingNextRound())
+                .injuryStatus(player.status())
+                .chanceOfPlaying(player.chanceOfPlayingNextRound())
+                .livePoints(liveRow >= 0 ? live.points(liveRow) : null)
+                .liveMinutes(liveRow >= 0 ? live.minutes(liveRow) : null)
                 .recommendation(recommendation)
                 .build();
     }
 
-    private String formatFixture(Fixture fixture, Integer playerTeamId) {
-        Team homeTeam = fplDataService.getTeam(fixture.getTeamHome());
-        Team awayTeam = fplDataService.getTeam(fixture.getTeamAway());
-
-        boolean isHome = fixture.getTeamHome() != null && fixture.getTeamHome().equals(playerTeamId);
-
-        Integer diff = isHome ? fixture.getTeamHomeDifficulty() : fixture.getTeamAwayDifficulty();
-        int difficulty = diff != null ? diff : 3; // default difficulty
-
-        String opponent = isHome ? awayTeam.getShortName() : homeTeam.getShortName();
-        String venue = isHome ? "(H)" : "(A)";
-        return String.format("%s %s [Diff: %d]", opponent, venue, difficulty);
-    }
-
-    private String determineRecommendation(Player player) {
+    private String determineRecommendation(ScoredPlayer player) {
         if (player.isInjured()) return "AVOID";
-        double form = parseDouble(player.getForm());
-        double vfm = player.getValueForMoney();
-        if (form > 5.0 && vfm > 3.0 && player.getFixtureScore() > 3.0) return "BUY";
+        double form = player.form();
+        double vfm = player.valueForMoney();
+        if (form > 5.0 && vfm > 3.0 && player.fixtureScore() > 3.0) return "BUY";
         if (form > 3.0 && vfm > 2.0) return "HOLD";
         if (form < 2.0 || player.isDoubtful()) return "WATCH";
         return "HOLD";
     }
 
-    private Map<Integer, Integer> parseFormation(String formation) {
-        Map<Integer, Integer> requirements = new HashMap<>();
-        requirements.put(1, 1);
+    // Players required per position, indexed 1..4
+    private int[] parseFormation(String formation) {
+        int[] requirements = new int[PlayerSnapshot.POSITION_COUNT + 1];
+        requirements[1] = 1;
         String[] parts = formation.split("-");
         if (parts.length == 3) {
-            requirements.put(2, Integer.parseInt(parts[0]));
-            requirements.put(3, Integer.parseInt(parts[1]));
-            requirements.put(4, Integer.parseInt(parts[2]));
+            requirements[2] = Integer.parseInt(parts[0]);
+            requirements[3] = Integer.parseInt(parts[1]);
+            requirements[4] = Integer.parseInt(parts[2]);
         }
         return requirements;
     }
@@ -237,12 +348,4 @@ public class MvpRecommendationService {
             default -> "Unknown";
         };
     }
-
-    private double parseDouble(String value) {
-        try {
-            return value != null ? Double.parseDouble(value) : 0.0;
-        } catch (NumberFormatException e) {
-            return 0.0;
-        }
-    }
 }
@@ -0,0 +1,132 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.configuration.MvpExternalClientProperties;
+import com.project.mvprecommender.configuration.PlayerHistoryProperties;
+import com.project.mvprecommender.model.PlayerGameweekHistory;
+import com.project.mvprecommender.repository.PlayerHistoryRepository;
+import com.project.mvprecommender.repository.PlayerRepository;
+import com.project.mvprecommender.repository.UpsertTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches per-gameweek history for every player from {@code element-summary/{id}/} and stores it
+ * in {@code player_history}. Requests run with bounded parallelism behind a token bucket; transient
+ * failures (429, 5xx, connection errors) are retried with jittered exponential backoff, and a player
+ * that still fails is skipped and counted rather than failing the sweep.
+ */
+@Service
+@Slf4j
+public class PlayerHistoryService {
+
+    private final WebClient mvpWebClient;
+    private final MvpExternalClientProperties clientProperties;
+    private final PlayerHistoryProperties properties;
+    private final PlayerRepository playerRepository;
+    private final PlayerHistoryRepository playerHistoryRepository;
+    private final DiffUpsertService diffUpsertService;
+    private final IngestionMetrics ingestionMetrics;
+    private final TokenBucket rateLimiter;
+
+    public record Summary(int players, int failed, DiffUpsertService.Counts rows, long elapsedMs) {
+    }
+
+    record ElementSummary(List<PlayerGameweekHistory> history) {
+    }
+
+    public PlayerHistoryService(WebClient mvpWebClient,
+                                MvpExternalClientProperties clientProperties,
+                                PlayerHistoryProperties properties,
+                                PlayerRepository playerRepository,
+                                PlayerHistoryRepository playerHistoryRepository,
+                                DiffUpsertService diffUpsertService,
+                                IngestionMetrics ingestionMetrics) {
+        this.mvpWebClient = mvpWebClient;
+        this.clientProperties = clientProperties;
+        this.properties = properties;
+        this.playerRepository = playerRepository;
+        this.playerHistoryRepository = playerHistoryRepository;
+        this.diffUpsertService = diffUpsertService;
+        this.ingestionMetrics = ingestionMetrics;
+        this.rateLimiter = new TokenBucket(properties.getRequestsPerSecond(), properties.getBurst());
+    }
+
+    /**
+     * Sweeps every stored player.
+     */
+    public Mono<Summary> sweep() {
+        return Mono.fromCallable(playerRepository::getAllPlayerIds)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(this::sweep);
+    }
+
+    public Mono<Summary> sweep(Collection<Long> playerIds) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicInteger failed = new AtomicInteger();
+            return Flux.fromIterable(playerIds)
+                    .flatMap(playerId -> fetch(playerId).onErrorResume(error -> {
+                        log.warn("Skipping history of player {}: {}", playerId, error.getMessage());
+                        failed.incrementAndGet();
+                        return Mono.empty();
+                    }), properties.getParallelism())
+                    .flatMapIterable(rows -> rows)
+                    .buffer(properties.getBatchSize())
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(batch -> diffUpsertService.upsert(UpsertTable.PLAYER_HISTORY, batch, playerHistoryRepository::findAll))
+                    .reduce(DiffUpsertService.Counts.NONE, DiffUpsertService.Counts::plus)
+                    .map(rows -> {
+                        Summary summary = new Summary(playerIds.size(), failed.get(), rows,
+                                Duration.ofNanos(System.nanoTime() - start).toMillis());
+                        ingestionMetrics.recordUpsert("player_history", rows);
+                        ingestionMetrics.recordFetchFailures("player_history", summary.failed());
+                        log.info("Player history sweep: {} players, {} failed, in {} ms",
+                                summary.players(), summary.failed(), summary.elapsedMs());
+                        return summary;
+                    });
+        });
+    }
+
+    private Mono<List<PlayerGameweekHistory>> fetch(long playerId) {
+        // Deferred so every retry goes through the rate limiter again
+        return Mono.defer(() -> rateLimiter.acquire().then(mvpWebClient
+                        .get()
+                        .uri(clientProperties.getPlayerUrl(), playerId)
+                        .retrieve()
+                        .bodyToMono(ElementSummary.class)))
+                .retryWhen(Retry.backoff(properties.getMaxRetries(), Duration.ofMillis(properties.getMinBackoffMs()))
+                        .jitter(0.5)
+                        .filter(PlayerHistoryService::isTransient))
+                .map(summary -> rows(playerId, summary));
+    }
+
+    private static List<PlayerGameweekHistory> rows(long playerId, ElementSummary summary) {
+        if (summary.history() == null) return List.of();
+        return summary.history().stream()
+                .filter(row -> row.getFixtureId() != null)
+                .peek(row -> {
+                    row.setPlayerId(playerId);
+                    row.setId(PlayerGameweekHistory.key(playerId, row.getFixtureId()));
+                })
+                .toList();
+    }
+
+    static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().value() == 429 || response.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException;
+    }
+}
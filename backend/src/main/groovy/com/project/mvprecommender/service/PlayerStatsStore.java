@@ -0,0 +1,163 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.snapshot.FplSnapshot;
+import com.project.mvprecommender.snapshot.StatSegment;
+import com.project.mvprecommender.snapshot.StatWindow;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only time series of per-player stats, one {@link StatSegment} per ingestion that changed them:
+ * {@code <dir>/gw-<gameweek>/<captured-at-millis>.seg.gz}. Segment files are never rewritten. The latest
+ * capture of each gameweek is kept in memory and answers range scans such as "the last 6 gameweeks of
+ * every midfielder" without touching the disk; earlier captures of a gameweek are only kept on disk.
+ */
+@Component
+@Slf4j
+public class PlayerStatsStore {
+
+    private static final String SUFFIX = ".seg.gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final boolean enabled;
+    private final Path dir;
+
+    // gameweek -> latest capture
+    private final ConcurrentSkipListMap<Integer, StatSegment> latest = new ConcurrentSkipListMap<>();
+    private volatile long version;
+
+    public PlayerStatsStore(@Value("${mvp.timeseries.enabled:true}") boolean enabled,
+                            @Value("${mvp.timeseries.dir:data/timeseries}") Path dir) {
+        this.enabled = enabled;
+        this.dir = dir;
+    }
+
+    @PostConstruct
+    synchronized void load() {
+        if (!enabled || !Files.isDirectory(dir)) return;
+        try (Stream<Path> gameweekDirs = Files.list(dir)) {
+            gameweekDirs.filter(Files::isDirectory).forEach(gameweekDir -> newestSegment(gameweekDir).ifPresent(file -> {
+                try {
+                    StatSegment segment = read(file);
+                    latest.put(segment.gameweek(), segment);
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable stat segment {}", file, e);
+                }
+            }));
+            log.info("Stats time series {} covers gameweeks {}", dir.toAbsolutePath(), latest.keySet());
+        } catch (IOException e) {
+            log.warn("Could not read stats time series {}", dir, e);
+        }
+    }
+
+    /**
+     * Captures the players of a published snapshot under its current gameweek, unless they are identical
+     * to the latest capture of that gameweek. Writing is best effort: failures are logged and the capture
+     * is still served from memory.
+     */
+    public boolean append(FplSnapshot snapshot) {
+        Instant now = Instant.now();
+        return append(StatSegment.capture(snapshot.currentGameweek(now), now, snapshot.players()));
+    }
+
+    synchronized boolean append(StatSegment segment) {
+        if (!enabled || segment.size() == 0) return false;
+        StatSegment previous = latest.get(segment.gameweek());
+        if (previous != null && previous.sameValuesAs(segment)) return false;
+        try {
+            write(segment);
+        } catch (IOException e) {
+            log.warn("Could not write stat segment for gameweek {}", segment.gameweek(), e);
+        }
+        latest.put(segment.gameweek(), segment);
+        version++;
+        return true;
+    }
+
+    /**
+     * Bumped by every capture that was kept, so cached results of range scans can tell they are stale.
+     */
+    public long version() {
+        return version;
+    }
+
+    public NavigableSet<Integer> gameweeks() {
+        return Collections.unmodifiableNavigableSet(latest.keySet());
+    }
+
+    /**
+     * Captured gameweeks from {@code fromGameweek} to {@code toGameweek} inclusive, for the players of
+     * {@code position} (every position when null).
+     */
+    public StatWindow window(Integer position, int fromGameweek, int toGameweek) {
+        if (fromGameweek > toGameweek) return StatWindow.of(List.of(), position);
+        return StatWindow.of(List.copyOf(latest.subMap(fromGameweek, true, toGameweek, true).values()), position);
+    }
+
+    /**
+     * The last {@code count} captured gameweeks up to and including {@code asOfGameweek}.
+     */
+    public StatWindow lastGameweeks(Integer position, int count, int asOfGameweek) {
+        List<StatSegment> segments = new ArrayList<>(count);
+        for (StatSegment segment : latest.headMap(asOfGameweek, true).descendingMap().values()) {
+            if (segments.size() == count) break;
+            segments.add(segment);
+        }
+        Collections.reverse(segments);
+        return StatWindow.of(segments, position);
+    }
+
+    private void write(StatSegment segment) throws IOException {
+        Path target = dir.resolve("gw-%02d".formatted(segment.gameweek()))
+                .resolve(segment.capturedAt().toEpochMilli() + SUFFIX);
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        Files.createDirectories(target.getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(partial), BUFFER_SIZE), BUFFER_SIZE))) {
+            segment.writeTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static StatSegment read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE))) {
+            return StatSegment.readFrom(in);
+        }
+    }
+
+    // File names are fixed-width epoch millis, so the greatest name is the latest capture
+    private static Optional<Path> newestSegment(Path gameweekDir) {
+        try (Stream<Path> files = Files.list(gameweekDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .max(Path::compareTo);
+        } catch (IOException e) {
+            log.warn("Could not list {}", gameweekDir, e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.configuration.RefreshScheduleProperties;
+import com.project.mvprecommender.snapshot.GameweekCalendar;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Derives when the next scheduled refresh runs from the fixture calendar of the current snapshot:
+ * <ul>
+ *     <li>live: a match is in progress or kicks off within the pre-kickoff window;</li>
+ *     <li>deadline: the next gameweek deadline is within the deadline window;</li>
+ *     <li>idle: otherwise, backing off but waking up when either of the above starts or at a daily news time.</li>
+ * </ul>
+ * Evaluated after every run, so a refresh that brings new fixtures changes the cadence straight away.
+ */
+@Component
+@Slf4j
+public class RefreshCadence {
+
+    public enum Phase {LIVE, DEADLINE, IDLE}
+
+    public record Plan(Phase phase, Instant next) {
+    }
+
+    private final FplIndexService fplIndexService;
+    private final Duration liveInterval;
+    private final Duration deadlineInterval;
+    private final Duration idleInterval;
+    private final Duration preKickoff;
+    private final Duration deadlineOffset;
+    private final Duration deadlineWindow;
+    private final List<LocalTime> dailyTimes;
+    private final ZoneId zone;
+
+    private volatile Phase lastPhase;
+
+    public RefreshCadence(FplIndexService fplIndexService, RefreshScheduleProperties properties) {
+        this.fplIndexService = fplIndexService;
+        this.liveInterval = Duration.ofMinutes(properties.getLiveIntervalMinutes());
+        this.deadlineInterval = Duration.ofMinutes(properties.getDeadlineIntervalMinutes());
+        this.idleInterval = Duration.ofMinutes(properties.getIdleIntervalMinutes());
+        this.preKickoff = Duration.ofMinutes(properties.getPreKickoffMinutes());
+        this.deadlineOffset = Duration.ofMinutes(properties.getDeadlineOffsetMinutes());
+        this.deadlineWindow = Duration.ofHours(properties.getDeadlineWindowHours());
+        this.dailyTimes = Arrays.stream(properties.getDailyTimes()).map(String::trim).map(LocalTime::parse).sorted().toList();
+        this.zone = ZoneId.of(properties.getZone());
+    }
+
+    /**
+     * When the refresh after one started at {@code now} should run, planned from the current snapshot's calendar.
+     */
+    public Instant next(Instant now) {
+        Plan plan = plan(fplIndexService.current().calendar(), now);
+        if (plan.phase() != lastPhase) {
+            log.info("Refresh cadence is now {}, next refresh at {}", plan.phase(), plan.next());
+            lastPhase = plan.phase();
+        }
+        return plan.next();
+    }
+
+    public Plan plan(GameweekCalendar calendar, Instant now) {
+        // Until fixtures are known there is nothing to adapt to; keep trying at the deadline pace
+        if (calendar.isEmpty()) return new Plan(Phase.IDLE, now.plus(deadlineInterval));
+
+        Instant nextKickoff = calendar.nextKickoff(now);
+        Instant preKickoffStart = nextKickoff != null ? nextKickoff.minus(preKickoff) : null;
+        if (calendar.isLive(now) || (preKickoffStart != null && !now.isBefore(preKickoffStart))) {
+            return new Plan(Phase.LIVE, now.plus(liveInterval));
+        }
+
+        Instant deadline = upcomingDeadline(calendar, now);
+        Instant deadlineWindowStart = deadline != null ? deadline.minus(deadlineWindow) : null;
+        if (deadlineWindowStart != null && !now.isBefore(deadlineWindowStart)) {
+            return new Plan(Phase.DEADLINE, earliest(now.plus(deadlineInterval), preKickoffStart));
+        }
+
+        Instant next = earliest(now.plus(idleInterval), deadlineWindowStart);
+        next = earliest(next, preKickoffStart);
+        next = earliest(next, nextDailyTime(now));
+        return new Plan(Phase.IDLE, next);
+    }
+
+    // Deadline of the current gameweek if it has not started yet, otherwise of the next one
+    private Instant upcomingDeadline(GameweekCalendar calendar, Instant now) {
+        int current = calendar.currentGameweek(now);
+        for (int gameweek : new int[]{current, calendar.nextGameweek(now)}) {
+            Instant firstKickoff = calendar.firstKickoff(gameweek);
+            if (firstKickoff != null && firstKickoff.minus(deadlineOffset).isAfter(now)) {
+                return firstKickoff.minus(deadlineOffset);
+            }
+        }
+        return null;
+    }
+
+    private Instant nextDailyTime(Instant now) {
+        if (dailyTimes.isEmpty()) return null;
+        ZonedDateTime local = now.atZone(zone);
+        LocalDate date = local.toLocalDate();
+        for (int day = 0; day < 2; day++) {
+            for (LocalTime time : dailyTimes) {
+                Instant candidate = date.plusDays(day).atTime(time).atZone(zone).toInstant();
+                if (candidate.isAfter(now)) return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static Instant earliest(Instant next, Instant candidate) {
+        return candidate != null && candidate.isBefore(next) ? candidate : next;
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.dto.RefreshJobStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Single-flight entry point for data refreshes. A trigger while a run is in flight joins that run
+ * instead of starting another, so manual and scheduled refreshes never ingest concurrently.
+ * The most recent runs are kept for status lookups.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshCoordinator {
+
+    private static final int RECENT_JOBS = 20;
+
+    private final FPLDataService fplDataService;
+    private final IngestionMetrics ingestionMetrics;
+
+    private final Map<String, RefreshJob> recent = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RefreshJob> eldest) {
+            return size() > RECENT_JOBS;
+        }
+    };
+    private RefreshJob inFlight;
+
+    /**
+     * Starts a refresh, or joins the one in flight, and returns its status without waiting.
+     */
+    public RefreshJobStatus trigger(String trigger) {
+        synchronized (this) {
+            if (inFlight != null && !inFlight.isDone()) {
+                log.info("Refresh triggered by {} joined in-flight job {}", trigger, inFlight.id());
+                return inFlight.status(true);
+            }
+            RefreshJob job = new RefreshJob(UUID.randomUUID().toString(), trigger);
+            inFlight = job;
+            recent.put(job.id(), job);
+            start(job);
+            return job.status(false);
+        }
+    }
+
+    /**
+     * Like {@link #trigger(String)}, completing with the final status once the run has finished.
+     */
+    public Mono<RefreshJobStatus> refresh(String trigger) {
+        String jobId = trigger(trigger).getJobId();
+        RefreshJob job = job(jobId);
+        return job.completion().then(Mono.fromSupplier(() -> job.status(false)));
+    }
+
+    /**
+     * The job in flight, if any.
+     */
+    public synchronized Optional<RefreshJobStatus> running() {
+        return inFlight != null && !inFlight.isDone() ? Optional.of(inFlight.status(false)) : Optional.empty();
+    }
+
+    public Optional<RefreshJobStatus> status(String jobId) {
+        return Optional.ofNullable(job(jobId)).map(job -> job.status(false));
+    }
+
+    private synchronized RefreshJob job(String jobId) {
+        return recent.get(jobId);
+    }
+
+    private void start(RefreshJob job) {
+        log.info("Refresh job {} started by {}", job.id(), job.status(false).getTrigger());
+        Mono<Void> run = fplDataService.refresh(job)
+                .doOnSuccess(unused -> {
+                    job.succeed();
+                    log.info("Refresh job {} finished: {}", job.id(), job.status(false).getStages());
+                })
+                .doOnError(error -> {
+                    job.fail(error);
+                    log.error("Refresh job {} failed", job.id(), error);
+                })
+                .onErrorComplete()
+                .doOnSuccess(unused -> ingestionMetrics.recordRefresh(job))
+                .cache();
+        job.completion(run);
+        run.subscribe();
+    }
+}
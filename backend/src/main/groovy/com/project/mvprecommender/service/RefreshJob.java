@@ -0,0 +1,165 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.dto.RefreshJobStatus;
+import com.project.mvprecommender.dto.RefreshStageTiming;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * One run of the refresh pipeline: accumulates wall time per stage and the outcome.
+ * Stages repeat per payload (bootstrap, fixtures) and their times add up.
+ */
+public class RefreshJob {
+
+    public enum Stage {
+        FETCH("fetch"),
+        ARCHIVE("archive"),
+        PARSE("parse"),
+        PERSIST("persist"),
+        REBUILD_INDEXES("rebuild-indexes"),
+        WARM_CACHES("warm-caches");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    public enum State {RUNNING, SUCCEEDED, FAILED}
+
+    private final String id;
+    private final String trigger;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startNanos = System.nanoTime();
+
+    private final Map<Stage, Long> stageNanos = new EnumMap<>(Stage.class);
+    private final List<String> unchanged = new ArrayList<>();
+    private volatile State state = State.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile long totalNanos;
+    private volatile String error;
+    private volatile Long snapshotVersion;
+    private volatile Mono<Void> completion = Mono.empty();
+
+    public RefreshJob(String id, String trigger) {
+        this.id = id;
+        this.trigger = trigger;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public boolean isDone() {
+        return state != State.RUNNING;
+    }
+
+    String trigger() {
+        return trigger;
+    }
+
+    State state() {
+        return state;
+    }
+
+    long totalNanos() {
+        return totalNanos;
+    }
+
+    synchronized Map<Stage, Long> stageNanos() {
+        return new EnumMap<>(stageNanos);
+    }
+
+    public synchronized void record(Stage stage, long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+    }
+
+    /**
+     * Adds the time from subscription to termination of {@code mono} to {@code stage}.
+     */
+    public <T> Mono<T> timed(Stage stage, Mono<T> mono) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return mono.doFinally(signal -> record(stage, System.nanoTime() - start));
+        });
+    }
+
+    public <T> T measure(Stage stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Marks a payload that upstream reported as unchanged, so it was neither parsed nor persisted.
+     */
+    public synchronized void unchanged(String payload) {
+        unchanged.add(payload);
+    }
+
+    /**
+     * Records the version of the snapshot this run published; runs that changed nothing publish none.
+     */
+    public void published(long version) {
+        this.snapshotVersion = version;
+    }
+
+    void succeed() {
+        finish(State.SUCCEEDED, null);
+    }
+
+    void fail(Throwable cause) {
+        finish(State.FAILED, cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+    }
+
+    private void finish(State outcome, String message) {
+        this.totalNanos = System.nanoTime() - startNanos;
+        this.finishedAt = LocalDateTime.now();
+        this.error = message;
+        this.state = outcome;
+    }
+
+    /**
+     * Completes when the run terminates; errors are already reflected in the status.
+     */
+    public Mono<Void> completion() {
+        return completion;
+    }
+
+    void completion(Mono<Void> completion) {
+        this.completion = completion;
+    }
+
+    public synchronized RefreshJobStatus status(boolean coalesced) {
+        List<RefreshStageTiming> stages = new ArrayList<>();
+        stageNanos.forEach((stage, nanos) -> stages.add(new RefreshStageTiming(stage.label(), Math.round(nanos / 100_000.0) / 10.0)));
+        long elapsed = isDone() ? totalNanos : System.nanoTime() - startNanos;
+        return RefreshJobStatus.builder()
+                .jobId(id)
+                .trigger(trigger)
+                .state(state.name())
+                .coalesced(coalesced)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .totalMs(elapsed / 1_000_000)
+                .stages(stages)
+                .unchanged(List.copyOf(unchanged))
+                .error(error)
+                .snapshotVersion(snapshotVersion)
+                .build();
+    }
+}
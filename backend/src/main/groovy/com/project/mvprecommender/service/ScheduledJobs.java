@@ -0,0 +1,133 @@
+package com.project.mvprecommender.service;
+
+import lombok.RequiredArgsConstructor;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Quartz jobs running the tasks of {@link SchedulerService}. With the clustered JDBC job store each trigger
+ * fires on exactly one node, and {@link DisallowConcurrentExecution} keeps a job from overlapping itself
+ * anywhere in the cluster. Refresh and live polling have no fixed schedule: each run moves its own trigger
+ * to the time it plans next. The trigger keeps repeating at a fallback interval, so a run that fails before
+ * it reschedules, or whose reschedule fails, does not stop the job.
+ */
+public final class ScheduledJobs {
+
+    public static final String GROUP = "fpl";
+    public static final JobKey REFRESH = JobKey.jobKey("refresh", GROUP);
+    public static final JobKey LIVE_POLL = JobKey.jobKey("live-poll", GROUP);
+    public static final JobKey HISTORY_SWEEP = JobKey.jobKey("history-sweep", GROUP);
+    public static final JobKey WEEKLY_ALERTS = JobKey.jobKey("weekly-alerts", GROUP);
+
+    private ScheduledJobs() {
+    }
+
+    /**
+     * A trigger of {@code job} at {@code at} that repeats every {@code fallback} until a run moves it.
+     * Missed while no node was up, it fires as soon as one is.
+     */
+    public static Trigger recurring(JobKey job, Instant at, Duration fallback) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity(job.getName(), job.getGroup())
+                .forJob(job)
+                .startAt(Date.from(at))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInMilliseconds(fallback.toMillis())
+                        .repeatForever()
+                        .withMisfireHandlingInstructionFireNow())
+                .build();
+    }
+
+    /**
+     * Stores {@code trigger} unless one with its key already exists, and reports whether it did. Self-planning
+     * triggers are registered this way, so a node that starts keeps the time the last run planned rather than
+     * forcing a run now.
+     */
+    public static boolean scheduleIfAbsent(Scheduler scheduler, Trigger trigger) throws SchedulerException {
+        if (scheduler.checkExists(trigger.getKey())) return false;
+        try {
+            scheduler.scheduleJob(trigger);
+            return true;
+        } catch (ObjectAlreadyExistsException e) {
+            // Another node starting at the same time stored it first
+            return false;
+        }
+    }
+
+    /**
+     * Moves the running job's trigger to {@code next}, but never past its fallback interval from now.
+     */
+    private static void rescheduleAt(JobExecutionContext context, Instant next) throws JobExecutionException {
+        Duration fallback = Duration.ofMillis(((SimpleTrigger) context.getTrigger()).getRepeatInterval());
+        Instant latest = Instant.now().plus(fallback);
+        Instant at = next.isBefore(latest) ? next : latest;
+        try {
+            context.getScheduler().rescheduleJob(context.getTrigger().getKey(),
+                    recurring(context.getJobDetail().getKey(), at, fallback));
+        } catch (SchedulerException e) {
+            throw new JobExecutionException("Could not reschedule " + context.getJobDetail().getKey(), e);
+        }
+    }
+
+    @DisallowConcurrentExecution
+    @RequiredArgsConstructor
+    public static class Refresh extends QuartzJobBean {
+
+        private final SchedulerService schedulerService;
+
+        @Override
+        protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+            rescheduleAt(context, schedulerService.updateFplData());
+        }
+    }
+
+    @DisallowConcurrentExecution
+    @RequiredArgsConstructor
+    public static class LivePoll extends QuartzJobBean {
+
+        private final SchedulerService schedulerService;
+
+        @Override
+        protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+            rescheduleAt(context, schedulerService.pollLiveGameweek());
+        }
+    }
+
+    @DisallowConcurrentExecution
+    @RequiredArgsConstructor
+    public static class HistorySweep extends QuartzJobBean {
+
+        private final SchedulerService schedulerService;
+
+        @Override
+        protected void executeInternal(JobExecutionContext context) {
+            schedulerService.updatePlayerHistory();
+        }
+    }
+
+    @DisallowConcurrentExecution
+    @RequiredArgsConstructor
+    public static class WeeklyAlerts extends QuartzJobBean {
+
+        private final SchedulerService schedulerService;
+
+        @Override
+        protected void executeInternal(JobExecutionContext context) {
+            schedulerService.generateWeeklyAlerts();
+        }
+    }
+}
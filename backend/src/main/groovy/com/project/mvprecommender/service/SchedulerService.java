@@ -1,39 +1,84 @@
 package com.project.mvprecommender.service;
 
+import com.project.mvprecommender.dto.RefreshJobStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The scheduled tasks, run by the Quartz jobs in {@link ScheduledJobs}. Each task blocks until its work is done,
+ * so a job holds its cluster-wide slot for as long as it ingests, and never throws.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SchedulerService {
 
-    private final FPLDataService fplDataService;
+    private final RefreshCoordinator refreshCoordinator;
+    private final RefreshCadence refreshCadence;
+    private final IngestionMetrics ingestionMetrics;
+    private final PlayerHistoryService playerHistoryService;
+    private final LiveGameweekService liveGameweekService;
     private final WeeklyAlertService weeklyAlertService;
     private final NotificationService notificationService;
 
-    @Scheduled(cron = "${mvp.scheduler.update-data-cron}")
-    public void updateFplData() {
-        log.info("Scheduled FPL data update started");
+    /**
+     * Refreshes FPL data and returns when the next refresh is due, planned from the fixture calendar.
+     */
+    public Instant updateFplData() {
+        Optional<RefreshJobStatus> running = refreshCoordinator.running();
+        if (running.isPresent()) {
+            log.info("Skipping scheduled FPL data update, job {} is still running", running.get().getJobId());
+            ingestionMetrics.recordRefreshSkipped("scheduled");
+        } else {
+            log.info("Scheduled FPL data update started");
+            try {
+                RefreshJobStatus job = refreshCoordinator.refresh("scheduled").block();
+                log.info("Scheduled FPL data update {} finished as {}", job.getJobId(), job.getState());
+            } catch (RuntimeException e) {
+                log.error("Error running scheduled FPL data update", e);
+            }
+        }
+        return refreshCadence.next(Instant.now());
+    }
+
+    /**
+     * Polls live points while matches are on and returns when the next poll is due.
+     */
+    public Instant pollLiveGameweek() {
+        if (liveGameweekService.isLive(Instant.now())) {
+            try {
+                liveGameweekService.poll().block();
+            } catch (RuntimeException e) {
+                log.error("Error polling live gameweek", e);
+            }
+        }
+        return liveGameweekService.nextPoll(Instant.now());
+    }
+
+    public void updatePlayerHistory() {
+        log.info("Scheduled player history sweep started");
         try {
-            fplDataService.updateDatabase();
-            log.info("FPL data update completed successfully");
-        } catch (Exception e) {
-            log.error("Error updating FPL data", e);
+            playerHistoryService.sweep().block();
+        } catch (RuntimeException e) {
+            log.error("Error sweeping player history", e);
         }
     }
 
-    @Scheduled(cron = "${mvp.scheduler.weekly-alert-cron}")
     public void generateWeeklyAlerts() {
         log.info("Generating weekly alerts");
-        weeklyAlertService.generateWeeklyAlert()
-                .doOnNext(alert -> {
-                    notificationService.sendWeeklyAlert(alert);
-                    log.info("Weekly alerts generated and sent");
-                })
-                .doOnError(e -> log.error("Error generating weekly alerts", e))
-                .subscribe(); // triggers the async pipeline
+        try {
+            weeklyAlertService.generateWeeklyAlert()
+                    .doOnNext(alert -> {
+                        notificationService.sendWeeklyAlert(alert);
+                        log.info("Weekly alerts generated and sent");
+                    })
+                    .block();
+        } catch (RuntimeException e) {
+            log.error("Error generating weekly alerts", e);
+        }
     }
 }
@@ -0,0 +1,238 @@
+package com.project.mvprecommender.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local archive of the raw FPL payloads that were ingested, gzip-compressed and versioned by fetch time
+ * and content hash: {@code <dir>/<payload>/<version>.json.gz}. A {@code manifest.jsonl} in the archive
+ * directory lists every ingested version with the gameweek that was current at the time; payloads whose
+ * ingestion never completed are not listed.
+ *
+ * <p>At startup {@link FPLDataService} ingests the latest versions before any request is served, and in
+ * replay mode ({@code mvp.archive.replay-gameweek}) it loads the versions of that gameweek instead.
+ */
+@Component
+@Slf4j
+public class SnapshotArchive {
+
+    public static final String BOOTSTRAP = "bootstrap";
+    public static final String FIXTURES = "fixtures";
+
+    private static final String MANIFEST = "manifest.jsonl";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter VERSION_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS").withZone(ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path dir;
+    private final int retain;
+    private final Integer replayGameweek;
+
+    // Ingested versions, oldest first
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * One archived payload. {@code file} is relative to the archive directory.
+     */
+    public record Entry(String payload, String version, String file, String sha256, long bytes,
+                        Integer gameweek, Instant archivedAt) {
+
+        Entry withGameweek(Integer gameweek) {
+            return new Entry(payload, version, file, sha256, bytes, gameweek, archivedAt);
+        }
+    }
+
+    public SnapshotArchive(ObjectMapper objectMapper,
+                           @Value("${mvp.archive.enabled:true}") boolean enabled,
+                           @Value("${mvp.archive.dir:data/archive}") Path dir,
+                           @Value("${mvp.archive.retain:200}") int retain,
+                           @Value("${mvp.archive.replay-gameweek:#{null}}") Integer replayGameweek) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.dir = dir;
+        this.retain = retain;
+        this.replayGameweek = replayGameweek;
+    }
+
+    @PostConstruct
+    synchronized void loadManifest() {
+        Path manifest = dir.resolve(MANIFEST);
+        if (!enabled || !Files.exists(manifest)) return;
+        try (var lines = Files.lines(manifest)) {
+            lines.filter(line -> !line.isBlank()).forEach(line -> {
+                try {
+                    Entry entry = objectMapper.readValue(line, Entry.class);
+                    if (Files.exists(dir.resolve(entry.file()))) entries.add(entry);
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable archive manifest line: {}", line);
+                }
+            });
+            log.info("Archive {} holds {} payload versions", dir.toAbsolutePath(), entries.size());
+        } catch (IOException e) {
+            log.warn("Could not read archive manifest {}", manifest, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<Integer> replayGameweek() {
+        return Optional.ofNullable(replayGameweek);
+    }
+
+    /**
+     * Compresses {@code source} into the archive. The version is not listed until {@link #record} is called
+     * after it has been ingested. Archiving is best effort: failures are logged and yield empty.
+     */
+    public Optional<Entry> store(String payload, Path source, String sha256) {
+        if (!enabled) return Optional.empty();
+        Instant now = Instant.now();
+        String version = VERSION_TIME.format(now) + "-" + sha256.substring(0, Math.min(12, sha256.length()));
+        Path target = dir.resolve(payload).resolve(version + ".json.gz");
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            Files.createDirectories(target.getParent());
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial), BUFFER_SIZE)) {
+                Files.copy(source, out);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return Optional.of(new Entry(payload, version, dir.relativize(target).toString(), sha256,
+                    Files.size(target), null, now));
+        } catch (IOException e) {
+            log.warn("Could not archive {} payload", payload, e);
+            delete(partial);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Lists an ingested version under the gameweek it belongs to, dropping the oldest versions of that
+     * payload beyond the retention limit.
+     */
+    public synchronized void record(Entry stored, Integer gameweek) {
+        Entry entry = stored.withGameweek(gameweek);
+        try {
+            Files.writeString(dir.resolve(MANIFEST), objectMapper.writeValueAsString(entry) + "\n",
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            entries.add(entry);
+            prune(entry.payload());
+        } catch (IOException e) {
+            log.warn("Could not record archived {} version {}", entry.payload(), entry.version(), e);
+        }
+    }
+
+    public synchronized Optional<Entry> latest(String payload) {
+        return entries.stream()
+                .filter(entry -> entry.payload().equals(payload))
+                .reduce((first, second) -> second);
+    }
+
+    /**
+     * The newest version of {@code payload} ingested while gameweek {@code maxGameweek} or an earlier one was current.
+     */
+    public synchronized Optional<Entry> latest(String payload, int maxGameweek) {
+        return entries.stream()
+                .filter(entry -> entry.payload().equals(payload))
+                .filter(entry -> entry.gameweek() != null && entry.gameweek() <= maxGameweek)
+                .max(Comparator.comparing(Entry::gameweek).thenComparing(Entry::archivedAt));
+    }
+
+    /**
+     * Streams the decompressed payload from a memory-mapped view of the archived file.
+     */
+    public Flux<DataBuffer> read(Entry entry) {
+        Path file = dir.resolve(entry.file());
+        return DataBufferUtils.readInputStream(
+                () -> new GZIPInputStream(new MappedInputStream(map(file)), BUFFER_SIZE),
+                DefaultDataBufferFactory.sharedInstance, BUFFER_SIZE);
+    }
+
+    private void prune(String payload) throws IOException {
+        List<Entry> versions = entries.stream().filter(entry -> entry.payload().equals(payload)).toList();
+        if (versions.size() <= retain) return;
+        List<Entry> expired = versions.subList(0, versions.size() - retain);
+        entries.removeAll(expired);
+        expired.forEach(entry -> delete(dir.resolve(entry.file())));
+
+        Path manifest = dir.resolve(MANIFEST);
+        Path rewritten = manifest.resolveSibling(MANIFEST + ".part");
+        StringBuilder lines = new StringBuilder();
+        for (Entry entry : entries) {
+            lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+        }
+        Files.writeString(rewritten, lines);
+        Files.move(rewritten, manifest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete archived file {}", path, e);
+        }
+    }
+
+    private static final class MappedInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
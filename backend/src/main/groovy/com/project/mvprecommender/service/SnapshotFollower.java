@@ -0,0 +1,105 @@
+package com.project.mvprecommender.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a node that did not ingest in step with the one that did. When another node announced a newer
+ * generation, the data it published is reloaded from the DB on a background thread and the caches built
+ * for the new snapshot; requests keep reading the previous snapshot until the new one is swapped in. A full
+ * snapshot reloads teams, players, fixtures and live stats; a live publication only reloads the live stats.
+ * Announcements arrive through {@link SnapshotListener}, with a slow periodic check as a fallback for missed
+ * notifications and databases without LISTEN.
+ */
+@Service
+@Slf4j
+public class SnapshotFollower {
+
+    private final SnapshotPublications snapshotPublications;
+    private final FPLDataService fplDataService;
+    private final LiveGameweekService liveGameweekService;
+    private final FplIndexService fplIndexService;
+    private final Executor executor;
+
+    // Set while a reload of that kind is queued and has not started yet, so a burst of announcements reloads once
+    private final Map<SnapshotPublications.Kind, AtomicBoolean> pending = new EnumMap<>(SnapshotPublications.Kind.class);
+
+    @Autowired
+    public SnapshotFollower(SnapshotPublications snapshotPublications, FPLDataService fplDataService,
+                            LiveGameweekService liveGameweekService, FplIndexService fplIndexService) {
+        this(snapshotPublications, fplDataService, liveGameweekService, fplIndexService,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "snapshot-follower");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    SnapshotFollower(SnapshotPublications snapshotPublications, FPLDataService fplDataService,
+                     LiveGameweekService liveGameweekService, FplIndexService fplIndexService, Executor executor) {
+        this.snapshotPublications = snapshotPublications;
+        this.fplDataService = fplDataService;
+        this.liveGameweekService = liveGameweekService;
+        this.fplIndexService = fplIndexService;
+        this.executor = executor;
+        for (SnapshotPublications.Kind kind : SnapshotPublications.Kind.values()) {
+            pending.put(kind, new AtomicBoolean());
+        }
+    }
+
+    /**
+     * Another node announced {@code generation} of {@code kind}; reloads in the background unless this node has
+     * already seen it.
+     */
+    public void published(SnapshotPublications.Kind kind, long generation) {
+        if (generation <= snapshotPublications.seen(kind)) return;
+        if (pending.get(kind).compareAndSet(false, true)) executor.execute(() -> reload(kind));
+    }
+
+    /**
+     * Fallback for notifications missed while not listening.
+     */
+    @Scheduled(fixedDelayString = "${mvp.cluster.follow-interval-seconds:300}", timeUnit = TimeUnit.SECONDS)
+    public void catchUp() {
+        try {
+            for (SnapshotPublications.Kind kind : SnapshotPublications.Kind.values()) {
+                published(kind, snapshotPublications.latest(kind));
+            }
+        } catch (Exception e) {
+            log.error("Error checking for published snapshots", e);
+        }
+    }
+
+    private void reload(SnapshotPublications.Kind kind) {
+        pending.get(kind).set(false);
+        try {
+            // Read first: whatever is published while reloading is picked up by the next round
+            long latest = snapshotPublications.latest(kind);
+            long seen = snapshotPublications.seen(kind);
+            if (latest <= seen) return;
+            log.info("{} generation {} was published by another node, reloading (last seen {})", kind, latest, seen);
+            if (kind == SnapshotPublications.Kind.SNAPSHOT) fplDataService.reloadFromDatabase();
+            liveGameweekService.reload();
+            fplIndexService.getPlayerScores(fplIndexService.current());
+            snapshotPublications.seen(kind, latest);
+        } catch (Exception e) {
+            log.error("Error reloading published snapshot", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor instanceof ExecutorService service) service.shutdownNow();
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.mvprecommender.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Listens on the channel of every {@link SnapshotPublications.Kind} on a dedicated PostgreSQL connection, outside
+ * the pool, and hands each announced generation to {@link SnapshotFollower}. Reconnects after a lost connection
+ * and catches up on whatever was published meanwhile. Does nothing on other databases.
+ */
+@Component
+@Slf4j
+public class SnapshotListener {
+
+    private static final int WAIT_MS = 10_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final SnapshotFollower snapshotFollower;
+    private final boolean enabled;
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public SnapshotListener(DataSourceProperties dataSourceProperties, SnapshotFollower snapshotFollower,
+                            @Value("${mvp.cluster.listen-enabled:true}") boolean enabled,
+                            @Value("${mvp.cluster.reconnect-delay-seconds:5}") long reconnectDelaySeconds) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.snapshotFollower = snapshotFollower;
+        this.enabled = enabled;
+        this.reconnectDelay = Duration.ofSeconds(reconnectDelaySeconds);
+    }
+
+    @PostConstruct
+    public void start() {
+        String url = dataSourceProperties.determineUrl();
+        if (!enabled || url == null || !url.startsWith("jdbc:postgresql:")) {
+            log.info("Not listening for published snapshots; relying on the periodic check");
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "snapshot-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) thread.interrupt();
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    for (SnapshotPublications.Kind kind : SnapshotPublications.Kind.values()) {
+                        statement.execute("LISTEN " + kind.channel());
+                    }
+                }
+                log.info("Listening for published snapshots");
+                // Anything published before LISTEN took effect
+                snapshotFollower.catchUp();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(WAIT_MS);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        long generation = SnapshotPublications.generationOf(notification.getParameter());
+                        if (generation <= 0) continue;
+                        SnapshotPublications.Kind.ofChannel(notification.getName())
+                                .ifPresent(kind -> snapshotFollower.published(kind, generation));
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("Snapshot notification connection lost, reconnecting in {} s", reconnectDelay.toSeconds(), e);
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.model.SnapshotPublication;
+import com.project.mvprecommender.repository.SnapshotPublicationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Tells the other nodes that this one ingested data. Every snapshot published from upstream data bumps the
+ * generation of its {@link Kind} in {@code snapshot_publication} and, on PostgreSQL, sends it as a notification on
+ * the kind's channel; a node whose last seen generation is behind reloads from the DB instead of ingesting itself
+ * (see {@link SnapshotFollower} and {@link SnapshotListener}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SnapshotPublications {
+
+    /**
+     * What was published, which decides how much a following node reloads.
+     */
+    public enum Kind {
+        // Teams, players and fixtures from a refresh
+        SNAPSHOT(1, "fpl_snapshot"),
+        // Live stats of the current gameweek only, published on every changed poll while matches are on
+        LIVE(2, "fpl_live");
+
+        private final int id;
+        private final String channel;
+
+        Kind(int id, String channel) {
+            this.id = id;
+            this.channel = channel;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        public String channel() {
+            return channel;
+        }
+
+        public static Optional<Kind> ofChannel(String channel) {
+            return Arrays.stream(values()).filter(kind -> kind.channel.equals(channel)).findFirst();
+        }
+    }
+
+    static final String NODE = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final SnapshotPublicationRepository snapshotPublicationRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // [kind ordinal] -> last generation this node has loaded
+    private final long[] seen = new long[Kind.values().length];
+    private volatile Boolean postgres;
+
+    /**
+     * Records that this node published {@code kind} from freshly ingested data and returns the new generation.
+     * The notification is delivered when the transaction commits, so listeners never see it before the row.
+     */
+    @Transactional
+    public long announce(Kind kind) {
+        // The rows are seeded by the V4 migration, so this only inserts on databases without it (H2 in tests)
+        if (snapshotPublicationRepository.bump(kind.id(), LocalDateTime.now(), NODE) == 0) {
+            snapshotPublicationRepository.save(new SnapshotPublication(kind.id(), 1L, LocalDateTime.now(), NODE));
+        }
+        // The bump holds the row lock until commit, so this reads our own generation
+        long generation = snapshotPublicationRepository.findById(kind.id()).orElseThrow().getGeneration();
+        synchronized (this) {
+            // Only skip the reload of our own publication if we had caught up with everything before it
+            if (seen[kind.ordinal()] == generation - 1) seen[kind.ordinal()] = generation;
+        }
+        if (isPostgres()) {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", kind.channel(), payload(generation));
+        }
+        log.debug("Announced {} generation {}", kind, generation);
+        return generation;
+    }
+
+    /**
+     * The generation of {@code kind} stored by the last publishing node, or 0 when nothing was ever published.
+     */
+    public long latest(Kind kind) {
+        return snapshotPublicationRepository.findById(kind.id()).map(SnapshotPublication::getGeneration).orElse(0L);
+    }
+
+    /**
+     * When the last full snapshot was published by any node, or empty when none ever was.
+     */
+    public Optional<LocalDateTime> latestPublishedAt() {
+        return snapshotPublicationRepository.findById(Kind.SNAPSHOT.id()).map(SnapshotPublication::getPublishedAt);
+    }
+
+    public synchronized long seen(Kind kind) {
+        return seen[kind.ordinal()];
+    }
+
+    public synchronized void seen(Kind kind, long generation) {
+        seen[kind.ordinal()] = Math.max(seen[kind.ordinal()], generation);
+    }
+
+    /**
+     * Notification payload: {@code <generation>@<node>}.
+     */
+    static String payload(long generation) {
+        return generation + "@" + NODE;
+    }
+
+    /**
+     * Generation of a notification payload, or -1 when it is not one of ours.
+     */
+    static long generationOf(String payload) {
+        if (payload == null) return -1;
+        int at = payload.indexOf('@');
+        try {
+            return Long.parseLong(at >= 0 ? payload.substring(0, at) : payload);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,318 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.snapshot.PlayerScores;
+import com.project.mvprecommender.snapshot.PlayerSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Exact squad optimizer: maximizes total score subject to budget, formation, must-have and
+ * excluded players, and the per-club limit.
+ *
+ * <p>Branch-and-bound over per-position candidate lists. The bound is an exact knapsack DP over
+ * integer {@code nowCost} tenths that ignores only the club rule, so the search mostly confirms
+ * the DP optimum and backtracks only when a club is over-represented. Candidates that are beaten
+ * on both score and price by enough players are pruned up front. When the time budget runs out
+ * the best squad found so far is returned with {@code optimal = false}.
+ */
+@Component
+@Slf4j
+public class SquadOptimizer {
+
+    public static final int MAX_PLAYERS_PER_CLUB = 3;
+
+    private static final double EPSILON = 1e-9;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    // Cap on bound table cells per search (2 MiB of doubles); larger tables are built over a coarser budget
+    static final int MAX_BOUND_CELLS = 1 << 18;
+
+    private final long timeBudgetNanos;
+
+    public SquadOptimizer(@Value("${mvp.squad.optimizer.time-budget-ms:40}") long timeBudgetMs) {
+        this.timeBudgetNanos = timeBudgetMs * 1_000_000L;
+    }
+
+    /**
+     * @param slots         players required per position, indexed 1..4
+     * @param budgetTenths  budget in {@code nowCost} units (0.1m)
+     */
+    public record Constraints(int budgetTenths, int[] slots, Collection<Long> mustHave, Collection<Long> excluded) {
+    }
+
+    /**
+     * @param rows     selected snapshot rows ordered by position then score, empty when infeasible
+     * @param optimal  true when the search completed, i.e. no better squad exists
+     * @param infeasibleReason  why no squad was found, null when feasible
+     */
+    public record Solution(int[] rows, double totalScore, int totalCost, boolean feasible, boolean optimal,
+                           long nodes, long elapsedNanos, String infeasibleReason) {
+    }
+
+    public Solution solve(PlayerScores scores, Constraints constraints) {
+        return new Search(scores, constraints, timeBudgetNanos).run();
+    }
+
+    private static final class Search {
+        private final PlayerScores scores;
+        private final PlayerSnapshot snapshot;
+        private final long start = System.nanoTime();
+        private final long deadline;
+
+        // Open positions in search order, with their candidate rows (score descending) and open slots
+        private final int[][] candidates;
+        private final int[] openSlots;
+        private final int[] fixedRows;
+        private final int budget;
+        private final int[] clubCounts;
+
+        // bounds[p][(j * (k + 1) + s) * width + b / step]: best score picking s players from candidates j.. of
+        // position p plus every open slot of later positions, within budget b, ignoring the club rule.
+        // Costs are rounded down to whole steps, which can only loosen the bound, never cut off a squad.
+        private double[][] bounds;
+        private int step = 1;
+        private int width;
+
+        private final int[] chosen;
+        private int depth;
+        private final int[] bestRows;
+        private double bestScore = Double.NEGATIVE_INFINITY;
+        private long nodes;
+        private boolean timedOut;
+        private final String infeasibleReason;
+
+        Search(PlayerScores scores, Constraints constraints, long timeBudgetNanos) {
+            this.scores = scores;
+            this.snapshot = scores.getSnapshot();
+            this.deadline = start + timeBudgetNanos;
+            this.clubCounts = new int[snapshot.getMaxTeamId() + 1];
+
+            int[] slots = constraints.slots().clone();
+            Set<Long> excluded = constraints.excluded() != null ? Set.copyOf(constraints.excluded()) : Set.of();
+            Set<Long> mustHave = constraints.mustHave() != null ? Set.copyOf(constraints.mustHave()) : Set.of();
+
+            // Must-have players are fixed up front; they use their position's slots, budget and club quota
+            int fixedCost = 0;
+            List<Integer> fixed = new ArrayList<>();
+            String reason = null;
+            for (Long id : mustHave) {
+                int row = snapshot.rowOf(id);
+                if (row < 0) {
+                    throw new IllegalArgumentException("Must-have player ID " + id + " is not in the current player pool.");
+                }
+                int position = snapshot.position(row);
+                if (--slots[position] < 0) {
+                    throw new IllegalArgumentException("Too many must-have players for position " + position + " in this formation.");
+                }
+                if (++clubCounts[snapshot.team(row)] > MAX_PLAYERS_PER_CLUB) {
+                    throw new IllegalArgumentException("More than " + MAX_PLAYERS_PER_CLUB + " must-have players from one club.");
+                }
+                fixed.add(row);
+                fixedCost += snapshot.nowCost(row);
+            }
+            this.fixedRows = fixed.stream().mapToInt(Integer::intValue).toArray();
+            int remaining = constraints.budgetTenths() - fixedCost;
+            if (remaining < 0) reason = "must-have players exceed the budget";
+            this.budget = Math.max(remaining, 0);
+
+            int squadSize = fixedRows.length;
+            for (int position = 1; position < slots.length; position++) squadSize += slots[position];
+
+            int[][] pool = new int[slots.length][];
+            int minCostOfOpenSlots = 0;
+            for (int position = 1; position < slots.length; position++) {
+                if (slots[position] <= 0) continue;
+                pool[position] = scores.topK(snapshot.rowsForPosition(position),
+                        row -> !snapshot.isUnavailable(row)
+                                && !excluded.contains(snapshot.id(row))
+                                && !mustHave.contains(snapshot.id(row)),
+                        Integer.MAX_VALUE);
+                if (pool[position].length < slots[position]) {
+                    reason = "not enough eligible players for position " + position;
+                    continue;
+                }
+                int[] costs = Arrays.stream(pool[position]).map(snapshot::nowCost).sorted().toArray();
+                for (int i = 0; i < slots[position]; i++) minCostOfOpenSlots += costs[i];
+            }
+            if (reason == null && minCostOfOpenSlots > budget) reason = "budget too small for the formation";
+            this.infeasibleReason = reason;
+
+            int blockedClubs = (squadSize - 1) / MAX_PLAYERS_PER_CLUB;
+            List<int[]> candidateLists = new ArrayList<>();
+            List<Integer> slotCounts = new ArrayList<>();
+            for (int position = 1; position < slots.length; position++) {
+                if (slots[position] <= 0 || reason != null) continue;
+                int k = slots[position];
+                // Cheapest possible cost of the other open slots if this position's k-th cheapest is swapped out
+                int kthCheapest = cheapest(pool[position], k) - cheapest(pool[position], k - 1);
+                int maxCost = budget - (minCostOfOpenSlots - kthCheapest);
+                slotCounts.add(k);
+                candidateLists.add(prune(pool[position], k, maxCost, blockedClubs));
+            }
+            this.candidates = candidateLists.toArray(new int[0][]);
+            this.openSlots = slotCounts.stream().mapToInt(Integer::intValue).toArray();
+
+            this.chosen = new int[squadSize];
+            this.bestRows = new int[squadSize];
+        }
+
+        Solution run() {
+            if (infeasibleReason != null) {
+                log.info("No squad satisfies the constraints: {}", infeasibleReason);
+                return new Solution(new int[0], 0.0, 0, false, true, 0, System.nanoTime() - start, infeasibleReason);
+            }
+            buildBounds();
+            System.arraycopy(fixedRows, 0, chosen, 0, fixedRows.length);
+            depth = fixedRows.length;
+            double fixedScore = Arrays.stream(fixedRows).mapToDouble(scores::score).sum();
+
+            if (openSlots.length == 0) {
+                record(fixedScore);
+            } else {
+                search(0, 0, openSlots[0], budget, fixedScore);
+            }
+
+            long elapsed = System.nanoTime() - start;
+            if (bestScore == Double.NEGATIVE_INFINITY) {
+                String reason = timedOut ? "no squad found within the search time budget"
+                        : "the club limit cannot be met within the budget";
+                log.info("No squad satisfies the constraints: {} ({} nodes)", reason, nodes);
+                return new Solution(new int[0], 0.0, 0, false, !timedOut, nodes, elapsed, reason);
+            }
+            int[] rows = bestRows.clone();
+            Arrays.sort(rows);
+            int[] ordered = Arrays.stream(rows).boxed()
+                    .sorted((a, b) -> snapshot.position(a) != snapshot.position(b)
+                            ? Integer.compare(snapshot.position(a), snapshot.position(b))
+                            : Double.compare(scores.score(b), scores.score(a)))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int cost = Arrays.stream(ordered).map(snapshot::nowCost).sum();
+            log.debug("Squad search finished: score {}, cost {}, {} nodes, {} us, optimal {}",
+                    bestScore, cost, nodes, elapsed / 1000, !timedOut);
+            return new Solution(ordered, bestScore, cost, true, !timedOut, nodes, elapsed, null);
+        }
+
+        private void search(int p, int j, int s, int budgetLeft, double current) {
+            if (timedOut) return;
+            if (++nodes % TIME_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                timedOut = true;
+                return;
+            }
+            if (s == 0) {
+                if (p + 1 == openSlots.length) {
+                    record(current);
+                } else {
+                    search(p + 1, 0, openSlots[p + 1], budgetLeft, current);
+                }
+                return;
+            }
+            int k = openSlots[p];
+            if (current + bounds[p][(j * (k + 1) + s) * width + budgetLeft / step] <= bestScore + EPSILON) return;
+
+            int[] rows = candidates[p];
+            if (j >= rows.length) return;
+            int row = rows[j];
+            int cost = snapshot.nowCost(row);
+            int club = snapshot.team(row);
+            int clubCount = clubCounts[club];
+
+            if (cost <= budgetLeft && clubCount < MAX_PLAYERS_PER_CLUB) {
+                clubCounts[club]++;
+                chosen[depth++] = row;
+                search(p, j + 1, s - 1, budgetLeft - cost, current + scores.score(row));
+                depth--;
+                clubCounts[club]--;
+            }
+            search(p, j + 1, s, budgetLeft, current);
+        }
+
+        private void record(double score) {
+            if (score > bestScore + EPSILON) {
+                bestScore = score;
+                System.arraycopy(chosen, 0, bestRows, 0, chosen.length);
+            }
+        }
+
+        /**
+         * Builds the tables inside the search's time budget: the deadline is taken before construction, and
+         * the budget axis is coarsened so that all tables together stay within {@link #MAX_BOUND_CELLS}.
+         */
+        private void buildBounds() {
+            long rowsPerBudget = 0;
+            for (int p = 0; p < openSlots.length; p++) {
+                rowsPerBudget += (long) (candidates[p].length + 1) * (openSlots[p] + 1);
+            }
+            long fit = Math.max(MAX_BOUND_CELLS / rowsPerBudget, 1);
+            if (fit <= budget) step = (int) (budget / fit) + 1;
+            width = budget / step + 1;
+            bounds = new double[openSlots.length][];
+            double[] later = new double[width]; // best score for all later positions within budget b
+            for (int p = openSlots.length - 1; p >= 0; p--) {
+                int[] rows = candidates[p];
+                int k = openSlots[p];
+                int n = rows.length;
+                double[] table = new double[(n + 1) * (k + 1) * width];
+                // Past the last candidate only s = 0 is reachable; every other row is written below
+                System.arraycopy(later, 0, table, (n * (k + 1)) * width, width);
+                Arrays.fill(table, (n * (k + 1) + 1) * width, table.length, Double.NEGATIVE_INFINITY);
+                for (int j = n - 1; j >= 0; j--) {
+                    int cost = snapshot.nowCost(rows[j]) / step;
+                    double score = scores.score(rows[j]);
+                    for (int s = 0; s <= k; s++) {
+                        int base = (j * (k + 1) + s) * width;
+                        int skip = ((j + 1) * (k + 1) + s) * width;
+                        int take = ((j + 1) * (k + 1) + s - 1) * width;
+                        if (s == 0 || cost >= width) {
+                            System.arraycopy(table, skip, table, base, width);
+                            continue;
+                        }
+                        System.arraycopy(table, skip, table, base, cost);
+                        for (int b = cost; b < width; b++) {
+                            table[base + b] = Math.max(table[skip + b], table[take + b - cost] + score);
+                        }
+                    }
+                }
+                bounds[p] = table;
+                later = Arrays.copyOfRange(table, k * width, (k + 1) * width);
+            }
+        }
+
+        /**
+         * Drops candidates that can always be swapped for a player at least as good and no more expensive.
+         * A dominator is usable unless it is already picked for this position (at most k - 1) or its club is
+         * full (at most {@code blockedClubs} clubs); same-club dominators are never blocked by the club rule.
+         */
+        private int[] prune(int[] ranked, int k, int maxCost, int blockedClubs) {
+            int needed = k + blockedClubs;
+            List<Integer> kept = new ArrayList<>();
+            for (int i = 0; i < ranked.length; i++) {
+                int row = ranked[i];
+                int cost = snapshot.nowCost(row);
+                if (cost > maxCost) continue;
+                int club = snapshot.team(row);
+                int sameClub = 0;
+                Set<Integer> otherClubs = new HashSet<>();
+                for (int d = 0; d < i && sameClub + otherClubs.size() < needed; d++) {
+                    int dominator = ranked[d];
+                    if (snapshot.nowCost(dominator) > cost) continue;
+                    if (snapshot.team(dominator) == club) sameClub++;
+                    else otherClubs.add(snapshot.team(dominator));
+                }
+                if (sameClub + otherClubs.size() < needed) kept.add(row);
+            }
+            return kept.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private int cheapest(int[] rows, int count) {
+            return Arrays.stream(rows).map(snapshot::nowCost).sorted().limit(count).sum();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.mvprecommender.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter for outbound requests. Refills continuously at a fixed rate up to
+ * {@code burst} tokens; a caller that finds the bucket empty reserves a future token and waits for it,
+ * so waiting callers are spaced out instead of retrying in lockstep.
+ */
+public class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.tokensPerNano = permitsPerSecond / 1_000_000_000d;
+        this.capacity = burst;
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Completes once a permit is available.
+     */
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            Duration wait = reserve();
+            return wait.isZero() ? Mono.empty() : Mono.delay(wait).then();
+        });
+    }
+
+    /**
+     * Takes one permit, possibly in the future, and returns how long the caller must wait for it.
+     */
+    synchronized Duration reserve() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        tokens -= 1;
+        return tokens >= 0 ? Duration.ZERO : Duration.ofNanos((long) Math.ceil(-tokens / tokensPerNano));
+    }
+}
@@ -60,7 +60,7 @@ public class WeeklyAlertService {
         // Form drop alerts
         allPlayers.stream()
                 .filter(p -> {
-                    double form = parseDouble(p.getForm());
+                    double form = valueOrZero(p.getForm());
                     return form < 2.0 && p.getTotalPoints() > 50;
                 })
                 .limit(5)
@@ -74,14 +74,14 @@ public class WeeklyAlertService {
 
         // High ownership players to watch
         allPlayers.stream()
-                .filter(p -> parseDouble(p.getSelectedByPercent()) > 30.0)
+                .filter(p -> valueOrZero(p.getSelectedByPercent()) > 30.0)
                 .limit(3)
                 .forEach(p -> alerts.add(PlayerAlert.builder()
                         .playerId(p.getId())
                         .playerName(p.getWebName())
                         .alertType("FIXTURE_ALERT")
                         .message(String.format("%s highly owned (%.1f%%) - monitor fixtures",
-                                p.getWebName(), parseDouble(p.getSelectedByPercent())))
+                                p.getWebName(), valueOrZero(p.getSelectedByPercent())))
                         .severity("LOW")
                         .build()));
 
@@ -89,11 +89,11 @@ public class WeeklyAlertService {
     }
 
     private List<InjuryUpdate> generateInjuryUpdates() {
-        return playerRepository.findInjuredOrDoubtfulPlayers().stream()
+        return fplDataService.getInjuredOrDoubtfulPlayers().stream()
                 .map(p -> InjuryUpdate.builder()
                         .playerId(p.getId())
                         .playerName(p.getWebName())
-                        .team(fplDataService.getTeam(p.getTeam()).getShortName())
+                        .team(fplDataService.getTeamShortName(p.getTeam()))
                         .injuryStatus(p.getStatus())
                         .chanceOfPlaying(p.getChanceOfPlayingNextRound())
                         .news(p.getNews())
@@ -105,13 +105,13 @@ public class WeeklyAlertService {
     private List<PlayerRecommendation> getMustWatchPlayers() {
         return playerRepository.findAll().stream()
                 .filter(p -> {
-                    double form = parseDouble(p.getForm());
-                    double ownership = parseDouble(p.getSelectedByPercent());
+                    double form = valueOrZero(p.getForm());
+                    double ownership = valueOrZero(p.getSelectedByPercent());
                     return form > 5.0 && ownership < 10.0; // High form, low ownership
                 })
                 .sorted((p1, p2) -> Double.compare(
-                        parseDouble(p2.getForm()),
-                        parseDouble(p1.getForm())))
+                        valueOrZero(p2.getForm()),
+                        valueOrZero(p1.getForm())))
                 .limit(5)
                 .map(this::createPlayerRecommendation)
                 .collect(Collectors.toList());
@@ -121,11 +121,11 @@ public class WeeklyAlertService {
         return PlayerRecommendation.builder()
                 .playerId(player.getId())
                 .name(player.getWebName())
-                .team(fplDataService.getTeam(player.getTeam()).getShortName())
+                .team(fplDataService.getTeamShortName(player.getTeam()))
                 .position(getPositionName(player.getPosition()))
                 .price(player.getPriceInMillions())
                 .totalPoints(player.getTotalPoints())
-                .form(parseDouble(player.getForm()))
+                .form(valueOrZero(player.getForm()))
                 .recommendation("WATCH")
                 .build();
     }
@@ -140,11 +140,7 @@ public class WeeklyAlertService {
         };
     }
 
-    private double parseDouble(String value) {
-        try {
-            return value != null ? Double.parseDouble(value) : 0.0;
-        } catch (NumberFormatException e) {
-            return 0.0;
-        }
+    private double valueOrZero(Double value) {
+        return value != null ? value : 0.0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Fixture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable team x gameweek fixture difficulty matrix.
+ * Each team row keeps prefix sums of difficulty and fixture counts per gameweek, so range
+ * queries such as "average difficulty over the next N gameweeks" are O(1) and never touch the DB.
+ */
+public final class FixtureDifficultyMatrix {
+
+    public static final int DEFAULT_DIFFICULTY = 3;
+
+    private static final FixtureDifficultyMatrix EMPTY = new FixtureDifficultyMatrix(0, 0,
+            new int[1][1], new int[1][1], new Fixture[1][0], new int[1][0]);
+
+    private final int maxTeamId;
+    private final int maxGameweek;
+
+    // [teamId][gw] = sum of difficulty / number of fixtures for gameweeks 1..gw-1
+    private final int[][] difficultyPrefix;
+    private final int[][] fixturePrefix;
+
+    // Per-team fixtures ordered by gameweek then kickoff, with a parallel gameweek column for binary search
+    private final Fixture[][] teamFixtures;
+    private final int[][] teamFixtureGameweeks;
+
+    private FixtureDifficultyMatrix(int maxTeamId, int maxGameweek, int[][] difficultyPrefix, int[][] fixturePrefix,
+                                    Fixture[][] teamFixtures, int[][] teamFixtureGameweeks) {
+        this.maxTeamId = maxTeamId;
+        this.maxGameweek = maxGameweek;
+        this.difficultyPrefix = difficultyPrefix;
+        this.fixturePrefix = fixturePrefix;
+        this.teamFixtures = teamFixtures;
+        this.teamFixtureGameweeks = teamFixtureGameweeks;
+    }
+
+    public static FixtureDifficultyMatrix empty() {
+        return EMPTY;
+    }
+
+    public static FixtureDifficultyMatrix build(Collection<Fixture> fixtures) {
+        int maxTeamId = 0;
+        int maxGameweek = 0;
+        List<Fixture> scheduled = new ArrayList<>(fixtures.size());
+        for (Fixture f : fixtures) {
+            // Postponed fixtures have no gameweek until they are rescheduled
+            if (f.getGameWeek() == null || f.getTeamHome() == null || f.getTeamAway() == null) continue;
+            scheduled.add(f);
+            maxTeamId = Math.max(maxTeamId, Math.max(f.getTeamHome(), f.getTeamAway()));
+            maxGameweek = Math.max(maxGameweek, f.getGameWeek());
+        }
+        if (scheduled.isEmpty()) return EMPTY;
+
+        scheduled.sort(Comparator.comparing(Fixture::getGameWeek)
+                .thenComparing(Fixture::getKickoffTime, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingLong(Fixture::getId));
+
+        int[][] difficulty = new int[maxTeamId + 1][maxGameweek + 2];
+        int[][] count = new int[maxTeamId + 1][maxGameweek + 2];
+        int[] fixturesPerTeam = new int[maxTeamId + 1];
+        for (Fixture f : scheduled) {
+            int gw = f.getGameWeek();
+            difficulty[f.getTeamHome()][gw + 1] += difficultyOrDefault(f.getTeamHomeDifficulty());
+            difficulty[f.getTeamAway()][gw + 1] += difficultyOrDefault(f.getTeamAwayDifficulty());
+            count[f.getTeamHome()][gw + 1]++;
+            count[f.getTeamAway()][gw + 1]++;
+            fixturesPerTeam[f.getTeamHome()]++;
+            fixturesPerTeam[f.getTeamAway()]++;
+        }
+        for (int team = 0; team <= maxTeamId; team++) {
+            for (int gw = 1; gw < maxGameweek + 2; gw++) {
+                difficulty[team][gw] += difficulty[team][gw - 1];
+                count[team][gw] += count[team][gw - 1];
+            }
+        }
+
+        Fixture[][] teamFixtures = new Fixture[maxTeamId + 1][];
+        int[][] teamFixtureGameweeks = new int[maxTeamId + 1][];
+        for (int team = 0; team <= maxTeamId; team++) {
+            teamFixtures[team] = new Fixture[fixturesPerTeam[team]];
+            teamFixtureGameweeks[team] = new int[fixturesPerTeam[team]];
+        }
+        int[] cursor = new int[maxTeamId + 1];
+        for (Fixture f : scheduled) {
+            for (int team : new int[]{f.getTeamHome(), f.getTeamAway()}) {
+                teamFixtures[team][cursor[team]] = f;
+                teamFixtureGameweeks[team][cursor[team]] = f.getGameWeek();
+                cursor[team]++;
+            }
+        }
+
+        return new FixtureDifficultyMatrix(maxTeamId, maxGameweek, difficulty, count, teamFixtures, teamFixtureGameweeks);
+    }
+
+    /**
+     * Average difficulty for a team over gameweeks [fromGw, toGw], from the team's own perspective.
+     * Returns {@link #DEFAULT_DIFFICULTY} when the team has no fixtures in that range.
+     */
+    public double averageDifficulty(Integer teamId, int fromGw, int toGw) {
+        int fixtures = fixtureCount(teamId, fromGw, toGw);
+        if (fixtures == 0) return DEFAULT_DIFFICULTY;
+        return (double) (difficultyPrefix[teamId][prefixEnd(toGw)] - difficultyPrefix[teamId][prefixStart(fromGw)]) / fixtures;
+    }
+
+    public int fixtureCount(Integer teamId, int fromGw, int toGw) {
+        if (!hasTeam(teamId) || fromGw > toGw) return 0;
+        return fixturePrefix[teamId][prefixEnd(toGw)] - fixturePrefix[teamId][prefixStart(fromGw)];
+    }
+
+    /**
+     * Fixtures for a team in gameweeks [fromGw, toGw], ordered by gameweek and kickoff.
+     */
+    public List<Fixture> fixtures(Integer teamId, int fromGw, int toGw) {
+        if (!hasTeam(teamId) || fromGw > toGw) return List.of();
+        int[] gameweeks = teamFixtureGameweeks[teamId];
+        int start = lowerBound(gameweeks, fromGw);
+        int end = lowerBound(gameweeks, toGw + 1);
+        if (start >= end) return List.of();
+        return Collections.unmodifiableList(Arrays.asList(teamFixtures[teamId]).subList(start, end));
+    }
+
+    public int getMaxGameweek() {
+        return maxGameweek;
+    }
+
+    public boolean isEmpty() {
+        return maxTeamId == 0;
+    }
+
+    private boolean hasTeam(Integer teamId) {
+        return teamId != null && teamId > 0 && teamId <= maxTeamId;
+    }
+
+    // Prefix slot k holds the total for gameweeks < k, so [from, to] maps to slots [from, to + 1)
+    private int prefixStart(int fromGw) {
+        return Math.max(0, Math.min(fromGw, maxGameweek + 1));
+    }
+
+    private int prefixEnd(int toGw) {
+        return Math.max(0, Math.min(toGw, maxGameweek)) + 1;
+    }
+
+    private static int lowerBound(int[] values, int key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int difficultyOrDefault(Integer difficulty) {
+        return difficulty != null ? difficulty : DEFAULT_DIFFICULTY;
+    }
+}
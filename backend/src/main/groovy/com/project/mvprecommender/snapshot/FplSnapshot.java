@@ -0,0 +1,156 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.Team;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * One consistent, versioned view of all ingested FPL data: teams, players, fixtures and the indexes
+ * derived from them. Immutable; ingestion stages a new snapshot with a {@link Builder} and publishes it
+ * with a single reference swap, so a request that pins a snapshot never mixes data from two refreshes.
+ */
+public final class FplSnapshot {
+
+    private static final FplSnapshot EMPTY = new FplSnapshot(0, Instant.EPOCH, TeamRegistry.empty(),
+            PlayerSnapshot.empty(), FixtureDifficultyMatrix.empty(), GameweekCalendar.empty(), LiveGameweek.empty());
+
+    private final long version;
+    private final Instant publishedAt;
+    private final TeamRegistry teams;
+    private final PlayerSnapshot players;
+    private final FixtureDifficultyMatrix fixtureMatrix;
+    private final GameweekCalendar calendar;
+    private final LiveGameweek live;
+
+    private FplSnapshot(long version, Instant publishedAt, TeamRegistry teams, PlayerSnapshot players,
+                        FixtureDifficultyMatrix fixtureMatrix, GameweekCalendar calendar, LiveGameweek live) {
+        this.version = version;
+        this.publishedAt = publishedAt;
+        this.teams = teams;
+        this.players = players;
+        this.fixtureMatrix = fixtureMatrix;
+        this.calendar = calendar;
+        this.live = live;
+    }
+
+    public static FplSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * A builder that starts from this snapshot; parts that are not replaced are shared, not copied.
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant publishedAt() {
+        return publishedAt;
+    }
+
+    public TeamRegistry teams() {
+        return teams;
+    }
+
+    public PlayerSnapshot players() {
+        return players;
+    }
+
+    public FixtureDifficultyMatrix fixtureMatrix() {
+        return fixtureMatrix;
+    }
+
+    public GameweekCalendar calendar() {
+        return calendar;
+    }
+
+    /**
+     * Live stats of the gameweek being played, or of the last one polled. Player recommendations show
+     * them while they belong to the current gameweek.
+     */
+    public LiveGameweek live() {
+        return live;
+    }
+
+    public int currentGameweek(Instant now) {
+        return calendar.currentGameweek(now);
+    }
+
+    /**
+     * Fixtures of {@code teamId} in the next {@code count} gameweeks, as of {@code now}.
+     */
+    public List<Fixture> upcomingFixtures(Integer teamId, int count, Instant now) {
+        int gameweek = currentGameweek(now);
+        return fixtureMatrix.fixtures(teamId, gameweek, gameweek + count);
+    }
+
+    public static final class Builder {
+
+        private final FplSnapshot base;
+        private TeamRegistry teams;
+        private PlayerSnapshot players;
+        private FixtureDifficultyMatrix fixtureMatrix;
+        private GameweekCalendar calendar;
+        private LiveGameweek live;
+
+        private Builder(FplSnapshot base) {
+            this.base = base;
+            this.teams = base.teams;
+            this.players = base.players;
+            this.fixtureMatrix = base.fixtureMatrix;
+            this.calendar = base.calendar;
+            this.live = base.live;
+        }
+
+        public Builder teams(Collection<Team> source) {
+            this.teams = TeamRegistry.build(source);
+            return this;
+        }
+
+        public Builder players(Collection<Player> source) {
+            this.players = PlayerSnapshot.build(source);
+            return this;
+        }
+
+        public Builder fixtures(Collection<Fixture> source) {
+            this.fixtureMatrix = FixtureDifficultyMatrix.build(source);
+            this.calendar = GameweekCalendar.build(source);
+            return this;
+        }
+
+        public Builder live(LiveGameweek live) {
+            this.live = live;
+            return this;
+        }
+
+        /**
+         * Whether anything was replaced since the builder was created.
+         */
+        public boolean isChanged() {
+            return teams != base.teams || players != base.players
+                    || fixtureMatrix != base.fixtureMatrix || calendar != base.calendar || live != base.live;
+        }
+
+        /**
+         * The next version after {@code latest}: the parts replaced in this builder on top of {@code latest}.
+         * Parts left alone are taken from {@code latest} rather than from the snapshot the builder started
+         * from, so ingesters that stage different parts concurrently do not undo each other's changes.
+         */
+        public FplSnapshot build(FplSnapshot latest) {
+            return new FplSnapshot(latest.version + 1, Instant.now(),
+                    teams != base.teams ? teams : latest.teams,
+                    players != base.players ? players : latest.players,
+                    fixtureMatrix != base.fixtureMatrix ? fixtureMatrix : latest.fixtureMatrix,
+                    calendar != base.calendar ? calendar : latest.calendar,
+                    live != base.live ? live : latest.live);
+        }
+    }
+}
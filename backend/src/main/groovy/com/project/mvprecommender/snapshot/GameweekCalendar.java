@@ -0,0 +1,171 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Fixture;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeMap;
+
+/**
+ * Immutable gameweek calendar built once per fixtures ingestion.
+ * A gameweek is current until its last unfinished fixture has kicked off and run for
+ * {@link #MATCH_WINDOW}, so the answer advances with the clock even between refreshes.
+ */
+public final class GameweekCalendar {
+
+    public static final int DEFAULT_GAMEWEEK = 1;
+
+    // Kickoff to final whistle plus stoppage time and FPL's post-match processing
+    public static final Duration MATCH_WINDOW = Duration.ofMinutes(150);
+
+    private static final GameweekCalendar EMPTY = new GameweekCalendar(new int[0], new long[0], new int[0], new long[0], new long[0], false);
+
+    // All gameweeks known to the calendar, ascending, with the first kickoff of each
+    private final int[] gameweeks;
+    private final long[] firstKickoffs;
+
+    // Step function: completedAt is ascending, and once k entries have completed (now >= completedAt[k - 1])
+    // suffixMinGameweek[k] is the lowest gameweek that is still open.
+    private final long[] completedAt;
+    private final int[] suffixMinGameweek;
+
+    // Kickoffs of all unfinished fixtures, ascending
+    private final long[] kickoffs;
+
+    // Whether upstream flagged a fixture as started but not finished when the calendar was built
+    private final boolean inPlay;
+
+    private GameweekCalendar(int[] gameweeks, long[] firstKickoffs, int[] suffixMinGameweek, long[] completedAt, long[] kickoffs,
+                             boolean inPlay) {
+        this.gameweeks = gameweeks;
+        this.firstKickoffs = firstKickoffs;
+        this.suffixMinGameweek = suffixMinGameweek;
+        this.completedAt = completedAt;
+        this.kickoffs = kickoffs;
+        this.inPlay = inPlay;
+    }
+
+    public static GameweekCalendar empty() {
+        return EMPTY;
+    }
+
+    public static GameweekCalendar build(Collection<Fixture> fixtures) {
+        // gameweek -> {first kickoff, expected completion of the last unfinished fixture}
+        TreeMap<Integer, long[]> byGameweek = new TreeMap<>();
+        long[] kickoffs = new long[fixtures.size()];
+        int kickoffCount = 0;
+        boolean inPlay = false;
+        for (Fixture f : fixtures) {
+            if (f.getGameWeek() == null) continue;
+            long[] window = byGameweek.computeIfAbsent(f.getGameWeek(), gw -> new long[]{Long.MAX_VALUE, Long.MIN_VALUE});
+            Instant kickoff = f.kickoffInstant();
+            if (kickoff != null) {
+                window[0] = Math.min(window[0], kickoff.toEpochMilli());
+            }
+            if (!Boolean.TRUE.equals(f.getFinished())) {
+                // Without a kickoff time the fixture can only be closed by a later ingestion
+                long done = kickoff != null ? kickoff.plus(MATCH_WINDOW).toEpochMilli() : Long.MAX_VALUE;
+                window[1] = Math.max(window[1], done);
+                if (kickoff != null) kickoffs[kickoffCount++] = kickoff.toEpochMilli();
+                inPlay |= Boolean.TRUE.equals(f.getStarted());
+            }
+        }
+        if (byGameweek.isEmpty()) return EMPTY;
+
+        int n = byGameweek.size();
+        int[] gameweeks = new int[n];
+        long[] firstKickoffs = new long[n];
+        long[][] completion = new long[n][];
+        int i = 0;
+        for (var entry : byGameweek.entrySet()) {
+            gameweeks[i] = entry.getKey();
+            firstKickoffs[i] = entry.getValue()[0];
+            completion[i] = new long[]{entry.getValue()[1], entry.getKey()};
+            i++;
+        }
+
+        Arrays.sort(completion, (a, b) -> Long.compare(a[0], b[0]));
+        long[] completedAt = new long[n];
+        int[] suffixMin = new int[n + 1];
+        suffixMin[n] = DEFAULT_GAMEWEEK;
+        for (int j = n - 1; j >= 0; j--) {
+            completedAt[j] = completion[j][0];
+            int gw = (int) completion[j][1];
+            suffixMin[j] = j == n - 1 ? gw : Math.min(gw, suffixMin[j + 1]);
+        }
+        kickoffs = Arrays.copyOf(kickoffs, kickoffCount);
+        Arrays.sort(kickoffs);
+        return new GameweekCalendar(gameweeks, firstKickoffs, suffixMin, completedAt, kickoffs, inPlay);
+    }
+
+    /**
+     * Lowest gameweek that still has a fixture in progress or to be played at {@code now}.
+     */
+    public int currentGameweek(Instant now) {
+        if (gameweeks.length == 0) return DEFAULT_GAMEWEEK;
+        return suffixMinGameweek[upperBound(completedAt, now.toEpochMilli())];
+    }
+
+    /**
+     * The gameweek after the current one, or current + 1 when the calendar has nothing later.
+     */
+    public int nextGameweek(Instant now) {
+        int current = currentGameweek(now);
+        int idx = Arrays.binarySearch(gameweeks, current + 1);
+        if (idx < 0) idx = -idx - 1;
+        return idx < gameweeks.length ? gameweeks[idx] : current + 1;
+    }
+
+    /**
+     * First kickoff of the given gameweek, or null when none is scheduled.
+     */
+    public Instant firstKickoff(int gameweek) {
+        int idx = Arrays.binarySearch(gameweeks, gameweek);
+        if (idx < 0 || firstKickoffs[idx] == Long.MAX_VALUE) return null;
+        return Instant.ofEpochMilli(firstKickoffs[idx]);
+    }
+
+    /**
+     * Whether an unfinished fixture kicked off less than {@link #MATCH_WINDOW} before {@code now}.
+     */
+    public boolean isLive(Instant now) {
+        long at = now.toEpochMilli();
+        // Latest kickoff at or before now
+        int idx = upperBound(kickoffs, at) - 1;
+        return idx >= 0 && at < kickoffs[idx] + MATCH_WINDOW.toMillis();
+    }
+
+    /**
+     * Whether a fixture was started and not yet finished according to the fixtures it was built from.
+     * Unlike {@link #isLive} this also covers matches running past the expected window.
+     */
+    public boolean hasFixturesInPlay() {
+        return inPlay;
+    }
+
+    /**
+     * First kickoff of an unfinished fixture after {@code now}, or null when none is scheduled.
+     */
+    public Instant nextKickoff(Instant now) {
+        int idx = upperBound(kickoffs, now.toEpochMilli());
+        return idx < kickoffs.length ? Instant.ofEpochMilli(kickoffs[idx]) : null;
+    }
+
+    public boolean isEmpty() {
+        return gameweeks.length == 0;
+    }
+
+    // Number of entries <= key
+    private static int upperBound(long[] values, long key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,128 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.PlayerGameweekLive;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Immutable columnar view of the live stats of the gameweek being played, rows ordered by player id.
+ * Each poll derives a new instance with {@link #apply}, copying the columns and overwriting only the
+ * players whose stats changed.
+ */
+public final class LiveGameweek {
+
+    private static final LiveGameweek EMPTY = new LiveGameweek(0, new long[0], new int[0], new int[0], new int[0], new int[0]);
+
+    private final int gameweek;
+    private final long[] ids;
+    private final int[] points;
+    private final int[] minutes;
+    private final int[] bonus;
+    private final int[] bps;
+
+    private LiveGameweek(int gameweek, long[] ids, int[] points, int[] minutes, int[] bonus, int[] bps) {
+        this.gameweek = gameweek;
+        this.ids = ids;
+        this.points = points;
+        this.minutes = minutes;
+        this.bonus = bonus;
+        this.bps = bps;
+    }
+
+    public static LiveGameweek empty() {
+        return EMPTY;
+    }
+
+    public static LiveGameweek build(int gameweek, Collection<PlayerGameweekLive> rows) {
+        List<PlayerGameweekLive> sorted = rows.stream()
+                .sorted(Comparator.comparingLong(PlayerGameweekLive::getPlayerId))
+                .toList();
+        int size = sorted.size();
+        LiveGameweek live = new LiveGameweek(gameweek, new long[size], new int[size], new int[size], new int[size], new int[size]);
+        for (int row = 0; row < size; row++) {
+            live.ids[row] = sorted.get(row).getPlayerId();
+            live.set(row, sorted.get(row));
+        }
+        return live;
+    }
+
+    /**
+     * This gameweek with {@code changed} rows overwritten, or a fresh one when {@code gameweek} moved on.
+     */
+    public LiveGameweek apply(int gameweek, Collection<PlayerGameweekLive> changed) {
+        if (gameweek != this.gameweek) return build(gameweek, changed);
+        if (changed.isEmpty()) return this;
+        if (changed.stream().anyMatch(row -> rowOf(row.getPlayerId()) < 0)) {
+            // New players are rare (late squad additions); merge and rebuild
+            TreeMap<Long, PlayerGameweekLive> merged = new TreeMap<>();
+            for (int row = 0; row < ids.length; row++) merged.put(ids[row], toRow(row));
+            changed.forEach(row -> merged.put(row.getPlayerId(), row));
+            return build(gameweek, merged.values());
+        }
+        LiveGameweek next = new LiveGameweek(gameweek, ids, points.clone(), minutes.clone(), bonus.clone(), bps.clone());
+        changed.forEach(row -> next.set(rowOf(row.getPlayerId()), row));
+        return next;
+    }
+
+    public int gameweek() {
+        return gameweek;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Row of the given player id, or -1 when the player has no live stats.
+     */
+    public int rowOf(long playerId) {
+        int row = Arrays.binarySearch(ids, playerId);
+        return row >= 0 ? row : -1;
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public int points(int row) {
+        return points[row];
+    }
+
+    public int minutes(int row) {
+        return minutes[row];
+    }
+
+    public int bonus(int row) {
+        return bonus[row];
+    }
+
+    public int bps(int row) {
+        return bps[row];
+    }
+
+    private void set(int row, PlayerGameweekLive source) {
+        points[row] = intOrZero(source.getTotalPoints());
+        minutes[row] = intOrZero(source.getMinutes());
+        bonus[row] = intOrZero(source.getBonus());
+        bps[row] = intOrZero(source.getBps());
+    }
+
+    private PlayerGameweekLive toRow(int row) {
+        return PlayerGameweekLive.builder()
+                .playerId(ids[row])
+                .gameWeek(gameweek)
+                .totalPoints(points[row])
+                .minutes(minutes[row])
+                .bonus(bonus[row])
+                .bps(bps[row])
+                .build();
+    }
+
+    private static int intOrZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
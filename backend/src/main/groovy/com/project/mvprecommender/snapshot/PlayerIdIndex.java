@@ -0,0 +1,135 @@
+package com.project.mvprecommender.snapshot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Membership and status bits over player ids: one bit per id in dense {@code long[]} words, so a lookup is
+ * a shift and a mask. FPL ids are small and contiguous, which keeps the whole index to a few hundred bytes.
+ * Ids from {@link #MAX_DENSE_ID} up, which FPL never sends, go to a hash map instead, so one odd id can
+ * neither blow up the bitsets nor fail ingestion. Built with every {@link PlayerSnapshot} and swapped with it
+ * on each ingestion.
+ */
+public final class PlayerIdIndex {
+
+    public enum Status {
+        AVAILABLE,
+        DOUBTFUL,
+        // Injured or unavailable, matching Player#isInjured()
+        INJURED
+    }
+
+    // Caps each bitset at 128 KiB
+    static final long MAX_DENSE_ID = 1 << 20;
+
+    private static final Status[] STATUSES = Status.values();
+
+    private final long[] present;
+    // [status ordinal] -> ids with that status
+    private final long[][] byStatus;
+    // id -> status (null when untracked), for ids too large for the bitsets
+    private final Map<Long, Status> sparse;
+    private final int size;
+
+    private PlayerIdIndex(long[] present, long[][] byStatus, Map<Long, Status> sparse, int size) {
+        this.present = present;
+        this.byStatus = byStatus;
+        this.sparse = sparse;
+        this.size = size;
+    }
+
+    /**
+     * Indexes {@code ids} with their FPL status codes; {@code status[i]} belongs to {@code ids[i]}.
+     * Negative ids are not indexed.
+     */
+    static PlayerIdIndex build(long[] ids, char[] status) {
+        long maxId = -1;
+        for (long id : ids) {
+            if (id < MAX_DENSE_ID) maxId = Math.max(maxId, id);
+        }
+        int words = (int) ((maxId + 64) >>> 6);
+        long[] present = new long[words];
+        long[][] byStatus = new long[STATUSES.length][words];
+        Map<Long, Status> sparse = new HashMap<>();
+        int size = 0;
+        for (int i = 0; i < ids.length; i++) {
+            long id = ids[i];
+            if (id < 0) continue;
+            if (id >= MAX_DENSE_ID) {
+                if (!sparse.containsKey(id)) size++;
+                sparse.put(id, statusOf(status[i]));
+                continue;
+            }
+            int word = (int) (id >>> 6);
+            long bit = 1L << id;
+            if ((present[word] & bit) == 0) size++;
+            present[word] |= bit;
+            Status s = statusOf(status[i]);
+            if (s != null) byStatus[s.ordinal()][word] |= bit;
+        }
+        return new PlayerIdIndex(present, byStatus, sparse, size);
+    }
+
+    /**
+     * Status of an FPL status code, or null for codes outside the three tracked (e.g. suspended).
+     */
+    public static Status statusOf(char code) {
+        return switch (code) {
+            case 'a' -> Status.AVAILABLE;
+            case 'd' -> Status.DOUBTFUL;
+            case 'i', 'u' -> Status.INJURED;
+            default -> null;
+        };
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long id) {
+        return id >= MAX_DENSE_ID ? sparse.containsKey(id) : test(present, id);
+    }
+
+    public boolean has(long id, Status status) {
+        return id >= MAX_DENSE_ID ? sparse.get(id) == status : test(byStatus[status.ordinal()], id);
+    }
+
+    public int count(Status status) {
+        int count = 0;
+        for (long word : byStatus[status.ordinal()]) count += Long.bitCount(word);
+        for (Status s : sparse.values()) {
+            if (s == status) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Calls {@code action} with every id that has any of {@code statuses}, ascending.
+     */
+    public void forEach(LongConsumer action, Status... statuses) {
+        for (int word = 0; word < present.length; word++) {
+            long bits = 0;
+            for (Status status : statuses) bits |= byStatus[status.ordinal()][word];
+            while (bits != 0) {
+                action.accept(((long) word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        if (sparse.isEmpty()) return;
+        List<Status> wanted = Arrays.asList(statuses);
+        sparse.entrySet().stream()
+                .filter(entry -> wanted.contains(entry.getValue()))
+                .mapToLong(Map.Entry::getKey)
+                .sorted()
+                .forEach(action);
+    }
+
+    private static boolean test(long[] bits, long id) {
+        if (id < 0) return false;
+        long word = id >>> 6;
+        return word < bits.length && (bits[(int) word] & (1L << id)) != 0;
+    }
+}
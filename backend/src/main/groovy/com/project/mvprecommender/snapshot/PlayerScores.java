@@ -0,0 +1,219 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Player;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Scores for every row of a {@link PlayerSnapshot}, computed exactly once per
+ * (snapshot, fixtures, gameweek, stats history) and shared by all requests.
+ * Per-position rankings of available players are precomputed, so top-N is an array slice;
+ * ad-hoc filtered queries go through {@link #topK(int[], IntPredicate, int)}.
+ */
+public final class PlayerScores {
+
+    public static final int FIXTURE_HORIZON = 5;
+    // Captured gameweeks the form trend is fitted over
+    public static final int TREND_WINDOW = 6;
+    public static final double FORM_TREND_WEIGHT = 1.0;
+
+    private final PlayerSnapshot snapshot;
+    private final FixtureDifficultyMatrix fixtureMatrix;
+    private final int gameweek;
+    private final long historyVersion;
+
+    private final double[] valueForMoney;
+    private final double[] fixtureScore;
+    private final double[] formTrend;
+    private final double[] score;
+    private final ScoredPlayer[] scored;
+
+    // [position] -> available rows (not injured/unavailable) by score descending
+    private final int[][] rankedByPosition;
+
+    private PlayerScores(PlayerSnapshot snapshot, FixtureDifficultyMatrix fixtureMatrix, int gameweek,
+                         StatWindow history, long historyVersion) {
+        this.snapshot = snapshot;
+        this.fixtureMatrix = fixtureMatrix;
+        this.gameweek = gameweek;
+        this.historyVersion = historyVersion;
+
+        int size = snapshot.size();
+        this.valueForMoney = new double[size];
+        this.fixtureScore = new double[size];
+        this.formTrend = new double[size];
+        this.score = new double[size];
+        this.scored = new ScoredPlayer[size];
+
+        double[] fixtureScoreByTeam = new double[snapshot.getMaxTeamId() + 1];
+        for (int team = 0; team < fixtureScoreByTeam.length; team++) {
+            fixtureScoreByTeam[team] = 5.0 - fixtureMatrix.averageDifficulty(team, gameweek, gameweek + FIXTURE_HORIZON);
+        }
+        // Players without enough history have a flat trend
+        for (int i = 0; i < history.size(); i++) {
+            int row = snapshot.rowOf(history.id(i));
+            double slope = history.slope(StatSegment.Metric.FORM, i);
+            if (row >= 0 && !Double.isNaN(slope)) formTrend[row] = slope;
+        }
+        for (int row = 0; row < size; row++) {
+            valueForMoney[row] = valueForMoney(snapshot.totalPoints(row), snapshot.nowCost(row));
+            fixtureScore[row] = fixtureScoreByTeam[snapshot.team(row)];
+            score[row] = overallScore(snapshot.form(row), snapshot.totalPoints(row), valueForMoney[row], fixtureScore[row])
+                    + formTrend[row] * FORM_TREND_WEIGHT;
+            Player player = snapshot.player(row);
+            scored[row] = new ScoredPlayer(snapshot.id(row), player.getWebName(), snapshot.team(row), snapshot.position(row),
+                    snapshot.nowCost(row), snapshot.totalPoints(row), snapshot.form(row), player.getStatus(),
+                    player.getChanceOfPlayingNextRound(), valueForMoney[row], fixtureScore[row], score[row]);
+        }
+
+        this.rankedByPosition = new int[PlayerSnapshot.POSITION_COUNT + 1][];
+        for (int position = 0; position <= PlayerSnapshot.POSITION_COUNT; position++) {
+            int[] rows = snapshot.rowsForPosition(position);
+            rankedByPosition[position] = topK(rows, row -> !snapshot.isUnavailable(row), rows.length);
+        }
+    }
+
+    public static PlayerScores build(PlayerSnapshot snapshot, FixtureDifficultyMatrix fixtureMatrix, int gameweek) {
+        return build(snapshot, fixtureMatrix, gameweek, StatWindow.of(List.of(), null), 0);
+    }
+
+    /**
+     * Scores including the form trend over {@code history}, the last {@link #TREND_WINDOW} captured gameweeks;
+     * {@code historyVersion} identifies the captures it was read from.
+     */
+    public static PlayerScores build(PlayerSnapshot snapshot, FixtureDifficultyMatrix fixtureMatrix, int gameweek,
+                                     StatWindow history, long historyVersion) {
+        return new PlayerScores(snapshot, fixtureMatrix, gameweek, history, historyVersion);
+    }
+
+    /**
+     * Points per million.
+     */
+    public static double valueForMoney(int totalPoints, int nowCost) {
+        return nowCost == 0 ? 0.0 : totalPoints / (nowCost / 10.0);
+    }
+
+    public static double overallScore(double form, int totalPoints, double valueForMoney, double fixtureScore) {
+        double formScore = form * 2.0;
+        double pointsScore = totalPoints / 10.0;
+        double valueScore = valueForMoney * 1.5;
+        double fixtureScoreWeighted = fixtureScore * 1.5;
+        return formScore + pointsScore + valueScore + fixtureScoreWeighted;
+    }
+
+    /**
+     * True when these scores were computed from exactly this data, gameweek and stats history.
+     */
+    public boolean isFor(PlayerSnapshot snapshot, FixtureDifficultyMatrix fixtureMatrix, int gameweek, long historyVersion) {
+        return this.snapshot == snapshot && this.fixtureMatrix == fixtureMatrix && this.gameweek == gameweek
+                && this.historyVersion == historyVersion;
+    }
+
+    public PlayerSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getGameweek() {
+        return gameweek;
+    }
+
+    public double score(int row) {
+        return score[row];
+    }
+
+    public double valueForMoney(int row) {
+        return valueForMoney[row];
+    }
+
+    public double fixtureScore(int row) {
+        return fixtureScore[row];
+    }
+
+    /**
+     * Change in form per gameweek over the captured history, 0 without at least two captures.
+     */
+    public double formTrend(int row) {
+        return formTrend[row];
+    }
+
+    /**
+     * Shared immutable view of a row, safe to hand to any number of request threads.
+     */
+    public ScoredPlayer scored(int row) {
+        return scored[row];
+    }
+
+    /**
+     * Best {@code limit} available players of a position, served from the precomputed ranking.
+     */
+    public int[] topForPosition(int position, int limit) {
+        if (position < 1 || position > PlayerSnapshot.POSITION_COUNT) return new int[0];
+        int[] ranked = rankedByPosition[position];
+        int n = Math.min(Math.max(limit, 0), ranked.length);
+        int[] top = new int[n];
+        System.arraycopy(ranked, 0, top, 0, n);
+        return top;
+    }
+
+    /**
+     * Bounded-heap top-K over {@code rows} matching {@code filter}: O(n log k), one score read per row.
+     * Result is ordered by score descending, ties by row (i.e. player id) ascending.
+     */
+    public int[] topK(int[] rows, IntPredicate filter, int k) {
+        if (k <= 0) return new int[0];
+        // Min-heap on (score, -row): the root is the weakest of the current best k
+        int[] heap = new int[Math.min(k, rows.length)];
+        int size = 0;
+        for (int row : rows) {
+            if (!filter.test(row)) continue;
+            if (size < heap.length) {
+                heap[size] = row;
+                siftUp(heap, size++);
+            } else if (ranksAbove(row, heap[0])) {
+                heap[0] = row;
+                siftDown(heap, 0, size);
+            }
+        }
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, 0, i);
+        }
+        return result;
+    }
+
+    private boolean ranksAbove(int a, int b) {
+        int cmp = Double.compare(score[a], score[b]);
+        return cmp > 0 || (cmp == 0 && a < b);
+    }
+
+    private void siftUp(int[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranksAbove(heap[parent], heap[i])) break;
+            swap(heap, parent, i);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int i, int size) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) return;
+            int weakest = left;
+            int right = left + 1;
+            if (right < size && ranksAbove(heap[left], heap[right])) weakest = right;
+            if (!ranksAbove(heap[i], heap[weakest])) return;
+            swap(heap, i, weakest);
+            i = weakest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+}
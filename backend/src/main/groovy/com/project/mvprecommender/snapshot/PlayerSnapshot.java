@@ -0,0 +1,218 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable columnar view of all players, built once per ingestion.
+ * Numeric stats are copied into primitive columns (missing values read as 0);
+ * rows are ordered by player id so {@link #rowOf(long)} is a binary search.
+ */
+public final class PlayerSnapshot {
+
+    public static final int POSITION_COUNT = 4; // 1=GK, 2=DEF, 3=MID, 4=FWD
+
+    private static final PlayerSnapshot EMPTY = build(List.of());
+
+    private final int size;
+    private final int maxTeamId;
+
+    private final long[] ids;
+    private final int[] positions;
+    private final int[] teams;
+    private final int[] nowCost;
+    private final int[] totalPoints;
+    private final int[] minutes;
+    private final double[] form;
+    private final double[] pointsPerGame;
+    private final double[] selectedByPercent;
+    private final double[] expectedGoals;
+    private final double[] expectedAssists;
+    private final double[] ictIndex;
+    private final char[] status;
+
+    // [position] -> rows of that position, ascending
+    private final int[][] rowsByPosition;
+
+    private final PlayerIdIndex idIndex;
+
+    // Detached source rows, kept only for rendering
+    private final Player[] players;
+
+    private PlayerSnapshot(List<Player> source) {
+        this.size = source.size();
+        this.ids = new long[size];
+        this.positions = new int[size];
+        this.teams = new int[size];
+        this.nowCost = new int[size];
+        this.totalPoints = new int[size];
+        this.minutes = new int[size];
+        this.form = new double[size];
+        this.pointsPerGame = new double[size];
+        this.selectedByPercent = new double[size];
+        this.expectedGoals = new double[size];
+        this.expectedAssists = new double[size];
+        this.ictIndex = new double[size];
+        this.status = new char[size];
+        this.players = source.toArray(new Player[0]);
+
+        int[] positionCounts = new int[POSITION_COUNT + 1];
+        int maxTeam = 0;
+        for (int row = 0; row < size; row++) {
+            Player p = players[row];
+            ids[row] = p.getId();
+            positions[row] = intOrZero(p.getPosition());
+            teams[row] = intOrZero(p.getTeam());
+            nowCost[row] = intOrZero(p.getNowCost());
+            totalPoints[row] = intOrZero(p.getTotalPoints());
+            minutes[row] = intOrZero(p.getMinutes());
+            form[row] = doubleOrZero(p.getForm());
+            pointsPerGame[row] = doubleOrZero(p.getPointsPerGame());
+            selectedByPercent[row] = doubleOrZero(p.getSelectedByPercent());
+            expectedGoals[row] = doubleOrZero(p.getExpectedGoals());
+            expectedAssists[row] = doubleOrZero(p.getExpectedAssists());
+            ictIndex[row] = doubleOrZero(p.getIctIndex());
+            status[row] = p.getStatus() != null && !p.getStatus().isEmpty() ? p.getStatus().charAt(0) : 'a';
+            maxTeam = Math.max(maxTeam, teams[row]);
+            if (positions[row] >= 1 && positions[row] <= POSITION_COUNT) positionCounts[positions[row]]++;
+        }
+        this.maxTeamId = maxTeam;
+
+        this.rowsByPosition = new int[POSITION_COUNT + 1][];
+        for (int position = 0; position <= POSITION_COUNT; position++) {
+            rowsByPosition[position] = new int[positionCounts[position]];
+        }
+        int[] cursor = new int[POSITION_COUNT + 1];
+        for (int row = 0; row < size; row++) {
+            int position = positions[row];
+            if (position >= 1 && position <= POSITION_COUNT) rowsByPosition[position][cursor[position]++] = row;
+        }
+        this.idIndex = PlayerIdIndex.build(ids, status);
+    }
+
+    public static PlayerSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static PlayerSnapshot build(Collection<Player> source) {
+        List<Player> sorted = new ArrayList<>(source.size());
+        for (Player p : source) {
+            if (p.getId() != null) sorted.add(p);
+        }
+        sorted.sort(Comparator.comparingLong(Player::getId));
+        return new PlayerSnapshot(sorted);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMaxTeamId() {
+        return maxTeamId;
+    }
+
+    /**
+     * Row of the given player id, or -1 when the player is not in the snapshot.
+     */
+    public int rowOf(long playerId) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ids[mid] < playerId) lo = mid + 1;
+            else if (ids[mid] > playerId) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Membership and status bits of the players in this snapshot.
+     */
+    public PlayerIdIndex idIndex() {
+        return idIndex;
+    }
+
+    /**
+     * Rows of one position. The array is shared between readers and must not be modified.
+     */
+    public int[] rowsForPosition(int position) {
+        if (position < 1 || position > POSITION_COUNT) return new int[0];
+        return rowsByPosition[position];
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public int position(int row) {
+        return positions[row];
+    }
+
+    public int team(int row) {
+        return teams[row];
+    }
+
+    public int nowCost(int row) {
+        return nowCost[row];
+    }
+
+    public int totalPoints(int row) {
+        return totalPoints[row];
+    }
+
+    public int minutes(int row) {
+        return minutes[row];
+    }
+
+    public double form(int row) {
+        return form[row];
+    }
+
+    public double pointsPerGame(int row) {
+        return pointsPerGame[row];
+    }
+
+    public double selectedByPercent(int row) {
+        return selectedByPercent[row];
+    }
+
+    public double expectedGoals(int row) {
+        return expectedGoals[row];
+    }
+
+    public double expectedAssists(int row) {
+        return expectedAssists[row];
+    }
+
+    public double ictIndex(int row) {
+        return ictIndex[row];
+    }
+
+    public char status(int row) {
+        return status[row];
+    }
+
+    /**
+     * Injured or unavailable, matching {@link Player#isInjured()}.
+     */
+    public boolean isUnavailable(int row) {
+        return status[row] == 'i' || status[row] == 'u';
+    }
+
+    public Player player(int row) {
+        return players[row];
+    }
+
+    private static int intOrZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static double doubleOrZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
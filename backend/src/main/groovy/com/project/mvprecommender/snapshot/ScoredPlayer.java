@@ -0,0 +1,32 @@
+package com.project.mvprecommender.snapshot;
+
+/**
+ * Immutable per-snapshot view of one player and its scores. Built once by {@link PlayerScores}
+ * and shared by every request, so rendering and AI prompts never touch the JPA entity.
+ */
+public record ScoredPlayer(
+        long id,
+        String webName,
+        int team,
+        int position,
+        int nowCost,
+        int totalPoints,
+        double form,
+        String status,
+        Integer chanceOfPlayingNextRound,
+        double valueForMoney,
+        double fixtureScore,
+        double score) {
+
+    public double priceInMillions() {
+        return nowCost / 10.0;
+    }
+
+    public boolean isInjured() {
+        return "i".equals(status) || "u".equals(status);
+    }
+
+    public boolean isDoubtful() {
+        return "d".equals(status);
+    }
+}
@@ -0,0 +1,161 @@
+package com.project.mvprecommender.snapshot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Per-player stat vectors captured at one ingestion, laid out column by column: player ids in ascending
+ * order, then one float column per {@link Metric}. Immutable; a segment is written once to its own file and
+ * never modified, so the store built from segments is append-only.
+ */
+public final class StatSegment {
+
+    public enum Metric {
+        NOW_COST,
+        TOTAL_POINTS,
+        MINUTES,
+        FORM,
+        POINTS_PER_GAME,
+        SELECTED_BY_PERCENT,
+        EXPECTED_GOALS,
+        EXPECTED_ASSISTS,
+        ICT_INDEX
+    }
+
+    public static final int METRIC_COUNT = Metric.values().length;
+
+    private static final int MAGIC = 0x46504c53; // "FPLS"
+    private static final int FORMAT_VERSION = 1;
+
+    private final int gameweek;
+    private final long capturedAt;
+    private final long[] ids;
+    private final byte[] positions;
+    private final byte[] teams;
+    // [metric][row]
+    private final float[][] columns;
+
+    private StatSegment(int gameweek, long capturedAt, long[] ids, byte[] positions, byte[] teams, float[][] columns) {
+        this.gameweek = gameweek;
+        this.capturedAt = capturedAt;
+        this.ids = ids;
+        this.positions = positions;
+        this.teams = teams;
+        this.columns = columns;
+    }
+
+    /**
+     * Copies the stats of every player in {@code players} as they stand for {@code gameweek}.
+     */
+    public static StatSegment capture(int gameweek, Instant capturedAt, PlayerSnapshot players) {
+        int size = players.size();
+        long[] ids = new long[size];
+        byte[] positions = new byte[size];
+        byte[] teams = new byte[size];
+        float[][] columns = new float[METRIC_COUNT][size];
+        // Snapshot rows are already ordered by player id
+        for (int row = 0; row < size; row++) {
+            ids[row] = players.id(row);
+            positions[row] = (byte) players.position(row);
+            teams[row] = (byte) players.team(row);
+            columns[Metric.NOW_COST.ordinal()][row] = players.nowCost(row);
+            columns[Metric.TOTAL_POINTS.ordinal()][row] = players.totalPoints(row);
+            columns[Metric.MINUTES.ordinal()][row] = players.minutes(row);
+            columns[Metric.FORM.ordinal()][row] = (float) players.form(row);
+            columns[Metric.POINTS_PER_GAME.ordinal()][row] = (float) players.pointsPerGame(row);
+            columns[Metric.SELECTED_BY_PERCENT.ordinal()][row] = (float) players.selectedByPercent(row);
+            columns[Metric.EXPECTED_GOALS.ordinal()][row] = (float) players.expectedGoals(row);
+            columns[Metric.EXPECTED_ASSISTS.ordinal()][row] = (float) players.expectedAssists(row);
+            columns[Metric.ICT_INDEX.ordinal()][row] = (float) players.ictIndex(row);
+        }
+        return new StatSegment(gameweek, capturedAt.toEpochMilli(), ids, positions, teams, columns);
+    }
+
+    public int gameweek() {
+        return gameweek;
+    }
+
+    public Instant capturedAt() {
+        return Instant.ofEpochMilli(capturedAt);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Row of the given player id, or -1 when the player was not captured.
+     */
+    public int rowOf(long playerId) {
+        int row = Arrays.binarySearch(ids, playerId);
+        return row >= 0 ? row : -1;
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public int position(int row) {
+        return positions[row];
+    }
+
+    public int team(int row) {
+        return teams[row];
+    }
+
+    public float value(Metric metric, int row) {
+        return columns[metric.ordinal()][row];
+    }
+
+    /**
+     * Whether {@code other} holds exactly the same players and values, regardless of when it was captured.
+     */
+    public boolean sameValuesAs(StatSegment other) {
+        return Arrays.equals(ids, other.ids) && Arrays.equals(positions, other.positions)
+                && Arrays.equals(teams, other.teams) && Arrays.deepEquals(columns, other.columns);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(gameweek);
+        out.writeLong(capturedAt);
+        out.writeInt(ids.length);
+        out.writeInt(METRIC_COUNT);
+        for (long id : ids) out.writeLong(id);
+        out.write(positions);
+        out.write(teams);
+        for (float[] column : columns) {
+            for (float value : column) out.writeFloat(value);
+        }
+    }
+
+    /**
+     * Reads a segment written by {@link #writeTo}. Metrics added after the segment was written read as NaN.
+     */
+    public static StatSegment readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a stat segment");
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) throw new IOException("Unsupported stat segment version " + version);
+        int gameweek = in.readInt();
+        long capturedAt = in.readLong();
+        int size = in.readInt();
+        int metrics = in.readInt();
+        long[] ids = new long[size];
+        for (int row = 0; row < size; row++) ids[row] = in.readLong();
+        byte[] positions = new byte[size];
+        in.readFully(positions);
+        byte[] teams = new byte[size];
+        in.readFully(teams);
+        float[][] columns = new float[METRIC_COUNT][size];
+        for (int metric = 0; metric < metrics; metric++) {
+            float[] column = metric < METRIC_COUNT ? columns[metric] : new float[size];
+            for (int row = 0; row < size; row++) column[row] = in.readFloat();
+        }
+        for (int metric = metrics; metric < METRIC_COUNT; metric++) Arrays.fill(columns[metric], Float.NaN);
+        return new StatSegment(gameweek, capturedAt, ids, positions, teams, columns);
+    }
+}
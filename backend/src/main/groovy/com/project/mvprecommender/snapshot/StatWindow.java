@@ -0,0 +1,141 @@
+package com.project.mvprecommender.snapshot;
+
+import java.util.List;
+
+/**
+ * Stat vectors of a fixed set of players over a range of captured gameweeks, as returned by a range scan.
+ * Each metric is one flat column laid out {@code [row * gameweekCount + gameweekIndex]}, so the series of a
+ * player is contiguous. A player missing from a gameweek's capture reads as NaN there.
+ */
+public final class StatWindow {
+
+    private final int[] gameweeks;
+    private final long[] ids;
+    private final int[] positions;
+    private final int[] teams;
+    // [metric][row * gameweeks.length + gameweekIndex]
+    private final float[][] values;
+
+    private StatWindow(int[] gameweeks, long[] ids, int[] positions, int[] teams, float[][] values) {
+        this.gameweeks = gameweeks;
+        this.ids = ids;
+        this.positions = positions;
+        this.teams = teams;
+        this.values = values;
+    }
+
+    /**
+     * Gathers {@code segments} (ascending by gameweek) for the players of {@code position}, or of every
+     * position when it is null. The player set is taken from the newest segment.
+     */
+    public static StatWindow of(List<StatSegment> segments, Integer position) {
+        int width = segments.size();
+        if (width == 0) return new StatWindow(new int[0], new long[0], new int[0], new int[0], new float[StatSegment.METRIC_COUNT][0]);
+        StatSegment newest = segments.get(width - 1);
+        int[] rows = new int[newest.size()];
+        int size = 0;
+        for (int row = 0; row < newest.size(); row++) {
+            if (position == null || newest.position(row) == position) rows[size++] = row;
+        }
+        long[] ids = new long[size];
+        int[] positions = new int[size];
+        int[] teams = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = newest.id(rows[i]);
+            positions[i] = newest.position(rows[i]);
+            teams[i] = newest.team(rows[i]);
+        }
+
+        int[] gameweeks = new int[width];
+        float[][] values = new float[StatSegment.METRIC_COUNT][size * width];
+        StatSegment.Metric[] metrics = StatSegment.Metric.values();
+        for (int g = 0; g < width; g++) {
+            StatSegment segment = segments.get(g);
+            gameweeks[g] = segment.gameweek();
+            for (int i = 0; i < size; i++) {
+                int row = segment == newest ? rows[i] : segment.rowOf(ids[i]);
+                for (StatSegment.Metric metric : metrics) {
+                    values[metric.ordinal()][i * width + g] = row >= 0 ? segment.value(metric, row) : Float.NaN;
+                }
+            }
+        }
+        return new StatWindow(gameweeks, ids, positions, teams, values);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int[] gameweeks() {
+        return gameweeks.clone();
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public int position(int row) {
+        return positions[row];
+    }
+
+    public int team(int row) {
+        return teams[row];
+    }
+
+    public double value(StatSegment.Metric metric, int row, int gameweekIndex) {
+        return values[metric.ordinal()][row * gameweeks.length + gameweekIndex];
+    }
+
+    public double[] series(StatSegment.Metric metric, int row) {
+        int from = row * gameweeks.length;
+        double[] series = new double[gameweeks.length];
+        for (int g = 0; g < series.length; g++) series[g] = values[metric.ordinal()][from + g];
+        return series;
+    }
+
+    /**
+     * Increase between consecutive gameweeks, e.g. points or minutes in a gameweek from season totals.
+     * NaN for the first gameweek or when either side is missing.
+     */
+    public double delta(StatSegment.Metric metric, int row, int gameweekIndex) {
+        if (gameweekIndex == 0) return Double.NaN;
+        return value(metric, row, gameweekIndex) - value(metric, row, gameweekIndex - 1);
+    }
+
+    /**
+     * Last minus first captured value in the window, e.g. price movement; NaN with fewer than two values.
+     */
+    public double change(StatSegment.Metric metric, int row) {
+        int present = 0;
+        double first = Double.NaN;
+        double last = Double.NaN;
+        for (int g = 0; g < gameweeks.length; g++) {
+            double value = value(metric, row, g);
+            if (Double.isNaN(value)) continue;
+            if (present++ == 0) first = value;
+            last = value;
+        }
+        return present < 2 ? Double.NaN : last - first;
+    }
+
+    /**
+     * Least-squares slope per gameweek over the captured values, e.g. a form trend; NaN with fewer than two values.
+     */
+    public double slope(StatSegment.Metric metric, int row) {
+        int n = 0;
+        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+        for (int g = 0; g < gameweeks.length; g++) {
+            double y = value(metric, row, g);
+            if (Double.isNaN(y)) continue;
+            double x = gameweeks[g];
+            n++;
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+        double denominator = n * sumXX - sumX * sumX;
+        if (n < 2 || denominator == 0) return Double.NaN;
+        return (n * sumXY - sumX * sumY) / denominator;
+    }
+}
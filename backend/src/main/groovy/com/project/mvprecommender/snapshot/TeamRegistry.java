@@ -0,0 +1,97 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.Team;
+
+import java.util.Collection;
+
+/**
+ * Immutable array-backed team lookup keyed by FPL team id (1..20).
+ * Short names and every "OPP (H) [Diff: n]" fixture label are built once per ingestion,
+ * so rendering recommendations needs neither DB calls nor string formatting.
+ */
+public final class TeamRegistry {
+
+    public static final String UNKNOWN_SHORT_NAME = "UNK";
+
+    private static final int MAX_DIFFICULTY = 5;
+    private static final TeamRegistry EMPTY = new TeamRegistry(new Team[1], new String[1], new String[1][2][MAX_DIFFICULTY + 1]);
+
+    private final Team[] teams;
+    private final String[] shortNames;
+
+    // [opponentId][1 = player's team at home, 0 = away][difficulty]
+    private final String[][][] fixtureLabels;
+
+    private TeamRegistry(Team[] teams, String[] shortNames, String[][][] fixtureLabels) {
+        this.teams = teams;
+        this.shortNames = shortNames;
+        this.fixtureLabels = fixtureLabels;
+    }
+
+    public static TeamRegistry empty() {
+        return EMPTY;
+    }
+
+    public static TeamRegistry build(Collection<Team> source) {
+        int maxId = 0;
+        for (Team team : source) {
+            if (team.getId() != null) maxId = Math.max(maxId, team.getId());
+        }
+        if (maxId == 0) return EMPTY;
+
+        Team[] teams = new Team[maxId + 1];
+        String[] shortNames = new String[maxId + 1];
+        String[][][] labels = new String[maxId + 1][2][MAX_DIFFICULTY + 1];
+        for (Team team : source) {
+            if (team.getId() == null || team.getId() <= 0) continue;
+            int id = team.getId();
+            teams[id] = team;
+            shortNames[id] = team.getShortName() != null ? team.getShortName() : UNKNOWN_SHORT_NAME;
+            for (int difficulty = 0; difficulty <= MAX_DIFFICULTY; difficulty++) {
+                labels[id][1][difficulty] = formatLabel(shortNames[id], true, difficulty);
+                labels[id][0][difficulty] = formatLabel(shortNames[id], false, difficulty);
+            }
+        }
+        return new TeamRegistry(teams, shortNames, labels);
+    }
+
+    public Team get(Integer teamId) {
+        return contains(teamId) ? teams[teamId] : null;
+    }
+
+    public String shortName(Integer teamId) {
+        return contains(teamId) ? shortNames[teamId] : UNKNOWN_SHORT_NAME;
+    }
+
+    /**
+     * Fixture label from the perspective of {@code teamId}, e.g. "ARS (H) [Diff: 4]".
+     */
+    public String fixtureLabel(Fixture fixture, Integer teamId) {
+        boolean isHome = fixture.getTeamHome() != null && fixture.getTeamHome().equals(teamId);
+        Integer opponent = isHome ? fixture.getTeamAway() : fixture.getTeamHome();
+        Integer diff = isHome ? fixture.getTeamHomeDifficulty() : fixture.getTeamAwayDifficulty();
+        int difficulty = diff != null ? diff : FixtureDifficultyMatrix.DEFAULT_DIFFICULTY;
+
+        if (contains(opponent) && difficulty >= 0 && difficulty <= MAX_DIFFICULTY) {
+            return fixtureLabels[opponent][isHome ? 1 : 0][difficulty];
+        }
+        return formatLabel(shortName(opponent), isHome, difficulty);
+    }
+
+    public int size() {
+        int count = 0;
+        for (Team team : teams) {
+            if (team != null) count++;
+        }
+        return count;
+    }
+
+    private boolean contains(Integer teamId) {
+        return teamId != null && teamId > 0 && teamId < teams.length && teams[teamId] != null;
+    }
+
+    private static String formatLabel(String opponent, boolean isHome, int difficulty) {
+        return String.format("%s %s [Diff: %d]", opponent, isHome ? "(H)" : "(A)", difficulty);
+    }
+}
@@ -0,0 +1,24 @@
+-- FPL sends decimal stats as strings; store them as numbers. Values that do not parse become NULL.
+-- Guarded so it is a no-op on a fresh database, where Hibernate creates the columns as double precision.
+DO $$
+DECLARE
+    col TEXT;
+BEGIN
+    FOREACH col IN ARRAY ARRAY['form', 'points_per_game', 'selected_by_percent', 'influence', 'creativity', 'threat',
+                               'ict_index', 'expected_goals', 'expected_assists', 'expected_goal_involvements',
+                               'expected_goals_conceded']
+    LOOP
+        IF EXISTS (SELECT 1
+                   FROM information_schema.columns
+                   WHERE table_schema = current_schema()
+                     AND table_name = 'players'
+                     AND column_name = col
+                     AND data_type IN ('character varying', 'text')) THEN
+            EXECUTE format(
+                'ALTER TABLE players ALTER COLUMN %1$I TYPE double precision USING '
+                    'CASE WHEN trim(%1$I) ~ ''^[-+]?([0-9]+\.?[0-9]*|\.[0-9]+)([eE][-+]?[0-9]+)?$'' '
+                    'THEN trim(%1$I)::double precision END',
+                col);
+        END IF;
+    END LOOP;
+END $$;
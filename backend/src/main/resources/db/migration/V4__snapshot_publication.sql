@@ -0,0 +1,15 @@
+-- One marker row per kind of publication (1 = full snapshot, 2 = live stats), created up front so that announcing
+-- only ever updates an existing row; two nodes publishing for the first time cannot race to insert it.
+-- Hibernate would create the same table on a fresh database; it only has to exist before the rows are seeded.
+CREATE TABLE IF NOT EXISTS snapshot_publication
+(
+    id           INTEGER PRIMARY KEY,
+    generation   BIGINT,
+    published_at TIMESTAMP(6),
+    published_by VARCHAR(255)
+);
+
+INSERT INTO snapshot_publication (id, generation)
+VALUES (1, 0),
+       (2, 0)
+ON CONFLICT (id) DO NOTHING;
@@ -1,12 +1,21 @@
 package com.project.mvprecommender.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.mvprecommender.dto.BatchSquadRequest;
+import com.project.mvprecommender.dto.BatchSquadResult;
 import com.project.mvprecommender.dto.BudgetSquadRequest;
 import com.project.mvprecommender.dto.BudgetSquadResponse;
+import com.project.mvprecommender.dto.FormationSearchRequest;
+import com.project.mvprecommender.dto.FormationSearchResponse;
 import com.project.mvprecommender.dto.MvpRecommendationResponse;
+import com.project.mvprecommender.dto.RefreshJobStatus;
+import com.project.mvprecommender.dto.RefreshStageTiming;
+import com.project.mvprecommender.model.Player;
 import com.project.mvprecommender.service.FPLDataService;
 import com.project.mvprecommender.service.MvpRecommendationService;
+import com.project.mvprecommender.service.RefreshCoordinator;
 import com.project.mvprecommender.service.WeeklyAlertService;
+import com.project.mvprecommender.snapshot.PlayerSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,11 +23,14 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -46,16 +58,18 @@ class FplControllerTest {
     @MockitoBean
     private FPLDataService fplDataService;
 
-    @Autowired
-    private FplController fplController;
+    @MockitoBean
+    private RefreshCoordinator refreshCoordinator;
 
     @BeforeEach
     void setUp() {
-        // Mock available player IDs
-        Set<Long> availablePlayerIds = Set.of(1L, 2L, 3L, 4L, 5L);
-        when(fplDataService.getAvailablePlayersId()).thenReturn(availablePlayerIds);
-        // Ensure @PostConstruct runs after mocks are set up
-        fplController.init();
+        // Players 1-5 exist in the current snapshot
+        List<Player> players = LongStream.rangeClosed(1, 5).mapToObj(id -> {
+            Player player = new Player();
+            player.setId(id);
+            return player;
+        }).toList();
+        when(fplDataService.getPlayerIdIndex()).thenReturn(PlayerSnapshot.build(players).idIndex());
     }
 
     /**
@@ -303,11 +317,43 @@ class FplControllerTest {
      */
     @Test
     void testRefreshData() {
+        when(refreshCoordinator.trigger("manual"))
+                .thenReturn(RefreshJobStatus.builder().jobId("job-1").state("RUNNING").build());
         webTestClient.post()
                 .uri("/api/v1/fpl/data/refresh")
                 .exchange()
+                .expectStatus().isAccepted()
+                .expectBody()
+                .jsonPath("$.jobId").isEqualTo("job-1")
+                .jsonPath("$.state").isEqualTo("RUNNING");
+    }
+
+    /**
+     * TC12b - Refresh job status
+     * Expected: 200 OK for a known job, 404 Not Found for an unknown one
+     */
+    @Test
+    void testGetRefreshStatus() {
+        RefreshJobStatus status = RefreshJobStatus.builder()
+                .jobId("job-1")
+                .state("SUCCEEDED")
+                .stages(List.of(new RefreshStageTiming("fetch", 12.5)))
+                .build();
+        when(refreshCoordinator.status("job-1")).thenReturn(Optional.of(status));
+        when(refreshCoordinator.status("missing")).thenReturn(Optional.empty());
+
+        webTestClient.get()
+                .uri("/api/v1/fpl/data/refresh/job-1")
+                .exchange()
                 .expectStatus().isOk()
-                .expectBody(String.class).isEqualTo("Data refresh initiated");
+                .expectBody()
+                .jsonPath("$.state").isEqualTo("SUCCEEDED")
+                .jsonPath("$.stages[0].stage").isEqualTo("fetch");
+
+        webTestClient.get()
+                .uri("/api/v1/fpl/data/refresh/missing")
+                .exchange()
+                .expectStatus().isNotFound();
     }
 
     /**
@@ -328,4 +374,110 @@ class FplControllerTest {
                 .expectBody()
                 .jsonPath("$.topPlayersByPosition").isMap();
     }
+
+    /**
+     * TC14 - Best squad across all formations
+     * Expected: 200 OK with the best squad and its alternatives
+     */
+    @Test
+    void testGenerateBestFormationSquad() throws Exception {
+        FormationSearchRequest request = FormationSearchRequest.builder()
+                .budget(100.0)
+                .mustHavePlayers(List.of(1L))
+                .alternatives(1)
+                .build();
+
+        FormationSearchResponse response = FormationSearchResponse.builder()
+                .best(BudgetSquadResponse.builder().formation("3-4-3").totalCost(99.5).build())
+                .alternatives(List.of(BudgetSquadResponse.builder().formation("4-4-2").build()))
+                .formationsEvaluated(8)
+                .build();
+        when(mvpService.generateBestFormationSquad(any(FormationSearchRequest.class)))
+                .thenReturn(Mono.just(response));
+
+        webTestClient.post()
+                .uri("/api/v1/fpl/squad/generate/best-formation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(request))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.best.formation").isEqualTo("3-4-3")
+                .jsonPath("$.alternatives.length()").isEqualTo(1)
+                .jsonPath("$.formationsEvaluated").isEqualTo(8);
+    }
+
+    /**
+     * TC15 - Best-formation search with an unknown must-have player
+     * Expected: 400 BAD_REQUEST with code "INVALID_REQUEST"
+     */
+    @Test
+    void testGenerateBestFormationSquad_MissingMustHavePlayer() throws Exception {
+        FormationSearchRequest request = FormationSearchRequest.builder()
+                .budget(100.0)
+                .mustHavePlayers(List.of(99L))
+                .build();
+
+        webTestClient.post()
+                .uri("/api/v1/fpl/squad/generate/best-formation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(request))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("INVALID_REQUEST");
+    }
+
+    /**
+     * TC16 - Batch squad generation streams NDJSON
+     * Expected: 200 OK with one line per request
+     */
+    @Test
+    void testGenerateSquadBatch() throws Exception {
+        BatchSquadRequest request = BatchSquadRequest.builder()
+                .requests(List.of(
+                        BudgetSquadRequest.builder().budget(90.0).formation("4-4-2").build(),
+                        BudgetSquadRequest.builder().budget(95.0).formation("3-4-3").build()))
+                .build();
+
+        when(mvpService.generateBudgetSquadBatch(any(BatchSquadRequest.class)))
+                .thenReturn(Flux.just(
+                        BatchSquadResult.builder().index(1).squad(BudgetSquadResponse.builder().formation("3-4-3").build()).build(),
+                        BatchSquadResult.builder().index(0).squad(BudgetSquadResponse.builder().formation("4-4-2").build()).build()));
+
+        webTestClient.post()
+                .uri("/api/v1/fpl/squad/generate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(objectMapper.writeValueAsString(request))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(BatchSquadResult.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextMatches(result -> result.getIndex() == 1 && result.getSquad().getFormation().equals("3-4-3"))
+                .expectNextMatches(result -> result.getIndex() == 0)
+                .verifyComplete();
+    }
+
+    /**
+     * TC17 - Batch with an invalid entry
+     * Expected: 400 BAD_REQUEST with code "VALIDATION_FAILED"
+     */
+    @Test
+    void testGenerateSquadBatch_InvalidEntry() throws Exception {
+        BatchSquadRequest request = BatchSquadRequest.builder()
+                .requests(List.of(BudgetSquadRequest.builder().budget(90.0).formation("44-2").build()))
+                .build();
+
+        webTestClient.post()
+                .uri("/api/v1/fpl/squad/generate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(request))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("VALIDATION_FAILED");
+    }
 }
@@ -0,0 +1,62 @@
+package com.project.mvprecommender.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.project.mvprecommender.service.IngestionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LenientDoubleDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Decimal strings from the FPL API are parsed into typed columns")
+    void testParsesStrings() throws Exception {
+        MalformedValues malformed = new MalformedValues();
+
+        List<Player> players = reader(malformed).readValue("""
+                [{"id": 1, "form": "7.2", "points_per_game": " 6.5 ", "selected_by_percent": 45.5, "ict_index": ""}]
+                """);
+
+        Player player = players.get(0);
+        assertThat(player.getForm()).isEqualTo(7.2);
+        assertThat(player.getPointsPerGame()).isEqualTo(6.5);
+        assertThat(player.getSelectedByPercent()).isEqualTo(45.5);
+        assertThat(player.getIctIndex()).isNull();
+        assertThat(malformed.total()).isZero();
+    }
+
+    @Test
+    @DisplayName("Malformed values become null and are counted per field")
+    void testCountsMalformed() throws Exception {
+        MalformedValues malformed = new MalformedValues();
+
+        List<Player> players = reader(malformed).readValue("""
+                [{"id": 1, "form": "n/a", "threat": "NaN"},
+                 {"id": 2, "form": "1,5", "threat": "12.0"}]
+                """);
+
+        assertThat(players.get(0).getForm()).isNull();
+        assertThat(players.get(0).getThreat()).isNull();
+        assertThat(players.get(1).getForm()).isNull();
+        assertThat(players.get(1).getThreat()).isEqualTo(12.0);
+        assertThat(malformed.counts()).containsEntry("form", 2).containsEntry("threat", 1);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new IngestionMetrics(registry).recordMalformed("players", malformed);
+        assertThat(registry.counter(IngestionMetrics.MALFORMED_VALUES, "entity", "players", "field", "form").count())
+                .isEqualTo(2.0);
+    }
+
+    private ObjectReader reader(MalformedValues malformed) {
+        return objectMapper
+                .readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Player.class))
+                .withAttribute(MalformedValues.ATTRIBUTE, malformed);
+    }
+}
@@ -5,6 +5,7 @@ import com.project.mvprecommender.model.Player;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 public class PlayerGenerator {
 
@@ -22,9 +23,9 @@ public class PlayerGenerator {
                 .positionName("FWD")
                 .nowCost(125) // 12.5m
                 .totalPoints(210)
-                .form("7.2")
-                .pointsPerGame("6.5")
-                .selectedByPercent("45.5")
+                .form(7.2)
+                .pointsPerGame(6.5)
+                .selectedByPercent(45.5)
                 .goalsScored(22)
                 .assists(5)
                 .cleanSheets(0)
@@ -32,14 +33,14 @@ public class PlayerGenerator {
                 .minutes(2700)
                 .yellowCards(2)
                 .redCards(0)
-                .influence("85.0")
-                .creativity("78.5")
-                .threat("90.0")
-                .ictIndex("70.5")
-                .expectedGoals("20.5")
-                .expectedAssists("6.0")
-                .expectedGoalInvolvements("26.5")
-                .expectedGoalsConceded("0.0")
+                .influence(85.0)
+                .creativity(78.5)
+                .threat(90.0)
+                .ictIndex(70.5)
+                .expectedGoals(20.5)
+                .expectedAssists(6.0)
+                .expectedGoalInvolvements(26.5)
+                .expectedGoalsConceded(0.0)
                 .status("a")
                 .news("")
                 .chanceOfPlayingNextRound(100)
@@ -57,9 +58,9 @@ public class PlayerGenerator {
                 .positionName("GK")
                 .nowCost(65) // 6.5m
                 .totalPoints(160)
-                .form("5.0")
-                .pointsPerGame("4.5")
-                .selectedByPercent("12.3")
+                .form(5.0)
+                .pointsPerGame(4.5)
+                .selectedByPercent(12.3)
                 .goalsScored(0)
                 .assists(1)
                 .cleanSheets(15)
@@ -69,14 +70,14 @@ public class PlayerGenerator {
                 .goalsConceded(25)
                 .yellowCards(1)
                 .redCards(0)
-                .influence("70.0")
-                .creativity("55.0")
-                .threat("10.0")
-                .ictIndex("45.0")
-                .expectedGoals("0.0")
-                .expectedAssists("1.5")
-                .expectedGoalInvolvements("1.5")
-                .expectedGoalsConceded("20.0")
+                .influence(70.0)
+                .creativity(55.0)
+                .threat(10.0)
+                .ictIndex(45.0)
+                .expectedGoals(0.0)
+                .expectedAssists(1.5)
+                .expectedGoalInvolvements(1.5)
+                .expectedGoalsConceded(20.0)
                 .status("a")
                 .news("")
                 .chanceOfPlayingNextRound(100)
@@ -94,9 +95,9 @@ public class PlayerGenerator {
                 .positionName("FWD")
                 .nowCost(120) // 12.0m
                 .totalPoints(190)
-                .form("6.8")
-                .pointsPerGame("5.5")
-                .selectedByPercent("38.0")
+                .form(6.8)
+                .pointsPerGame(5.5)
+                .selectedByPercent(38.0)
                 .goalsScored(21)
                 .assists(13)
                 .cleanSheets(0)
@@ -104,14 +105,14 @@ public class PlayerGenerator {
                 .minutes(2800)
                 .yellowCards(3)
                 .redCards(0)
-                .influence("80.0")
-                .creativity("85.0")
-                .threat("88.0")
-                .ictIndex("68.5")
-                .expectedGoals("22.0")
-                .expectedAssists("10.0")
-                .expectedGoalInvolvements("32.0")
-                .expectedGoalsConceded("0.0")
+                .influence(80.0)
+                .creativity(85.0)
+                .threat(88.0)
+                .ictIndex(68.5)
+                .expectedGoals(22.0)
+                .expectedAssists(10.0)
+                .expectedGoalInvolvements(32.0)
+                .expectedGoalsConceded(0.0)
                 .status("a")
                 .news("")
                 .chanceOfPlayingNextRound(100)
@@ -121,4 +122,38 @@ public class PlayerGenerator {
         return players;
     }
 
+    /**
+     * Deterministic pool shaped like a real season: 20 teams and roughly the FPL split of
+     * 11% GK, 33% DEF, 40% MID and 16% FWD, with prices between 4.0m and 14.5m.
+     */
+    public static List<Player> generatePlayerPool(int count, long seed) {
+        Random random = new Random(seed);
+        String[] statuses = {"a", "a", "a", "a", "a", "a", "a", "d", "i", "u"};
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            double roll = random.nextDouble();
+            int position = roll < 0.11 ? 1 : roll < 0.44 ? 2 : roll < 0.84 ? 3 : 4;
+            int cost = 40 + random.nextInt(106);
+            double form = Math.round(random.nextDouble() * 90) / 10.0;
+            players.add(Player.builder()
+                    .id((long) i)
+                    .webName("Player" + i)
+                    .team(1 + random.nextInt(20))
+                    .position(position)
+                    .nowCost(cost)
+                    .totalPoints(random.nextInt(cost * 2))
+                    .form(form)
+                    .pointsPerGame(form * 0.8)
+                    .selectedByPercent(Math.round(random.nextDouble() * 600) / 10.0)
+                    .minutes(random.nextInt(3420))
+                    .expectedGoals(Math.round(random.nextDouble() * 200) / 10.0)
+                    .expectedAssists(Math.round(random.nextDouble() * 100) / 10.0)
+                    .ictIndex(Math.round(random.nextDouble() * 2000) / 10.0)
+                    .status(statuses[random.nextInt(statuses.length)])
+                    .chanceOfPlayingNextRound(100)
+                    .build());
+        }
+        return players;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.project.mvprecommender.nfr;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.mvprecommender.model.MalformedValues;
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.Team;
+import com.project.mvprecommender.service.FplStreamReader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parse throughput of a bootstrap-static sized payload.
+ * "Tree" replays the old path: buffer the whole body, readTree, then convertValue per section.
+ * "Stream" feeds network-sized buffers to {@link FplStreamReader} and drops each chunk, as the
+ * persistence layer does once a chunk is saved.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BootstrapStreamBenchmarkTest {
+
+    private static final int PLAYERS = 3000;
+    private static final int TEAMS = 20;
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int CHUNK_SIZE = 200;
+    private static final int RUNS = 10;
+    private static final Map<String, Class<?>> SECTIONS = Map.of("teams", Team.class, "elements", Player.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final FplStreamReader reader = new FplStreamReader(objectMapper, CHUNK_SIZE);
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private byte[] payload;
+
+    @BeforeAll
+    void setUp() {
+        payload = bootstrapPayload(new Random(42L)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void compareTreeWithStreamingParse() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            parseTree();
+            parseStream(new AtomicLong());
+        }
+
+        long treeStart = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            assertEquals(PLAYERS, parseTree());
+        }
+        long treeNanos = (System.nanoTime() - treeStart) / RUNS;
+
+        AtomicLong streamPeak = new AtomicLong();
+        long streamStart = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            assertEquals(PLAYERS, parseStream(streamPeak));
+        }
+        long streamNanos = (System.nanoTime() - streamStart) / RUNS;
+
+        double megabytes = payload.length / (1024.0 * 1024.0);
+        System.out.printf("Parsing bootstrap payload: %.1f MB, %d players%n", megabytes, PLAYERS);
+        System.out.printf("  tree   : %,d us/run, %.0f MB/s%n", treeNanos / 1000, megabytes / (treeNanos / 1e9));
+        System.out.printf("  stream : %,d us/run, %.0f MB/s, largest chunk %d entities%n",
+                streamNanos / 1000, megabytes / (streamNanos / 1e9), streamPeak.get());
+        System.out.printf("  live heap holding the tree: ~%.1f MB%n", treeRetainedMegabytes());
+
+        assertTrue(streamPeak.get() <= CHUNK_SIZE, "Stream should never hand over more than one chunk at a time");
+        assertTrue(megabytes / (streamNanos / 1e9) > 5, "Streaming parse should sustain at least 5 MB/s");
+    }
+
+    private int parseTree() throws Exception {
+        JsonNode tree = objectMapper.readTree(payload);
+        List<Team> teams = objectMapper.convertValue(tree.get("teams"),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, Team.class));
+        List<Player> players = objectMapper.convertValue(tree.get("elements"),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, Player.class));
+        assertEquals(TEAMS, teams.size());
+        return players.size();
+    }
+
+    private int parseStream(AtomicLong largestChunk) {
+        AtomicInteger players = new AtomicInteger();
+        reader.read(buffers(), SECTIONS, new MalformedValues())
+                .doOnNext(chunk -> {
+                    largestChunk.accumulateAndGet(chunk.items().size(), Math::max);
+                    if (chunk.section().equals("elements")) players.addAndGet(chunk.items().size());
+                })
+                .blockLast();
+        return players.get();
+    }
+
+    private double treeRetainedMegabytes() throws Exception {
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        JsonNode tree = objectMapper.readTree(payload);
+        System.gc();
+        long after = memory.getHeapMemoryUsage().getUsed();
+        assertTrue(tree.has("elements"));
+        return Math.max(0, after - before) / (1024.0 * 1024.0);
+    }
+
+    private Flux<DataBuffer> buffers() {
+        return Flux.range(0, (payload.length + BUFFER_SIZE - 1) / BUFFER_SIZE)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(
+                        payload, i * BUFFER_SIZE, Math.min(BUFFER_SIZE, payload.length - i * BUFFER_SIZE))));
+    }
+
+    /**
+     * Same shape as bootstrap-static: the sections we ingest surrounded by ones we skip, and
+     * players with many more fields than the entity maps.
+     */
+    private static String bootstrapPayload(Random random) {
+        StringBuilder json = new StringBuilder(PLAYERS * 2048);
+        json.append("{\"events\":[");
+        for (int gw = 1; gw <= 38; gw++) {
+            if (gw > 1) json.append(',');
+            json.append("{\"id\":").append(gw).append(",\"name\":\"Gameweek ").append(gw)
+                    .append("\",\"deadline_time\":\"2025-08-15T17:30:00Z\",\"finished\":false,\"chip_plays\":[")
+                    .append("{\"chip_name\":\"bboost\",\"num_played\":").append(random.nextInt(500000)).append("},")
+                    .append("{\"chip_name\":\"3xc\",\"num_played\":").append(random.nextInt(500000)).append("}]")
+                    .append(",\"top_element_info\":{\"id\":").append(random.nextInt(PLAYERS)).append(",\"points\":15}}");
+        }
+        json.append("],\"game_settings\":{\"league_join_private_max\":25,\"squad_squadsize\":15},\"teams\":[");
+        for (int team = 1; team <= TEAMS; team++) {
+            if (team > 1) json.append(',');
+            json.append("{\"id\":").append(team).append(",\"name\":\"Team ").append(team)
+                    .append("\",\"short_name\":\"T").append(team).append("\",\"strength\":").append(2 + random.nextInt(4))
+                    .append(",\"strength_overall_home\":1200,\"strength_overall_away\":1250,\"pulse_id\":").append(team)
+                    .append('}');
+        }
+        json.append("],\"total_players\":11000000,\"elements\":[");
+        for (int id = 1; id <= PLAYERS; id++) {
+            if (id > 1) json.append(',');
+            json.append("{\"id\":").append(id)
+                    .append(",\"web_name\":\"Player").append(id)
+                    .append("\",\"first_name\":\"First\",\"second_name\":\"Second\",\"team\":").append(1 + random.nextInt(TEAMS))
+                    .append(",\"element_type\":").append(1 + random.nextInt(4))
+                    .append(",\"now_cost\":").append(40 + random.nextInt(100))
+                    .append(",\"total_points\":").append(random.nextInt(250))
+                    .append(",\"form\":\"").append(random.nextInt(100) / 10.0)
+                    .append("\",\"points_per_game\":\"").append(random.nextInt(80) / 10.0)
+                    .append("\",\"selected_by_percent\":\"").append(random.nextInt(600) / 10.0)
+                    .append("\",\"influence\":\"").append(random.nextInt(9000) / 10.0)
+                    .append("\",\"creativity\":\"").append(random.nextInt(9000) / 10.0)
+                    .append("\",\"threat\":\"").append(random.nextInt(9000) / 10.0)
+                    .append("\",\"ict_index\":\"").append(random.nextInt(2000) / 10.0)
+                    .append("\",\"expected_goals\":\"").append(random.nextInt(200) / 100.0)
+                    .append("\",\"expected_assists\":\"").append(random.nextInt(200) / 100.0)
+                    .append("\",\"status\":\"a\",\"chance_of_playing_next_round\":null,\"news\":\"\"");
+            // Fields the FPL API sends that we do not map
+            for (int extra = 0; extra < 40; extra++) {
+                json.append(",\"unmapped_stat_").append(extra).append("\":").append(random.nextInt(1000));
+            }
+            json.append(",\"news_added\":\"2025-08-10T12:00:00Z\",\"photo\":\"").append(id).append(".jpg\"}");
+        }
+        json.append("],\"element_stats\":[{\"label\":\"Minutes played\",\"name\":\"minutes\"}]")
+                .append(",\"element_types\":[{\"id\":1,\"singular_name\":\"Goalkeeper\",\"squad_select\":2}]}");
+        return json.toString();
+    }
+}
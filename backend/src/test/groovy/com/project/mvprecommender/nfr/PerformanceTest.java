@@ -6,6 +6,7 @@ import com.project.mvprecommender.model.Team;
 import com.project.mvprecommender.repository.FixtureRepository;
 import com.project.mvprecommender.repository.PlayerRepository;
 import com.project.mvprecommender.repository.TeamRepository;
+import com.project.mvprecommender.service.FPLDataService;
 import com.project.mvprecommender.service.MvpRecommendationService;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.junit.jupiter.api.BeforeAll;
@@ -37,6 +38,9 @@ class PerformanceTest {
     @Autowired
     private TeamRepository teamRepository;
 
+    @Autowired
+    private FPLDataService fplDataService;
+
     private long serviceThresholdMs;
 
     static Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
@@ -74,8 +78,8 @@ class PerformanceTest {
                         .goalsScored(5)
                         .assists(2)
                         .minutes(900)
-                        .influence("12.0")
-                        .ictIndex("18.7")
+                        .influence(12.0)
+                        .ictIndex(18.7)
                         .totalPoints(50)
                         .build(),
                 Player.builder()
@@ -87,8 +91,8 @@ class PerformanceTest {
                         .goalsScored(3)
                         .assists(4)
                         .minutes(850)
-                        .influence("12.0")
-                        .ictIndex("18.7")
+                        .influence(12.0)
+                        .ictIndex(18.7)
                         .totalPoints(60)
                         .build()
         ));
@@ -119,6 +123,9 @@ class PerformanceTest {
                 Team.builder().id(1).shortName("HOME").build(),
                 Team.builder().id(2).shortName("AWAY").build()
         ));
+
+        // Rebuild the in-memory indexes the request path reads from
+        fplDataService.loadIndexes();
     }
 
     @Test
@@ -0,0 +1,139 @@
+package com.project.mvprecommender.nfr;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.helper.PlayerGenerator;
+import com.project.mvprecommender.snapshot.FixtureDifficultyMatrix;
+import com.project.mvprecommender.snapshot.PlayerScores;
+import com.project.mvprecommender.snapshot.PlayerSnapshot;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Before/after cost of ranking a full season's player pool.
+ * "Before" replays the old comparator-driven sort that rescored both players on every comparison;
+ * "after" scores each player once per snapshot and serves top-N from the ranked index or a bounded heap.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ScoringBenchmarkTest {
+
+    private static final int PLAYERS = 750;
+    private static final int RUNS = 200;
+
+    private List<Player> players;
+    private PlayerSnapshot snapshot;
+    private FixtureDifficultyMatrix matrix;
+
+    @BeforeAll
+    void setUp() {
+        players = PlayerGenerator.generatePlayerPool(PLAYERS, 42L);
+        snapshot = PlayerSnapshot.build(players);
+        List<Fixture> fixtures = new ArrayList<>();
+        long id = 1;
+        for (int gw = 1; gw <= 38; gw++) {
+            for (int home = 1; home <= 20; home += 2) {
+                fixtures.add(Fixture.builder().id(id++).gameWeek(gw).teamHome(home).teamAway(home + 1)
+                        .teamHomeDifficulty(1 + (int) (id % 5)).teamAwayDifficulty(1 + (int) ((id + 2) % 5)).build());
+            }
+        }
+        matrix = FixtureDifficultyMatrix.build(fixtures);
+    }
+
+    @Test
+    void compareComparatorSortWithScoreOnceTopK() {
+        AtomicLong legacyScoreCalls = new AtomicLong();
+
+        // Warm-up both paths
+        for (int i = 0; i < 50; i++) {
+            legacyTopPlayers(legacyScoreCalls);
+            scoreOnceTopPlayers();
+        }
+
+        legacyScoreCalls.set(0);
+        long legacyStart = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            legacyTopPlayers(legacyScoreCalls);
+        }
+        long legacyNanos = (System.nanoTime() - legacyStart) / RUNS;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            scoreOnceTopPlayers();
+        }
+        long scoreOnceNanos = (System.nanoTime() - start) / RUNS;
+
+        // A request that reuses the scores of the current snapshot only reads the ranking
+        PlayerScores scores = PlayerScores.build(snapshot, matrix, 1);
+        long rankedStart = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            for (int position = 1; position <= 4; position++) {
+                scores.topForPosition(position, 5);
+            }
+        }
+        long rankedNanos = (System.nanoTime() - rankedStart) / RUNS;
+
+        long legacyCallsPerRun = legacyScoreCalls.get() / RUNS;
+        System.out.printf("Ranking %d players x 4 positions%n", PLAYERS);
+        System.out.printf("  comparator sort : %,d ns/run, %,d score evaluations%n", legacyNanos, legacyCallsPerRun);
+        System.out.printf("  score once+topK : %,d ns/run, %,d score evaluations%n", scoreOnceNanos, PLAYERS);
+        System.out.printf("  ranked index    : %,d ns/run, 0 score evaluations%n", rankedNanos);
+
+        // The comparator path needs ~2 n log n evaluations; scoring once needs n
+        assertTrue(legacyCallsPerRun > 4L * PLAYERS,
+                "Comparator sort should rescore players many times (" + legacyCallsPerRun + ")");
+        assertTrue(rankedNanos < legacyNanos, "Ranked index should be cheaper than a full comparator sort");
+    }
+
+    @Test
+    void topKMatchesFullSort() {
+        PlayerScores scores = PlayerScores.build(snapshot, matrix, 1);
+        for (int position = 1; position <= 4; position++) {
+            int[] rows = snapshot.rowsForPosition(position);
+            int[] top = scores.topK(rows, row -> snapshot.nowCost(row) <= 80, 5);
+            List<Long> expected = java.util.Arrays.stream(rows)
+                    .filter(row -> snapshot.nowCost(row) <= 80)
+                    .boxed()
+                    .sorted((a, b) -> Double.compare(scores.score(b), scores.score(a)))
+                    .limit(5)
+                    .map(snapshot::id)
+                    .collect(Collectors.toList());
+            List<Long> actual = java.util.Arrays.stream(top).mapToObj(snapshot::id).collect(Collectors.toList());
+            assertEquals(expected, actual);
+        }
+    }
+
+    private void legacyTopPlayers(AtomicLong scoreCalls) {
+        for (int position = 1; position <= 4; position++) {
+            int pos = position;
+            players.stream()
+                    .filter(p -> p.getPosition() == pos)
+                    .filter(p -> !"i".equals(p.getStatus()) && !"u".equals(p.getStatus()))
+                    .sorted((p1, p2) -> Double.compare(legacyScore(p2, scoreCalls), legacyScore(p1, scoreCalls)))
+                    .limit(5)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private double legacyScore(Player player, AtomicLong scoreCalls) {
+        scoreCalls.incrementAndGet();
+        double vfm = PlayerScores.valueForMoney(player.getTotalPoints(), player.getNowCost());
+        double fixtureScore = 5.0 - matrix.averageDifficulty(player.getTeam(), 1, 1 + PlayerScores.FIXTURE_HORIZON);
+        return PlayerScores.overallScore(Double.parseDouble(String.valueOf(player.getForm())), player.getTotalPoints(), vfm, fixtureScore);
+    }
+
+    private void scoreOnceTopPlayers() {
+        PlayerScores scores = PlayerScores.build(snapshot, matrix, 1);
+        for (int position = 1; position <= 4; position++) {
+            scores.topForPosition(position, 5);
+        }
+    }
+}
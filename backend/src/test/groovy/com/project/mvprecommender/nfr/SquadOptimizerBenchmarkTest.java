@@ -0,0 +1,61 @@
+package com.project.mvprecommender.nfr;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.helper.PlayerGenerator;
+import com.project.mvprecommender.service.SquadOptimizer;
+import com.project.mvprecommender.snapshot.FixtureDifficultyMatrix;
+import com.project.mvprecommender.snapshot.PlayerScores;
+import com.project.mvprecommender.snapshot.PlayerSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exact squad search over a full season's player pool must answer well inside a request budget.
+ */
+class SquadOptimizerBenchmarkTest {
+
+    private static final int PLAYERS = 750;
+    private static final long MAX_MILLIS = 50;
+
+    @Test
+    void solvesFullPoolWithinFiftyMillis() {
+        List<Fixture> fixtures = new ArrayList<>();
+        long id = 1;
+        for (int gw = 1; gw <= 38; gw++) {
+            for (int home = 1; home <= 20; home += 2) {
+                fixtures.add(Fixture.builder().id(id++).gameWeek(gw).teamHome(home).teamAway(home + 1)
+                        .teamHomeDifficulty(1 + (int) (id % 5)).teamAwayDifficulty(1 + (int) ((id + 2) % 5)).build());
+            }
+        }
+        FixtureDifficultyMatrix matrix = FixtureDifficultyMatrix.build(fixtures);
+        SquadOptimizer optimizer = new SquadOptimizer(MAX_MILLIS);
+        int[][] formations = {{0, 1, 3, 4, 3}, {0, 1, 4, 4, 2}, {0, 1, 5, 3, 2}, {0, 1, 3, 5, 2}};
+        int[] budgets = {700, 830, 1000};
+
+        for (long seed = 1; seed <= 5; seed++) {
+            PlayerScores scores = PlayerScores.build(PlayerSnapshot.build(PlayerGenerator.generatePlayerPool(PLAYERS, seed)), matrix, 1);
+            // Warm-up
+            for (int i = 0; i < 20; i++) {
+                optimizer.solve(scores, new SquadOptimizer.Constraints(budgets[i % budgets.length], formations[i % formations.length], List.of(), List.of()));
+            }
+            for (int[] formation : formations) {
+                for (int budget : budgets) {
+                    SquadOptimizer.Solution solution = optimizer.solve(scores,
+                            new SquadOptimizer.Constraints(budget, formation, List.of(), List.of()));
+                    long millis = solution.elapsedNanos() / 1_000_000;
+                    System.out.printf("seed %d formation %d-%d-%d budget %d: %.2f ms, %,d nodes, score %.2f%n",
+                            seed, formation[2], formation[3], formation[4], budget,
+                            solution.elapsedNanos() / 1e6, solution.nodes(), solution.totalScore());
+
+                    assertTrue(solution.feasible(), "Expected a squad for budget " + budget);
+                    assertTrue(solution.optimal(), "Search should finish within its time budget");
+                    assertTrue(millis < MAX_MILLIS, "Squad search took " + millis + " ms");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.mvprecommender.repository;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.Team;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CopyRowReaderTest {
+
+    @Test
+    @DisplayName("Rows are encoded as COPY CSV: quoted strings, unquoted null, id first")
+    void testEncoding() throws IOException {
+        Team quoted = Team.builder().id(1).name("Brighton \"Seagulls\", FC").shortName("").strength(4).build();
+        Team sparse = Team.builder().id(2).name("Spurs").build();
+
+        String csv = readAll(new CopyRowReader<>(UpsertTable.TEAMS, List.of(quoted, sparse)), 7);
+
+        assertThat(csv).isEqualTo("""
+                1,"Brighton ""Seagulls"", FC","",4,,,,,,
+                2,"Spurs",,,,,,,,
+                """);
+    }
+
+    @Test
+    @DisplayName("Booleans and numbers are written as PostgreSQL reads them")
+    void testScalars() throws IOException {
+        Fixture fixture = Fixture.builder().id(7L).gameWeek(3).teamHome(1).teamAway(2)
+                .kickoffTime("2025-08-16T14:00:00Z").started(true).finished(false).build();
+
+        String csv = readAll(new CopyRowReader<>(UpsertTable.FIXTURES, List.of(fixture)), 1024);
+
+        assertThat(csv).isEqualTo("7,3,1,2,,,\"2025-08-16T14:00:00Z\",true,false\n");
+    }
+
+    @Test
+    @DisplayName("No rows reads as end of stream")
+    void testEmpty() throws IOException {
+        assertThat(new CopyRowReader<>(UpsertTable.TEAMS, List.of()).read(new char[16], 0, 16)).isEqualTo(-1);
+    }
+
+    private static String readAll(Reader reader, int bufferSize) throws IOException {
+        StringBuilder out = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        int read;
+        while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+            out.append(buffer, 0, read);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package com.project.mvprecommender.repository;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.PlayerGameweekHistory;
+import com.project.mvprecommender.model.Team;
+import com.project.mvprecommender.model.helper.PlayerGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(UpsertRepository.class)
+class UpsertRepositoryTest {
+
+    @Autowired
+    private UpsertRepository upsertRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private FixtureRepository fixtureRepository;
+
+    @Autowired
+    private PlayerHistoryRepository playerHistoryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Batched JDBC writes round-trip through the JPA mappings")
+    void testInsertAndUpdate() {
+        List<Player> players = PlayerGenerator.generateSamplePlayers();
+        Team team = Team.builder().id(1).name("Liverpool").shortName("LIV").strength(5).build();
+        Fixture fixture = Fixture.builder().id(7L).gameWeek(3).teamHome(1).teamAway(2)
+                .teamHomeDifficulty(2).teamAwayDifficulty(4).kickoffTime("2025-08-16T14:00:00Z")
+                .started(false).finished(false).build();
+
+        upsertRepository.insert(UpsertTable.PLAYERS, players);
+        upsertRepository.insert(UpsertTable.TEAMS, List.of(team));
+        upsertRepository.insert(UpsertTable.FIXTURES, List.of(fixture));
+        entityManager.clear();
+
+        assertThat(playerRepository.findAll())
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("teamName", "positionName", "lastUpdated")
+                .containsExactlyInAnyOrderElementsOf(players);
+        assertThat(teamRepository.findById(1)).contains(team);
+        assertThat(fixtureRepository.findById(7L)).contains(fixture);
+
+        Player changed = players.get(0);
+        changed.setNowCost(130);
+        changed.setForm(null);
+        changed.setLastUpdated(LocalDateTime.of(2025, 8, 16, 12, 0));
+        upsertRepository.update(UpsertTable.PLAYERS, List.of(changed));
+        entityManager.clear();
+
+        Player stored = playerRepository.findById(changed.getId()).orElseThrow();
+        assertThat(stored.getNowCost()).isEqualTo(130);
+        assertThat(stored.getForm()).isNull();
+        assertThat(stored.getLastUpdated()).isEqualTo(changed.getLastUpdated());
+        assertThat(playerRepository.count()).isEqualTo(players.size());
+    }
+
+    @Test
+    @DisplayName("Player history rows round-trip through the JPA mapping")
+    void testPlayerHistory() {
+        PlayerGameweekHistory first = PlayerGameweekHistory.builder().id(PlayerGameweekHistory.key(5, 1)).playerId(5L)
+                .fixtureId(1L).gameWeek(1).opponentTeam(4).wasHome(true).minutes(90).totalPoints(6)
+                .expectedGoals(0.45).price(55).build();
+        PlayerGameweekHistory second = PlayerGameweekHistory.builder().id(PlayerGameweekHistory.key(5, 12)).playerId(5L)
+                .fixtureId(12L).gameWeek(2).opponentTeam(9).wasHome(false).minutes(72).totalPoints(2).price(56).build();
+
+        upsertRepository.insert(UpsertTable.PLAYER_HISTORY, List.of(second, first));
+        entityManager.clear();
+
+        assertThat(playerHistoryRepository.findByPlayerIdOrderByGameWeekAsc(5L)).containsExactly(first, second);
+    }
+
+    @Test
+    @DisplayName("COPY is only used on PostgreSQL; H2 falls back to JDBC batches")
+    void testCopyFallback() {
+        assertThat(upsertRepository.supportsCopy()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Content hash ignores the write timestamp and sees every ingested field")
+    void testContentHash() {
+        Player player = PlayerGenerator.generateSamplePlayers().get(0);
+        long hash = UpsertTable.PLAYERS.contentHash(player);
+
+        player.setLastUpdated(LocalDateTime.now().minusDays(1));
+        assertThat(UpsertTable.PLAYERS.contentHash(player)).isEqualTo(hash);
+
+        player.setNews("Knock");
+        assertThat(UpsertTable.PLAYERS.contentHash(player)).isNotEqualTo(hash);
+        player.setNews(null);
+        assertThat(UpsertTable.PLAYERS.contentHash(player)).isNotEqualTo(hash);
+    }
+}
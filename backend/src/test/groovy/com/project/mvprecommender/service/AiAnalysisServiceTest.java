@@ -0,0 +1,32 @@
+package com.project.mvprecommender.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiAnalysisServiceTest {
+
+    @Test
+    void splitsBatchAnswerPerSquad() {
+        String answer = """
+                Squad 1: Strong midfield, thin defence.
+                Consider a cheaper keeper.
+                **Squad 2:** Balanced; upgrade a forward.
+                """;
+
+        List<String> comments = AiAnalysisService.splitBatchAnalysis(answer, 2);
+
+        assertThat(comments).hasSize(2);
+        assertThat(comments.get(0)).isEqualTo("Strong midfield, thin defence.\nConsider a cheaper keeper.");
+        assertThat(comments.get(1)).contains("Balanced; upgrade a forward.");
+    }
+
+    @Test
+    void fallsBackToWholeAnswerWhenSquadsAreMissing() {
+        List<String> comments = AiAnalysisService.splitBatchAnalysis("AI analysis temporarily unavailable", 3);
+
+        assertThat(comments).containsOnly("AI analysis temporarily unavailable").hasSize(3);
+    }
+}
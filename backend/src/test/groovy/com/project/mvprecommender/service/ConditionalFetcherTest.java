@@ -0,0 +1,94 @@
+package com.project.mvprecommender.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalFetcherTest {
+
+    private final Queue<ClientResponse> upstream = new ArrayDeque<>();
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private final ConditionalFetcher fetcher = new ConditionalFetcher(WebClient.builder()
+            .exchangeFunction(request -> {
+                requests.add(request);
+                return Mono.justOrEmpty(upstream.poll());
+            })
+            .build());
+
+    @Test
+    @DisplayName("Validators from a processed response make the next request conditional; 304 completes empty")
+    void testNotModified() {
+        upstream.add(response(HttpStatus.OK, "{\"v\":1}", "\"abc\"", "Sat, 16 Aug 2025 12:00:00 GMT"));
+        upstream.add(response(HttpStatus.NOT_MODIFIED, "", "\"abc\"", null));
+
+        ConditionalFetcher.Body body = fetcher.fetch("/bootstrap").block();
+        assertThat(read(body)).isEqualTo("{\"v\":1}");
+        body.commit();
+
+        assertThat(fetcher.fetch("/bootstrap").blockOptional()).isEmpty();
+        HttpHeaders sent = requests.get(1).headers();
+        assertThat(sent.getIfNoneMatch()).containsExactly("\"abc\"");
+        assertThat(sent.getFirst(HttpHeaders.IF_MODIFIED_SINCE)).isEqualTo("Sat, 16 Aug 2025 12:00:00 GMT");
+        assertThat(requests.get(0).headers().getIfNoneMatch()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Without validators an identical body is detected by hash and skipped")
+    void testIdenticalBody() {
+        upstream.add(response(HttpStatus.OK, "[1,2,3]", null, null));
+        upstream.add(response(HttpStatus.OK, "[1,2,3]", null, null));
+        upstream.add(response(HttpStatus.OK, "[1,2,4]", null, null));
+
+        ConditionalFetcher.Body body = fetcher.fetch("/fixtures").block();
+        read(body);
+        body.commit();
+
+        assertThat(fetcher.fetch("/fixtures").blockOptional()).isEmpty();
+        assertThat(read(fetcher.fetch("/fixtures").block())).isEqualTo("[1,2,4]");
+        assertThat(requests.get(1).headers().containsKey(HttpHeaders.IF_NONE_MATCH)).isFalse();
+    }
+
+    @Test
+    @DisplayName("A body that was never committed is fetched in full again")
+    void testUncommitted() {
+        upstream.add(response(HttpStatus.OK, "[1]", "\"v1\"", null));
+        upstream.add(response(HttpStatus.OK, "[1]", "\"v1\"", null));
+
+        read(fetcher.fetch("/fixtures").block());
+
+        assertThat(read(fetcher.fetch("/fixtures").block())).isEqualTo("[1]");
+        assertThat(requests.get(1).headers().getIfNoneMatch()).isEmpty();
+        assertThat(fetcher.validators("/fixtures")).isNull();
+    }
+
+    private static ClientResponse response(HttpStatus status, String body, String etag, String lastModified) {
+        ClientResponse.Builder builder = ClientResponse.create(status).body(body);
+        if (etag != null) builder.header(HttpHeaders.ETAG, etag);
+        if (lastModified != null) builder.header(HttpHeaders.LAST_MODIFIED, lastModified);
+        return builder.build();
+    }
+
+    private static String read(ConditionalFetcher.Body body) {
+        return DataBufferUtils.join(body.content())
+                .map(buffer -> {
+                    String text = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return text;
+                })
+                .block();
+    }
+}
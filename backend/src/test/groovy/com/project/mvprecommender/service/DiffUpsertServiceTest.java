@@ -0,0 +1,100 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.helper.PlayerGenerator;
+import com.project.mvprecommender.repository.UpsertRepository;
+import com.project.mvprecommender.repository.UpsertTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DiffUpsertServiceTest {
+
+    private final UpsertRepository upsertRepository = mock(UpsertRepository.class);
+    private final DiffUpsertService diffUpsertService = new DiffUpsertService(upsertRepository);
+
+    @Test
+    @DisplayName("Only new and changed rows are written; identical rows are counted as unchanged")
+    void testWritesChurnOnly() {
+        List<Player> stored = PlayerGenerator.generateSamplePlayers();
+        diffUpsertService.seed(UpsertTable.PLAYERS, stored);
+
+        List<Player> incoming = PlayerGenerator.generateSamplePlayers();
+        incoming.get(1).setNowCost(incoming.get(1).getNowCost() + 1);
+        Player signing = Player.builder().id(99L).webName("Signing").team(3).position(2).nowCost(45).build();
+        List<Player> batch = new ArrayList<>(incoming);
+        batch.add(signing);
+        LocalDateTime refreshedAt = LocalDateTime.of(2025, 8, 16, 12, 0);
+
+        DiffUpsertService.Counts counts = diffUpsertService.upsert(UpsertTable.PLAYERS, batch,
+                player -> player.setLastUpdated(refreshedAt), List::of);
+
+        assertThat(counts).isEqualTo(new DiffUpsertService.Counts(1, 1, incoming.size() - 1));
+        verify(upsertRepository).insert(UpsertTable.PLAYERS, List.of(signing));
+        verify(upsertRepository).update(UpsertTable.PLAYERS, List.of(incoming.get(1)));
+        assertThat(signing.getLastUpdated()).isEqualTo(refreshedAt);
+        assertThat(incoming.get(0).getLastUpdated()).isNotEqualTo(refreshedAt);
+
+        // Replaying the same batch writes nothing
+        counts = diffUpsertService.upsert(UpsertTable.PLAYERS, batch, List::of);
+        assertThat(counts).isEqualTo(new DiffUpsertService.Counts(0, 0, batch.size()));
+        verify(upsertRepository).insert(UpsertTable.PLAYERS, List.of());
+    }
+
+    @Test
+    @DisplayName("On PostgreSQL new and changed rows go through one COPY merge instead of two batches")
+    void testCopyMerge() {
+        when(upsertRepository.supportsCopy()).thenReturn(true);
+        List<Player> stored = PlayerGenerator.generateSamplePlayers();
+        diffUpsertService.seed(UpsertTable.PLAYERS, stored);
+
+        List<Player> incoming = PlayerGenerator.generateSamplePlayers();
+        incoming.get(0).setNews("Knock");
+        Player signing = Player.builder().id(99L).webName("Signing").team(3).position(2).nowCost(45).build();
+        List<Player> batch = new ArrayList<>(incoming);
+        batch.add(signing);
+
+        DiffUpsertService.Counts counts = diffUpsertService.upsert(UpsertTable.PLAYERS, batch, List::of);
+
+        assertThat(counts).isEqualTo(new DiffUpsertService.Counts(1, 1, incoming.size() - 1));
+        verify(upsertRepository).merge(UpsertTable.PLAYERS, List.of(signing, incoming.get(0)));
+        verify(upsertRepository, never()).insert(any(), any());
+        verify(upsertRepository, never()).update(any(), any());
+    }
+
+    @Test
+    @DisplayName("An unseeded table is loaded once before the first diff")
+    void testLazySeed() {
+        List<Player> stored = PlayerGenerator.generateSamplePlayers();
+
+        DiffUpsertService.Counts counts = diffUpsertService.upsert(UpsertTable.PLAYERS,
+                PlayerGenerator.generateSamplePlayers(), () -> stored);
+        diffUpsertService.upsert(UpsertTable.PLAYERS, PlayerGenerator.generateSamplePlayers(),
+                () -> { throw new AssertionError("already seeded"); });
+
+        assertThat(counts.unchanged()).isEqualTo(stored.size());
+    }
+
+    @Test
+    @DisplayName("A failed write is not remembered, so the rows are retried on the next refresh")
+    void testFailedWriteRetried() {
+        List<Player> batch = PlayerGenerator.generateSamplePlayers();
+        doThrow(new IllegalStateException("db down")).doNothing()
+                .when(upsertRepository).insert(eq(UpsertTable.PLAYERS), any());
+
+        assertThatThrownBy(() -> diffUpsertService.upsert(UpsertTable.PLAYERS, batch, List::of))
+                .isInstanceOf(IllegalStateException.class);
+        DiffUpsertService.Counts counts = diffUpsertService.upsert(UpsertTable.PLAYERS, batch, List::of);
+
+        assertThat(counts.inserted()).isEqualTo(batch.size());
+    }
+}
@@ -1,44 +1,63 @@
 package com.project.mvprecommender.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.project.mvprecommender.configuration.MvpExternalClientProperties;
+import com.project.mvprecommender.dto.RefreshStageTiming;
 import com.project.mvprecommender.model.Fixture;
 import com.project.mvprecommender.model.Player;
 import com.project.mvprecommender.model.Team;
 import com.project.mvprecommender.repository.FixtureRepository;
 import com.project.mvprecommender.repository.PlayerRepository;
 import com.project.mvprecommender.repository.TeamRepository;
+import com.project.mvprecommender.repository.UpsertRepository;
+import com.project.mvprecommender.repository.UpsertTable;
+import com.project.mvprecommender.snapshot.FplSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
+import java.util.Queue;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class FPLDataServiceTest {
 
-    @Mock
-    private WebClient mvpWebClient;
+    private static final String FIXTURES = """
+            [{"id": 1, "event": 5, "team_h": 1, "team_a": 2, "finished": false}]
+            """;
 
-    @SuppressWarnings("rawtypes")
     @Mock
-    private WebClient.RequestHeadersUriSpec requestHeadersUriSpec;
+    private PlayerStatsStore playerStatsStore;
 
-    @SuppressWarnings("rawtypes")
     @Mock
-    private WebClient.RequestHeadersSpec requestHeadersSpec;
+    private SnapshotPublications snapshotPublications;
 
     @Mock
     private MvpExternalClientProperties properties;
@@ -55,6 +74,33 @@ class FPLDataServiceTest {
     @Mock
     private TeamRepository teamRepository;
 
+    @Spy
+    private FplIndexService fplIndexService = new FplIndexService();
+
+    @Spy
+    private IngestionMetrics ingestionMetrics = new IngestionMetrics(new SimpleMeterRegistry());
+
+    private final UpsertRepository upsertRepository = mock(UpsertRepository.class);
+
+    @Spy
+    private DiffUpsertService diffUpsertService = new DiffUpsertService(upsertRepository);
+
+    private final Queue<ClientResponse> upstream = new ArrayDeque<>();
+
+    @Spy
+    private ConditionalFetcher conditionalFetcher = new ConditionalFetcher(
+            WebClient.builder().exchangeFunction(request -> Mono.justOrEmpty(upstream.poll())).build());
+
+    @Spy
+    private FplStreamReader fplStreamReader = new FplStreamReader(
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false), 2);
+
+    @TempDir
+    Path archiveDir;
+
+    @Spy
+    private SnapshotArchive snapshotArchive;
+
     @InjectMocks
     private FPLDataService fplDataService;
 
@@ -63,29 +109,199 @@ class FPLDataServiceTest {
 
     @BeforeEach
     void setUp() {
+        snapshotArchive = new SnapshotArchive(JsonMapper.builder().findAndAddModules().build(), true, archiveDir, 10, null);
         MockitoAnnotations.openMocks(this);
     }
 
     @Test
-    @DisplayName("Fetch bootstrap data from WebClient")
-    void testFetchBootStrapData() {
-        // Mock WebClient fluent API chain correctly
-        WebClient.ResponseSpec responseSpec = mock(WebClient.ResponseSpec.class);
-        JsonNode mockJson = mock(JsonNode.class);
-
-        when(mvpWebClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.just(mockJson));
+    @SuppressWarnings("unchecked")
+    @DisplayName("Refresh streams bootstrap and fixtures into the database in chunks, writing only churn")
+    void testRefreshStreamsChunks() {
         when(properties.getBootstrapUrl()).thenReturn("/bootstrap");
+        when(properties.getFixturesUrl()).thenReturn("/fixtures");
+        upstream.add(ok("""
+                {"events": [{"id": 1}],
+                 "teams": [{"id": 1, "short_name": "LIV"}],
+                 "elements": [{"id": 1, "team": 1, "form": "7.2"}, {"id": 2, "team": 1}, {"id": 3, "team": 1}]}
+                """));
+        upstream.add(ok(FIXTURES));
+
+        RefreshJob job = new RefreshJob("1", "test");
+        fplDataService.refresh(job).block();
+
+        assertThat(job.status(false).getStages()).extracting(RefreshStageTiming::getStage)
+                .containsExactly("fetch", "archive", "parse", "persist", "rebuild-indexes", "warm-caches");
+        assertThat(snapshotArchive.latest(SnapshotArchive.BOOTSTRAP)).isPresent();
+        assertThat(snapshotArchive.latest(SnapshotArchive.FIXTURES)).get()
+                .extracting(SnapshotArchive.Entry::gameweek).isEqualTo(5);
+        verify(upsertRepository).insert(eq(UpsertTable.TEAMS), anyList());
+        verify(upsertRepository, times(2)).insert(eq(UpsertTable.PLAYERS), playerListCaptor.capture());
+        assertThat(playerListCaptor.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(playerListCaptor.getAllValues().get(0).get(0).getLastUpdated()).isNotNull();
+        verify(playerRepository, never()).saveAll(anyList());
+        assertThat(fplIndexService.getPlayerSnapshot().size()).isEqualTo(3);
+        assertThat(fplDataService.getTeamShortName(1)).isEqualTo("LIV");
+        assertThat(fplDataService.getCurrentGameweek()).isEqualTo(5);
+        FplSnapshot first = fplIndexService.current();
+        assertThat(job.status(false).getSnapshotVersion()).isEqualTo(first.version());
+
+        // Second refresh: only player 2 changed, fixtures are byte-for-byte identical
+        clearInvocations(upsertRepository);
+        upstream.add(ok("""
+                {"teams": [{"id": 1, "short_name": "LIV"}],
+                 "elements": [{"id": 1, "team": 1, "form": "7.2"}, {"id": 2, "team": 1, "form": "3.1"}, {"id": 3, "team": 1}]}
+                """));
+        upstream.add(ok(FIXTURES));
+
+        RefreshJob second = new RefreshJob("2", "test");
+        fplDataService.refresh(second).block();
+
+        ArgumentCaptor<List<Player>> updated = ArgumentCaptor.forClass(List.class);
+        verify(upsertRepository, times(2)).update(eq(UpsertTable.PLAYERS), updated.capture());
+        assertThat(updated.getAllValues().stream().flatMap(List::stream).map(Player::getId)).containsExactly(2L);
+        verify(upsertRepository, never()).insert(eq(UpsertTable.PLAYERS), argThat(rows -> !rows.isEmpty()));
+        verify(upsertRepository, never()).update(eq(UpsertTable.TEAMS), argThat(rows -> !rows.isEmpty()));
+        verify(upsertRepository, never()).update(eq(UpsertTable.FIXTURES), anyList());
+        // One new snapshot per refresh; the unchanged fixture indexes are carried over as-is
+        FplSnapshot published = fplIndexService.current();
+        assertThat(published.version()).isEqualTo(first.version() + 1);
+        assertThat(second.status(false).getSnapshotVersion()).isEqualTo(published.version());
+        assertThat(published.fixtureMatrix()).isSameAs(first.fixtureMatrix());
+        assertThat(published.players()).isNotSameAs(first.players());
+        verify(fplIndexService, times(2)).publish(any());
+        verify(playerStatsStore).append(first);
+        verify(playerStatsStore).append(published);
+        verify(snapshotPublications, times(2)).announce(SnapshotPublications.Kind.SNAPSHOT);
+    }
 
-        JsonNode result = fplDataService.fetchBootStrapData().block();
+    @Test
+    @DisplayName("A failed announcement does not fail the refresh whose snapshot is already published")
+    void testAnnounceFailureKeepsRefresh() {
+        when(properties.getBootstrapUrl()).thenReturn("/bootstrap");
+        when(properties.getFixturesUrl()).thenReturn("/fixtures");
+        upstream.add(ok("""
+                {"teams": [{"id": 1, "short_name": "LIV"}], "elements": [{"id": 1, "team": 1}]}
+                """));
+        upstream.add(ok(FIXTURES));
+        when(snapshotPublications.announce(SnapshotPublications.Kind.SNAPSHOT)).thenThrow(new IllegalStateException("db down"));
+
+        RefreshJob job = new RefreshJob("1", "test");
+        fplDataService.refresh(job).block();
+
+        assertThat(fplIndexService.getPlayerSnapshot().size()).isEqualTo(1);
+        assertThat(job.status(false).getSnapshotVersion()).isEqualTo(fplIndexService.current().version());
+        assertThat(conditionalFetcher.validators("/bootstrap")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Refresh skips parsing and persistence when upstream answers 304")
+    void testRefreshNotModified() {
+        when(properties.getBootstrapUrl()).thenReturn("/bootstrap");
+        when(properties.getFixturesUrl()).thenReturn("/fixtures");
+        upstream.add(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+        upstream.add(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+
+        RefreshJob job = new RefreshJob("1", "test");
+        fplDataService.refresh(job).block();
+
+        assertThat(job.status(false).getUnchanged()).containsExactly("bootstrap", "fixtures");
+        verifyNoInteractions(upsertRepository, fplStreamReader);
+        verify(fplIndexService, never()).publish(any());
+        verifyNoInteractions(playerStatsStore, snapshotPublications);
+        assertThat(job.status(false).getSnapshotVersion()).isNull();
+    }
 
-        assertThat(result).isNotNull();
-        verify(mvpWebClient).get();
-        verify(requestHeadersUriSpec).uri("/bootstrap");
-        verify(requestHeadersSpec).retrieve();
-        verify(responseSpec).bodyToMono(JsonNode.class);
+    @Test
+    @DisplayName("Reloading publishes what another node stored without fetching or announcing")
+    void testReloadFromDatabase() {
+        when(teamRepository.findAll()).thenReturn(List.of(Team.builder().id(1).shortName("LIV").build()));
+        Player player = new Player();
+        player.setId(1L);
+        player.setTeam(1);
+        when(playerRepository.findAll()).thenReturn(List.of(player));
+        when(fixtureRepository.findAll()).thenReturn(List.of(Fixture.builder().id(1L).gameWeek(5).teamHome(1).teamAway(2).build()));
+
+        FplSnapshot reloaded = fplDataService.reloadFromDatabase();
+
+        assertThat(fplIndexService.current()).isSameAs(reloaded);
+        assertThat(reloaded.players().size()).isEqualTo(1);
+        assertThat(fplDataService.getTeamShortName(1)).isEqualTo("LIV");
+        verify(playerStatsStore).append(reloaded);
+        verify(conditionalFetcher, never()).fetch(anyString());
+        verifyNoInteractions(snapshotPublications, upsertRepository);
+    }
+
+    @Test
+    @DisplayName("Startup ingests the latest archived payloads before any refresh, filling an empty DB")
+    void testWarmStartFromArchive() throws IOException {
+        archive(SnapshotArchive.BOOTSTRAP, """
+                {"teams": [{"id": 1, "short_name": "LIV"}], "elements": [{"id": 1, "team": 1}, {"id": 2, "team": 1}]}
+                """, 5);
+        archive(SnapshotArchive.FIXTURES, FIXTURES, 5);
+
+        fplDataService.loadIndexes();
+
+        assertThat(fplIndexService.getPlayerSnapshot().size()).isEqualTo(2);
+        assertThat(fplDataService.getTeamShortName(1)).isEqualTo("LIV");
+        assertThat(fplDataService.getCurrentGameweek()).isEqualTo(5);
+        verify(upsertRepository).insert(eq(UpsertTable.PLAYERS), argThat(rows -> rows.size() == 2));
+        verify(snapshotPublications).announce(SnapshotPublications.Kind.SNAPSHOT);
+        verify(conditionalFetcher, never()).fetch(anyString());
+    }
+
+    @Test
+    @DisplayName("An archive older than the last publication is loaded into memory but never written to the shared DB")
+    void testWarmStartKeepsNewerDatabase() throws IOException {
+        archive(SnapshotArchive.BOOTSTRAP, """
+                {"teams": [{"id": 1, "short_name": "LIV"}], "elements": [{"id": 1, "team": 1}, {"id": 2, "team": 1}]}
+                """, 5);
+        when(playerRepository.count()).thenReturn(700L);
+        when(snapshotPublications.latestPublishedAt()).thenReturn(Optional.of(LocalDateTime.now().plusMinutes(1)));
+
+        fplDataService.loadIndexes();
+
+        assertThat(fplIndexService.getPlayerSnapshot().size()).isEqualTo(2);
+        verifyNoInteractions(upsertRepository, playerStatsStore);
+        verify(snapshotPublications, never()).announce(SnapshotPublications.Kind.SNAPSHOT);
+    }
+
+    @Test
+    @DisplayName("Replay mode loads the archived gameweek at startup without reading the DB")
+    void testReplayAtStartupSkipsDatabase() throws IOException {
+        archive(SnapshotArchive.BOOTSTRAP, """
+                {"teams": [{"id": 1, "short_name": "LIV"}], "elements": [{"id": 1, "team": 1}]}
+                """, 4);
+        doReturn(Optional.of(4)).when(snapshotArchive).replayGameweek();
+
+        fplDataService.loadIndexes();
+
+        assertThat(fplIndexService.getPlayerSnapshot().size()).isEqualTo(1);
+        verifyNoInteractions(playerRepository, teamRepository, fixtureRepository, upsertRepository);
+    }
+
+    @Test
+    @DisplayName("Replay loads an archived gameweek into the indexes without writing to the DB")
+    void testReplay() throws IOException {
+        archive(SnapshotArchive.BOOTSTRAP, """
+                {"teams": [{"id": 1, "short_name": "LIV"}], "elements": [{"id": 1, "team": 1}]}
+                """, 4);
+        archive(SnapshotArchive.BOOTSTRAP, """
+                {"teams": [{"id": 1, "short_name": "LIV"}], "elements": [{"id": 1, "team": 1}, {"id": 2, "team": 1}]}
+                """, 5);
+        archive(SnapshotArchive.FIXTURES, FIXTURES, 3);
+
+        fplDataService.replay(4).block();
+
+        assertThat(fplIndexService.getPlayerSnapshot().size()).isEqualTo(1);
+        assertThat(fplDataService.getCurrentGameweek()).isEqualTo(5);
+        verifyNoInteractions(upsertRepository);
+        assertThatThrownBy(() -> fplDataService.replay(9).block()).hasMessageContaining("gameweek 9");
+    }
+
+    private void archive(String payload, String json, int gameweek) throws IOException {
+        Path source = Files.writeString(archiveDir.resolve("source.json"), json);
+        snapshotArchive.record(snapshotArchive.store(payload, source, Integer.toHexString(json.hashCode()) + "0000000000").orElseThrow(),
+                gameweek);
     }
 
     @Test
@@ -100,17 +316,6 @@ class FPLDataServiceTest {
         verify(playerRepository).findAll();
     }
 
-    @Test
-    @DisplayName("Get available player IDs")
-    void testGetAvailablePlayersId() {
-        Set<Long> ids = Set.of(1L, 2L, 3L);
-        when(playerRepository.getAllPlayerIds()).thenReturn(ids);
-
-        Set<Long> result = fplDataService.getAvailablePlayersId();
-        assertThat(result).containsExactlyInAnyOrder(1L, 2L, 3L);
-        verify(playerRepository).getAllPlayerIds();
-    }
-
     @Test
     @DisplayName("Get players by position")
     void testGetPlayersByPosition() {
@@ -133,10 +338,12 @@ class FPLDataServiceTest {
         fixture2.setGameWeek(6);
         fixture2.setFinished(false);
 
-        when(fixtureRepository.findAll()).thenReturn(List.of(fixture1, fixture2));
+        fplIndexService.rebuildFixtures(List.of(fixture1, fixture2));
 
         Integer currentGw = fplDataService.getCurrentGameweek();
         assertThat(currentGw).isEqualTo(5);
+        // Served from the calendar, not a full fixtures scan
+        verify(fixtureRepository, never()).findAll();
     }
 
     @Test
@@ -147,10 +354,19 @@ class FPLDataServiceTest {
                 .name("Liverpool")
                 .shortName("LIV")
                 .build();
-        when(teamRepository.findById(1)).thenReturn(java.util.Optional.of(team));
+        fplIndexService.rebuildTeams(List.of(team));
 
         Team result = fplDataService.getTeam(1);
         assertThat(result.getName()).isEqualTo("Liverpool");
-        verify(teamRepository).findById(1);
+        assertThat(fplDataService.getTeamShortName(1)).isEqualTo("LIV");
+        assertThat(fplDataService.getTeam(2)).isNull();
+        verify(teamRepository, never()).findById(anyInt());
+    }
+
+    private static ClientResponse ok(String json) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(json)
+                .build();
     }
 }
@@ -0,0 +1,100 @@
+package com.project.mvprecommender.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.MalformedValues;
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.Team;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FplStreamReaderTest {
+
+    private static final String BOOTSTRAP = """
+            {"events": [{"id": 1, "chip_plays": [{"chip_name": "bboost", "num_played": 10}], "teams": [99]}],
+             "game_settings": {"elements": [{"id": 999}]},
+             "teams": [{"id": 1, "name": "Liverpool", "short_name": "LIV", "pulse_id": 10},
+                       {"id": 2, "name": "Arsenal", "short_name": "ARS", "pulse_id": 1}],
+             "elements": [{"id": 1, "web_name": "Salah", "form": "7.2", "element_type": 3, "chance_of_playing_next_round": null},
+                          {"id": 2, "web_name": "Saka", "form": "n/a", "element_type": 3, "news": "{\\"not\\": [\\"json\\"]}"},
+                          {"id": 3, "web_name": "Haaland", "form": "8.0", "element_type": 4}],
+             "element_stats": [{"label": "Minutes", "name": "minutes"}],
+             "total_players": 11000000}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    @DisplayName("Requested sections stream out in bounded chunks whatever the network buffer size")
+    void testSectionsInChunks() {
+        FplStreamReader reader = new FplStreamReader(objectMapper, 2);
+
+        for (int bufferSize : new int[]{1, 7, 64, BOOTSTRAP.length()}) {
+            MalformedValues malformed = new MalformedValues();
+            List<FplStreamReader.Chunk> chunks = reader
+                    .read(split(BOOTSTRAP, bufferSize), Map.of("teams", Team.class, "elements", Player.class), malformed)
+                    .collectList()
+                    .block();
+
+            assertThat(chunks).extracting(FplStreamReader.Chunk::section).containsExactly("teams", "elements", "elements");
+            assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.items()).hasSizeLessThanOrEqualTo(2));
+            assertThat(chunks.get(0).itemsAs(Team.class)).extracting(Team::getShortName).containsExactly("LIV", "ARS");
+
+            List<Player> players = new ArrayList<>(chunks.get(1).itemsAs(Player.class));
+            players.addAll(chunks.get(2).itemsAs(Player.class));
+            assertThat(players).extracting(Player::getWebName).containsExactly("Salah", "Saka", "Haaland");
+            assertThat(players.get(0).getForm()).isEqualTo(7.2);
+            assertThat(players.get(1).getForm()).isNull();
+            assertThat(malformed.counts()).containsEntry("form", 1);
+        }
+    }
+
+    @Test
+    @DisplayName("A response that is itself an array streams from the root")
+    void testRootArray() {
+        FplStreamReader reader = new FplStreamReader(objectMapper, 10);
+        String fixtures = """
+                [{"id": 1, "event": 1, "team_h": 1, "team_a": 2, "stats": [{"identifier": "goals_scored", "a": [], "h": []}]},
+                 {"id": 2, "event": 1, "team_h": 3, "team_a": 4, "stats": []}]
+                """;
+
+        StepVerifier.create(reader.read(split(fixtures, 5), Map.of(FplStreamReader.ROOT, Fixture.class), new MalformedValues()))
+                .assertNext(chunk -> assertThat(chunk.itemsAs(Fixture.class)).extracting(Fixture::getTeamHome).containsExactly(1, 3))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("A truncated response fails instead of emitting a partial chunk")
+    void testTruncated() {
+        FplStreamReader reader = new FplStreamReader(objectMapper, 10);
+        String truncated = BOOTSTRAP.substring(0, BOOTSTRAP.indexOf("Haaland"));
+
+        StepVerifier.create(reader.read(split(truncated, 16), Map.of("teams", Team.class, "elements", Player.class), new MalformedValues()))
+                .expectNextCount(1)
+                .verifyError();
+    }
+
+    private static Flux<DataBuffer> split(String json, int bufferSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += bufferSize) {
+            byte[] slice = Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + bufferSize));
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(slice));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,164 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.configuration.MvpExternalClientProperties;
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.PlayerGameweekLive;
+import com.project.mvprecommender.repository.PlayerLiveRepository;
+import com.project.mvprecommender.repository.UpsertRepository;
+import com.project.mvprecommender.repository.UpsertTable;
+import com.project.mvprecommender.snapshot.LiveGameweek;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Replays recorded {@code event/{gw}/live/} payloads from a local HTTP server, one per poll.
+ */
+class LiveGameweekServiceTest {
+
+    private static final List<String> POLLS = List.of("/fpl/live/gw5-poll1.json", "/fpl/live/gw5-poll2.json");
+
+    private final UpsertRepository upsertRepository = mock(UpsertRepository.class);
+    private final PlayerLiveRepository playerLiveRepository = mock(PlayerLiveRepository.class);
+    private final FplIndexService fplIndexService = new FplIndexService();
+    private final SnapshotPublications snapshotPublications = mock(SnapshotPublications.class);
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private HttpServer stub;
+    private LiveGameweekService service;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.createContext("/api/event/", this::handle);
+        stub.start();
+
+        MvpExternalClientProperties clientProperties = new MvpExternalClientProperties();
+        clientProperties.setLiveUrl("http://localhost:" + stub.getAddress().getPort() + "/api/event/{gw}/live/");
+        service = new LiveGameweekService(WebClient.builder().build(), clientProperties, fplIndexService,
+                new DiffUpsertService(upsertRepository), playerLiveRepository,
+                new IngestionMetrics(new SimpleMeterRegistry()), snapshotPublications, 30, 5);
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String recording = POLLS.get(Math.min(requests.getAndIncrement(), POLLS.size() - 1));
+        try (InputStream in = getClass().getResourceAsStream(recording)) {
+            byte[] body = in.readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Each poll writes and applies only the players whose stats changed since the previous poll")
+    void testPollAppliesDeltas() {
+        LiveGameweekService.Poll first = service.poll(5).block();
+
+        assertThat(first.players()).isEqualTo(3);
+        assertThat(first.changed()).isEqualTo(3);
+        assertThat(first.snapshotVersion()).isEqualTo(1);
+        LiveGameweek live = fplIndexService.current().live();
+        assertThat(live.gameweek()).isEqualTo(5);
+        assertThat(live.points(live.rowOf(2L))).isEqualTo(6);
+
+        LiveGameweekService.Poll second = service.poll(5).block();
+
+        // Player 2 scored again and player 4 came on; 1 and 3 are unchanged
+        assertThat(second.changed()).isEqualTo(2);
+        assertThat(second.deltas()).containsExactly(
+                new LiveGameweekService.Delta(2L, 3, 33),
+                new LiveGameweekService.Delta(4L, 1, 12));
+        LiveGameweek updated = fplIndexService.current().live();
+        assertThat(updated.size()).isEqualTo(4);
+        assertThat(updated.points(updated.rowOf(1L))).isEqualTo(1);
+        assertThat(updated.points(updated.rowOf(2L))).isEqualTo(9);
+        assertThat(updated.minutes(updated.rowOf(4L))).isEqualTo(12);
+        // The earlier snapshot is untouched
+        assertThat(live.points(live.rowOf(2L))).isEqualTo(6);
+
+        ArgumentCaptor<List<PlayerGameweekLive>> inserted = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<PlayerGameweekLive>> updatedRows = ArgumentCaptor.forClass(List.class);
+        verify(upsertRepository, times(2)).insert(eq(UpsertTable.PLAYER_LIVE), inserted.capture());
+        verify(upsertRepository, times(2)).update(eq(UpsertTable.PLAYER_LIVE), updatedRows.capture());
+        assertThat(inserted.getAllValues().get(1)).extracting(PlayerGameweekLive::getId).containsExactly(PlayerGameweekLive.key(4L, 5));
+        assertThat(updatedRows.getAllValues().get(1)).extracting(PlayerGameweekLive::getId).containsExactly(PlayerGameweekLive.key(2L, 5));
+        verify(snapshotPublications, times(2)).announce(SnapshotPublications.Kind.LIVE);
+    }
+
+    @Test
+    @DisplayName("A poll with nothing new publishes no snapshot")
+    void testUnchangedPoll() {
+        service.poll(5).block();
+        requests.set(0);
+
+        LiveGameweekService.Poll repeat = service.poll(5).block();
+
+        assertThat(repeat.changed()).isZero();
+        assertThat(repeat.snapshotVersion()).isNull();
+        assertThat(fplIndexService.current().version()).isEqualTo(1);
+        verify(snapshotPublications, times(1)).announce(SnapshotPublications.Kind.LIVE);
+    }
+
+    @Test
+    @DisplayName("Reloading takes the live stats another node stored and diffs the next poll against them")
+    void testReload() {
+        fplIndexService.rebuildFixtures(List.of(Fixture.builder().id(1L).gameWeek(5).teamHome(1).teamAway(2)
+                .kickoffTime(Instant.now().toString()).started(true).finished(false).build()));
+        List<PlayerGameweekLive> stored = List.of(
+                PlayerGameweekLive.builder().id(PlayerGameweekLive.key(1L, 5)).playerId(1L).gameWeek(5).minutes(45).totalPoints(1)
+                        .goalsScored(0).assists(0).cleanSheets(0).goalsConceded(0).saves(2).yellowCards(0).redCards(0)
+                        .bonus(0).bps(8).expectedGoals(0.0).expectedAssists(0.0).build());
+        when(playerLiveRepository.findByGameWeek(5)).thenReturn(stored);
+        when(playerLiveRepository.findAll()).thenReturn(stored);
+
+        service.reload();
+
+        LiveGameweek live = fplIndexService.current().live();
+        assertThat(live.size()).isEqualTo(1);
+        assertThat(live.points(live.rowOf(1L))).isEqualTo(1);
+        verifyNoInteractions(snapshotPublications);
+
+        // Player 1 is unchanged in the first recording
+        assertThat(service.poll(5).block().changed()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Polls run at the poll interval while fixtures are in play and wait for the next kickoff otherwise")
+    void testNextPoll() {
+        Instant kickoff = Instant.parse("2025-09-20T14:00:00Z");
+        fplIndexService.rebuildFixtures(List.of(Fixture.builder().id(1L).gameWeek(5).teamHome(1).teamAway(2)
+                .kickoffTime(kickoff.toString()).started(false).finished(false).build()));
+
+        assertThat(service.isLive(kickoff.minusSeconds(60))).isFalse();
+        assertThat(service.nextPoll(kickoff.minusSeconds(60))).isEqualTo(kickoff);
+        assertThat(service.nextPoll(kickoff.minusSeconds(3600))).isEqualTo(kickoff.minusSeconds(3600 - 300));
+        assertThat(service.isLive(kickoff.plusSeconds(60))).isTrue();
+        assertThat(service.nextPoll(kickoff.plusSeconds(60))).isEqualTo(kickoff.plusSeconds(90));
+    }
+}
@@ -1,69 +1,81 @@
 package com.project.mvprecommender.service;
 
+import com.project.mvprecommender.dto.BatchSquadRequest;
+import com.project.mvprecommender.dto.BatchSquadResult;
 import com.project.mvprecommender.dto.BudgetSquadRequest;
 import com.project.mvprecommender.dto.BudgetSquadResponse;
+import com.project.mvprecommender.dto.FormationSearchRequest;
 import com.project.mvprecommender.dto.MvpRecommendationResponse;
+import com.project.mvprecommender.dto.PlayerRecommendation;
+import com.project.mvprecommender.model.Fixture;
 import com.project.mvprecommender.model.Player;
-import com.project.mvprecommender.model.Team;
-import com.project.mvprecommender.repository.PlayerRepository;
+import com.project.mvprecommender.model.PlayerGameweekLive;
+import com.project.mvprecommender.model.helper.PlayerGenerator;
+import com.project.mvprecommender.snapshot.LiveGameweek;
+import com.project.mvprecommender.snapshot.ScoredPlayer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 class MvpRecommendationServiceTest {
 
     @Mock
-    private PlayerRepository playerRepository;
+    private AiAnalysisService aiAnalysisService;
 
-    @Mock
-    private FPLDataService fplDataService;
+    @Spy
+    private FplIndexService fplIndexService = new FplIndexService();
 
-    @Mock
-    private AiAnalysisService aiAnalysisService;
+    @Spy
+    private SquadOptimizer squadOptimizer = new SquadOptimizer(40);
 
     @InjectMocks
     private MvpRecommendationService recommendationService;
 
-    private Player samplePlayer;
-
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        // Sample Player
-        samplePlayer = new Player();
-        samplePlayer.setId(1L);
-        samplePlayer.setWebName("Player1");
-        samplePlayer.setPosition(3);
-        samplePlayer.setTeam(1);
-        samplePlayer.setForm("5.0");
-        samplePlayer.setTotalPoints(50);
-        samplePlayer.setNowCost(10);
+        // One sample player per position, served from the in-memory snapshot
+        fplIndexService.rebuildPlayers(List.of(
+                samplePlayer(1L, 1),
+                samplePlayer(2L, 2),
+                samplePlayer(3L, 3),
+                samplePlayer(4L, 4)
+        ));
     }
 
     @Test
     @DisplayName("Test getTopMvpPlayers returns expected response")
     void testGetTopMvpPlayers() {
-        // Mock repository
-        when(playerRepository.findByPosition(1)).thenReturn(List.of(samplePlayer));
-        when(playerRepository.findByPosition(2)).thenReturn(List.of(samplePlayer));
-        when(playerRepository.findByPosition(3)).thenReturn(List.of(samplePlayer));
-        when(playerRepository.findByPosition(4)).thenReturn(List.of(samplePlayer));
-
-        // Mock FPLDataService
-        when(fplDataService.getUpcomingFixtures(anyInt(), anyInt())).thenReturn(List.of());
-        when(fplDataService.getTeam(anyInt())).thenReturn(Team.builder().id(1).name("Team1").shortName("T1").build());
-        when(fplDataService.getCurrentGameweek()).thenReturn(5);
+        Fixture upcoming = new Fixture();
+        upcoming.setId(1L);
+        upcoming.setGameWeek(5);
+        upcoming.setTeamHome(1);
+        upcoming.setTeamAway(2);
+        upcoming.setKickoffTime(Instant.now().plus(Duration.ofDays(2)).toString());
+        upcoming.setFinished(false);
+        fplIndexService.rebuildFixtures(List.of(upcoming));
 
         // Mock AI service
         when(aiAnalysisService.analyzeTopPlayers(anyList(), anyString()))
@@ -77,16 +89,44 @@ class MvpRecommendationServiceTest {
                     assert response.getCurrentGameWeek() == 5;
                     assert response.getTopPlayersByPosition().size() == 4;
                     assert response.getAiInsights().contains("successfully");
+                    assert response.getSnapshotVersion() == fplIndexService.current().version();
                 })
                 .verifyComplete();
 
-        // Updated verification
-        verify(playerRepository, times(4)).findByPosition(anyInt());
-        // Use atLeast to avoid future failures if logic changes
-        verify(fplDataService, atLeast(4)).getUpcomingFixtures(anyInt(), anyInt());
+        // The whole request reads one pinned snapshot, scored once
+        verify(fplIndexService, times(1)).getPlayerScores(any());
         verify(aiAnalysisService, times(4)).analyzeTopPlayers(anyList(), anyString());
     }
 
+    @Test
+    @DisplayName("Test recommendations carry the live points of the current gameweek")
+    void testRecommendationsCarryLivePoints() {
+        Fixture upcoming = new Fixture();
+        upcoming.setId(1L);
+        upcoming.setGameWeek(5);
+        upcoming.setTeamHome(1);
+        upcoming.setTeamAway(2);
+        upcoming.setKickoffTime(Instant.now().plus(Duration.ofDays(2)).toString());
+        upcoming.setFinished(false);
+        fplIndexService.rebuildFixtures(List.of(upcoming));
+        fplIndexService.publish(fplIndexService.stage().live(LiveGameweek.build(5, List.of(
+                PlayerGameweekLive.builder().playerId(3L).gameWeek(5).totalPoints(7).minutes(60).build()))));
+
+        when(aiAnalysisService.analyzeTopPlayers(anyList(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture("AI Analysis"));
+
+        StepVerifier.create(recommendationService.getTopMvpPlayers())
+                .assertNext(response -> {
+                    List<PlayerRecommendation> players = response.getTopPlayersByPosition().values().stream()
+                            .flatMap(position -> position.getPlayers().stream())
+                            .toList();
+                    PlayerRecommendation live = players.stream().filter(p -> p.getPlayerId() == 3L).findFirst().orElseThrow();
+                    assert live.getLivePoints() == 7 && live.getLiveMinutes() == 60;
+                    assert players.stream().filter(p -> p.getPlayerId() != 3L).allMatch(p -> p.getLivePoints() == null);
+                })
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("Test generateBudgetSquad returns expected response")
     void testGenerateBudgetSquad() {
@@ -94,16 +134,9 @@ class MvpRecommendationServiceTest {
         request.setBudget(100.0);
         request.setFormation("4-4-2");
         request.setExcludedPlayers(List.of());
-        request.setMustHavePlayers(List.of());
+        request.setMustHavePlayers(List.of(5L));
+        fplIndexService.rebuildPlayers(PlayerGenerator.generatePlayerPool(200, 7L));
 
-        // Mock repository
-        when(playerRepository.findAffordablePlayersByPosition(anyInt(), anyInt()))
-                .thenReturn(List.of(samplePlayer));
-        when(playerRepository.findById(anyLong())).thenReturn(java.util.Optional.of(samplePlayer));
-
-        // Mock FPLDataService
-        when(fplDataService.getUpcomingFixtures(anyInt(), anyInt())).thenReturn(List.of());
-        when(fplDataService.getTeam(anyInt())).thenReturn(Team.builder().id(1).name("Team1").shortName("T1").build());
 
         // Mock AI service
         when(aiAnalysisService.analyzeSquad(anyList(), anyDouble()))
@@ -113,14 +146,203 @@ class MvpRecommendationServiceTest {
 
         StepVerifier.create(resultMono)
                 .assertNext(response -> {
-                    assert !response.getSelectedPlayers().isEmpty();
-                    assert response.getTotalCost() > 0;
+                    assert response.getSelectedPlayers().size() == 11;
+                    assert response.getSelectedPlayers().stream().anyMatch(p -> p.getPlayerId() == 5L);
+                    assert response.getTotalCost() > 0 && response.getTotalCost() <= 100.0;
+                    assert response.getOptimal();
                     assert response.getProjectedPoints() > 0;
                     assert response.getAiAnalysis().equals("AI Squad Analysis");
                 })
                 .verifyComplete();
 
-        verify(playerRepository, atLeastOnce()).findAffordablePlayersByPosition(anyInt(), anyInt());
+        verify(fplIndexService, times(1)).getPlayerScores(any());
+        verify(squadOptimizer).solve(any(), any());
         verify(aiAnalysisService).analyzeSquad(anyList(), anyDouble());
     }
+
+    @Test
+    @DisplayName("Test generateBudgetSquad rejects a budget below the cheapest legal XI without calling the AI")
+    void testGenerateBudgetSquadInfeasible() {
+        fplIndexService.rebuildPlayers(PlayerGenerator.generatePlayerPool(200, 7L));
+        BudgetSquadRequest request = BudgetSquadRequest.builder().budget(10.0).formation("4-4-2").build();
+
+        assertThatThrownBy(() -> recommendationService.generateBudgetSquad(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("budget too small");
+
+        verifyNoInteractions(aiAnalysisService);
+    }
+
+    @Test
+    @DisplayName("Test generateBestFormationSquad picks the best formation and analyzes only that squad")
+    void testGenerateBestFormationSquad() {
+        FormationSearchRequest request = FormationSearchRequest.builder()
+                .budget(100.0)
+                .alternatives(3)
+                .build();
+        fplIndexService.rebuildPlayers(PlayerGenerator.generatePlayerPool(200, 7L));
+
+        when(aiAnalysisService.analyzeSquad(anyList(), anyDouble()))
+                .thenReturn(CompletableFuture.completedFuture("AI Squad Analysis"));
+
+        StepVerifier.create(recommendationService.generateBestFormationSquad(request))
+                .assertNext(response -> {
+                    assert response.getFormationsEvaluated() == MvpRecommendationService.LEGAL_FORMATIONS.size();
+                    assert response.getBest().getSelectedPlayers().size() == 11;
+                    assert response.getBest().getAiAnalysis().equals("AI Squad Analysis");
+                    assert response.getAlternatives().size() == 3;
+                    assert response.getAlternatives().stream()
+                            .allMatch(alt -> alt.getTotalScore() <= response.getBest().getTotalScore() && alt.getAiAnalysis() == null);
+                    assert response.getAlternatives().stream()
+                            .noneMatch(alt -> alt.getFormation().equals(response.getBest().getFormation()));
+                })
+                .verifyComplete();
+
+        verify(fplIndexService, times(1)).getPlayerScores(any());
+        verify(squadOptimizer, times(MvpRecommendationService.LEGAL_FORMATIONS.size())).solve(any(), any());
+        verify(aiAnalysisService, times(1)).analyzeSquad(anyList(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Test generateBestFormationSquad fails when no formation fits the budget")
+    void testGenerateBestFormationSquadInfeasible() {
+        fplIndexService.rebuildPlayers(PlayerGenerator.generatePlayerPool(200, 7L));
+        FormationSearchRequest request = FormationSearchRequest.builder().budget(10.0).alternatives(3).build();
+
+        StepVerifier.create(recommendationService.generateBestFormationSquad(request))
+                .expectErrorSatisfies(error -> {
+                    assert error instanceof IllegalArgumentException;
+                    assert error.getMessage().contains("do not fit any legal formation");
+                })
+                .verify();
+
+        verifyNoInteractions(aiAnalysisService);
+    }
+
+    @Test
+    @DisplayName("Test generateBudgetSquadBatch solves duplicates once and batches the AI call")
+    void testGenerateBudgetSquadBatch() {
+        fplIndexService.rebuildPlayers(PlayerGenerator.generatePlayerPool(200, 7L));
+        BudgetSquadRequest first = BudgetSquadRequest.builder().budget(90.0).formation("4-4-2")
+                .mustHavePlayers(List.of(5L, 9L)).excludedPlayers(List.of()).build();
+        BudgetSquadRequest sameAsFirst = BudgetSquadRequest.builder().budget(90.0).formation("4-4-2")
+                .mustHavePlayers(List.of(9L, 5L)).build();
+        BudgetSquadRequest other = BudgetSquadRequest.builder().budget(100.0).formation("3-4-3").build();
+        BatchSquadRequest batch = BatchSquadRequest.builder()
+                .requests(List.of(first, other, sameAsFirst))
+                .includeAiAnalysis(true)
+                .build();
+
+        when(aiAnalysisService.analyzeSquads(anyList(), anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of("First", "Second")));
+
+        StepVerifier.create(recommendationService.generateBudgetSquadBatch(batch).collectList())
+                .assertNext(results -> {
+                    assert results.size() == 3;
+                    Map<Integer, BatchSquadResult> byIndex = results.stream()
+                            .collect(Collectors.toMap(BatchSquadResult::getIndex, r -> r));
+                    assert byIndex.keySet().equals(Set.of(0, 1, 2));
+                    assert byIndex.get(0).getSquad() == byIndex.get(2).getSquad();
+                    assert byIndex.get(0).getSquad().getSelectedPlayers().size() == 11;
+                    assert byIndex.get(1).getSquad().getFormation().equals("3-4-3");
+                    assert byIndex.values().stream().allMatch(r -> r.getSquad().getAiAnalysis() != null);
+                })
+                .verifyComplete();
+
+        verify(fplIndexService, times(1)).getPlayerScores(any());
+        verify(squadOptimizer, times(2)).solve(any(), any());
+        verify(aiAnalysisService, times(1)).analyzeSquads(anyList(), anyList());
+        verify(aiAnalysisService, never()).analyzeSquad(anyList(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Test generateBudgetSquadBatch reports unsolvable requests without failing the batch")
+    void testGenerateBudgetSquadBatchWithoutAi() {
+        fplIndexService.rebuildPlayers(PlayerGenerator.generatePlayerPool(200, 7L));
+        BatchSquadRequest batch = BatchSquadRequest.builder()
+                .requests(List.of(
+                        BudgetSquadRequest.builder().budget(100.0).formation("4-4-2").build(),
+                        BudgetSquadRequest.builder().budget(100.0).formation("4-4-2").mustHavePlayers(List.of(99999L)).build()))
+                .build();
+
+
+        StepVerifier.create(recommendationService.generateBudgetSquadBatch(batch).collectList())
+                .assertNext(results -> {
+                    assert results.size() == 2;
+                    BatchSquadResult failed = results.stream().filter(r -> r.getIndex() == 1).findFirst().orElseThrow();
+                    assert failed.getSquad() == null && failed.getError().contains("99999");
+                    BatchSquadResult solved = results.stream().filter(r -> r.getIndex() == 0).findFirst().orElseThrow();
+                    assert solved.getSquad().getAiAnalysis() == null;
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(aiAnalysisService);
+    }
+
+    @Test
+    @DisplayName("Test generateBudgetSquadBatch reports infeasible requests with a reason and analyzes only real squads")
+    void testGenerateBudgetSquadBatchInfeasible() {
+        fplIndexService.rebuildPlayers(PlayerGenerator.generatePlayerPool(200, 7L));
+        BatchSquadRequest batch = BatchSquadRequest.builder()
+                .requests(List.of(
+                        BudgetSquadRequest.builder().budget(100.0).formation("4-4-2").build(),
+                        BudgetSquadRequest.builder().budget(10.0).formation("4-4-2").build(),
+                        BudgetSquadRequest.builder().budget(95.0).formation("3-5-2").build()))
+                .includeAiAnalysis(true)
+                .build();
+
+        when(aiAnalysisService.analyzeSquads(anyList(), anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of("First", "Second")));
+
+        StepVerifier.create(recommendationService.generateBudgetSquadBatch(batch).collectList())
+                .assertNext(results -> {
+                    Map<Integer, BatchSquadResult> byIndex = results.stream()
+                            .collect(Collectors.toMap(BatchSquadResult::getIndex, r -> r));
+                    assert byIndex.keySet().equals(Set.of(0, 1, 2));
+                    assert byIndex.get(1).getSquad() == null && byIndex.get(1).getError().contains("budget too small");
+                    for (int index : new int[]{0, 2}) {
+                        assert byIndex.get(index).getError() == null;
+                        assert byIndex.get(index).getSquad().getSelectedPlayers().size() == 11;
+                        assert byIndex.get(index).getSquad().getAiAnalysis() != null;
+                    }
+                })
+                .verifyComplete();
+
+        verify(aiAnalysisService, times(1)).analyzeSquads(argThat(squads -> squads.size() == 2), anyList());
+    }
+
+    @Test
+    @DisplayName("Test concurrent requests share one precomputed set of scored players")
+    void testConcurrentRequestsShareScoredPlayers() throws Exception {
+        fplIndexService.rebuildPlayers(PlayerGenerator.generatePlayerPool(200, 7L));
+        List<ScoredPlayer> expected = recommendationService.getTopPlayersForPosition(3, 5);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<ScoredPlayer>>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> recommendationService.getTopPlayersForPosition(3, 5)));
+            }
+            for (Future<List<ScoredPlayer>> result : results) {
+                List<ScoredPlayer> players = result.get();
+                for (int i = 0; i < expected.size(); i++) {
+                    assert players.get(i) == expected.get(i);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Player samplePlayer(Long id, int position) {
+        Player player = new Player();
+        player.setId(id);
+        player.setWebName("Player" + id);
+        player.setPosition(position);
+        player.setTeam(1);
+        player.setForm(5.0);
+        player.setTotalPoints(50);
+        player.setNowCost(10);
+        return player;
+    }
 }
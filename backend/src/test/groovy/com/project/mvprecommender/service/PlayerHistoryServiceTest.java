@@ -0,0 +1,164 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.configuration.MvpExternalClientProperties;
+import com.project.mvprecommender.configuration.PlayerHistoryProperties;
+import com.project.mvprecommender.model.PlayerGameweekHistory;
+import com.project.mvprecommender.repository.PlayerHistoryRepository;
+import com.project.mvprecommender.repository.PlayerRepository;
+import com.project.mvprecommender.repository.UpsertRepository;
+import com.project.mvprecommender.repository.UpsertTable;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the sweep against a local HTTP server standing in for the FPL element-summary endpoint.
+ */
+class PlayerHistoryServiceTest {
+
+    private static final long FLAKY_PLAYER = 7;
+    private static final long MISSING_PLAYER = 13;
+
+    private final UpsertRepository upsertRepository = mock(UpsertRepository.class);
+    private final PlayerHistoryRepository playerHistoryRepository = mock(PlayerHistoryRepository.class);
+    private final Map<Long, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private HttpServer stub;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newFixedThreadPool(32));
+        stub.createContext("/api/element-summary/", this::handle);
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        long playerId = Long.parseLong(path[path.length - 1]);
+        int attempt = attempts.computeIfAbsent(playerId, id -> new AtomicInteger()).incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(5);
+            if (playerId == MISSING_PLAYER) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (playerId == FLAKY_PLAYER && attempt == 1) {
+                exchange.sendResponseHeaders(503, -1);
+            } else {
+                byte[] body = history(playerId).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static String history(long playerId) {
+        return """
+                {"fixtures": [],
+                 "history": [
+                   {"element": %1$d, "fixture": 1, "round": 1, "opponent_team": 4, "was_home": true,
+                    "minutes": 90, "total_points": 6, "expected_goals": "0.45", "value": 55},
+                   {"element": %1$d, "fixture": 12, "round": 2, "opponent_team": 9, "was_home": false,
+                    "minutes": 72, "total_points": 2, "expected_goals": "", "value": 55}
+                 ],
+                 "history_past": []}
+                """.formatted(playerId);
+    }
+
+    private PlayerHistoryService service(int parallelism, double requestsPerSecond, int burst) {
+        MvpExternalClientProperties clientProperties = new MvpExternalClientProperties();
+        clientProperties.setPlayerUrl("http://localhost:" + stub.getAddress().getPort() + "/api/element-summary/{id}/");
+        PlayerHistoryProperties properties = new PlayerHistoryProperties();
+        properties.setParallelism(parallelism);
+        properties.setRequestsPerSecond(requestsPerSecond);
+        properties.setBurst(burst);
+        properties.setMaxRetries(3);
+        properties.setMinBackoffMs(10);
+        properties.setBatchSize(200);
+        return new PlayerHistoryService(WebClient.builder().build(), clientProperties, properties,
+                mock(PlayerRepository.class), playerHistoryRepository, new DiffUpsertService(upsertRepository),
+                new IngestionMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("A sweep fetches every player with bounded parallelism, retries transient errors and skips missing players")
+    void testSweep() {
+        List<Long> playerIds = LongStream.rangeClosed(1, 300).boxed().toList();
+
+        PlayerHistoryService.Summary summary = service(8, 10_000, 100).sweep(playerIds).block();
+
+        assertThat(summary.players()).isEqualTo(300);
+        assertThat(summary.failed()).isEqualTo(1);
+        assertThat(summary.rows().inserted()).isEqualTo(299 * 2);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(8);
+        assertThat(attempts.get(FLAKY_PLAYER).get()).isEqualTo(2);
+        assertThat(attempts.get(MISSING_PLAYER).get()).isEqualTo(1);
+
+        ArgumentCaptor<List<PlayerGameweekHistory>> written = ArgumentCaptor.forClass(List.class);
+        verify(upsertRepository, atLeastOnce()).insert(eq(UpsertTable.PLAYER_HISTORY), written.capture());
+        PlayerGameweekHistory row = written.getAllValues().stream().flatMap(List::stream)
+                .filter(history -> history.getPlayerId() == 42L && history.getFixtureId() == 12L)
+                .findFirst().orElseThrow();
+        assertThat(row.getId()).isEqualTo(PlayerGameweekHistory.key(42, 12));
+        assertThat(row.getGameWeek()).isEqualTo(2);
+        assertThat(row.getWasHome()).isFalse();
+        assertThat(row.getExpectedGoals()).isNull();
+    }
+
+    @Test
+    @DisplayName("A repeated sweep writes nothing when history has not changed")
+    void testRepeatedSweep() {
+        PlayerHistoryService service = service(4, 10_000, 100);
+        List<Long> playerIds = List.of(1L, 2L, 3L);
+
+        service.sweep(playerIds).block();
+        PlayerHistoryService.Summary second = service.sweep(playerIds).block();
+
+        assertThat(second.rows().unchanged()).isEqualTo(6);
+        assertThat(second.rows().inserted() + second.rows().updated()).isZero();
+    }
+
+    @Test
+    @DisplayName("Requests are paced by the token bucket")
+    void testRateLimited() {
+        PlayerHistoryService.Summary summary = service(8, 20, 1).sweep(List.of(1L, 2L, 3L, 4L, 5L, 6L)).block();
+
+        // One request from the initial token, then one every 50 ms
+        assertThat(summary.elapsedMs()).isGreaterThanOrEqualTo(240);
+        assertThat(summary.failed()).isZero();
+    }
+}
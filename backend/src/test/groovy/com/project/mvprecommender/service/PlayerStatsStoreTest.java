@@ -0,0 +1,137 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.snapshot.PlayerSnapshot;
+import com.project.mvprecommender.snapshot.StatSegment;
+import com.project.mvprecommender.snapshot.StatSegment.Metric;
+import com.project.mvprecommender.snapshot.StatWindow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class PlayerStatsStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Captures are appended as segment files and reloaded after a restart")
+    void testAppendAndReload() throws IOException {
+        PlayerStatsStore store = new PlayerStatsStore(true, dir);
+        assertThat(store.append(segment(1, 0))).isTrue();
+        assertThat(store.append(segment(2, 0))).isTrue();
+        // A later capture of the same gameweek supersedes the earlier one but both stay on disk
+        assertThat(store.append(segment(2, 1))).isTrue();
+
+        assertThat(segmentFiles()).hasSize(3);
+
+        PlayerStatsStore reloaded = new PlayerStatsStore(true, dir);
+        reloaded.load();
+
+        assertThat(reloaded.gameweeks()).containsExactly(1, 2);
+        StatWindow window = reloaded.window(null, 1, 2);
+        assertThat(window.size()).isEqualTo(4);
+        assertThat(window.value(Metric.TOTAL_POINTS, 0, 1)).isEqualTo(store.window(null, 2, 2).value(Metric.TOTAL_POINTS, 0, 0));
+        assertThat(window.value(Metric.NOW_COST, 0, 1)).isEqualTo(47);
+    }
+
+    @Test
+    @DisplayName("A capture identical to the latest one of its gameweek is not appended")
+    void testUnchangedCaptureIsSkipped() throws IOException {
+        PlayerStatsStore store = new PlayerStatsStore(true, dir);
+        assertThat(store.append(segment(3, 0))).isTrue();
+        assertThat(store.append(segment(3, 0))).isFalse();
+
+        assertThat(segmentFiles()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Range scans return the last gameweeks of one position, with gaps for players not yet captured")
+    void testLastGameweeksForPosition() {
+        PlayerStatsStore store = new PlayerStatsStore(true, dir);
+        for (int gameweek = 1; gameweek <= 10; gameweek++) {
+            store.append(segment(gameweek, 0));
+        }
+        // Player 5 only arrives in gameweek 10
+        store.append(StatSegment.capture(10, Instant.now(), PlayerSnapshot.build(List.of(
+                player(1L, 3, 10, 0), player(2L, 2, 10, 0), player(3L, 3, 10, 0), player(4L, 4, 10, 0), player(5L, 3, 10, 0)))));
+
+        StatWindow midfielders = store.lastGameweeks(3, 6, 10);
+
+        assertThat(midfielders.gameweeks()).containsExactly(5, 6, 7, 8, 9, 10);
+        assertThat(midfielders.size()).isEqualTo(3);
+        assertThat(midfielders.position(0)).isEqualTo(3);
+        // Total points grow by 6 a gameweek, so every gameweek's delta is 6 and form rises by 0.5
+        assertThat(midfielders.delta(Metric.TOTAL_POINTS, 0, 3)).isEqualTo(6);
+        assertThat(midfielders.slope(Metric.FORM, 0)).isCloseTo(0.5, offset(1e-6));
+        assertThat(midfielders.change(Metric.NOW_COST, 0)).isEqualTo(5);
+        int newcomer = 2;
+        assertThat(midfielders.id(newcomer)).isEqualTo(5L);
+        assertThat(midfielders.value(Metric.MINUTES, newcomer, 0)).isNaN();
+        assertThat(midfielders.change(Metric.NOW_COST, newcomer)).isNaN();
+
+        assertThat(store.lastGameweeks(3, 6, 3).gameweeks()).containsExactly(1, 2, 3);
+        assertThat(store.window(null, 12, 20).size()).isZero();
+    }
+
+    @Test
+    @DisplayName("A season of captures for every player is scanned in milliseconds")
+    void testScanSpeed() {
+        PlayerStatsStore store = new PlayerStatsStore(true, dir);
+        for (int gameweek = 1; gameweek <= 38; gameweek++) {
+            List<Player> players = new ArrayList<>();
+            for (long id = 1; id <= 700; id++) {
+                players.add(player(id, (int) (id % 4) + 1, gameweek, 0));
+            }
+            store.append(StatSegment.capture(gameweek, Instant.now(), PlayerSnapshot.build(players)));
+        }
+
+        store.lastGameweeks(3, 6, 38);
+        long start = System.nanoTime();
+        StatWindow window = store.lastGameweeks(3, 6, 38);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(window.size()).isEqualTo(175);
+        assertThat(window.gameweeks()).containsExactly(33, 34, 35, 36, 37, 38);
+        assertThat(elapsedMs).isLessThan(50);
+    }
+
+    private static StatSegment segment(int gameweek, int revision) {
+        List<Player> players = List.of(
+                player(1L, 3, gameweek, revision),
+                player(2L, 2, gameweek, revision),
+                player(3L, 3, gameweek, revision),
+                player(4L, 4, gameweek, revision));
+        return StatSegment.capture(gameweek, Instant.now().plusMillis(gameweek * 10L + revision), PlayerSnapshot.build(players));
+    }
+
+    private static Player player(Long id, int position, int gameweek, int revision) {
+        Player player = new Player();
+        player.setId(id);
+        player.setWebName("Player" + id);
+        player.setPosition(position);
+        player.setTeam(1);
+        player.setNowCost(45 + gameweek + revision - 1);
+        player.setTotalPoints(6 * gameweek + revision);
+        player.setMinutes(90 * gameweek);
+        player.setForm(0.5 * gameweek);
+        return player;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(file -> file.toString().endsWith(".seg.gz")).toList();
+        }
+    }
+}
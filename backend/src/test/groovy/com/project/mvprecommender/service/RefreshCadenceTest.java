@@ -0,0 +1,118 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.configuration.RefreshScheduleProperties;
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.service.RefreshCadence.Phase;
+import com.project.mvprecommender.service.RefreshCadence.Plan;
+import com.project.mvprecommender.snapshot.GameweekCalendar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshCadenceTest {
+
+    // Saturday 14:00 UTC, 15:00 in London
+    private static final Instant GW5_KICKOFF = Instant.parse("2025-09-20T14:00:00Z");
+    private static final Instant GW6_KICKOFF = Instant.parse("2025-09-27T14:00:00Z");
+
+    private final FplIndexService fplIndexService = new FplIndexService();
+    private RefreshCadence cadence;
+    private GameweekCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        RefreshScheduleProperties properties = new RefreshScheduleProperties();
+        properties.setLiveIntervalMinutes(2);
+        properties.setDeadlineIntervalMinutes(15);
+        properties.setIdleIntervalMinutes(360);
+        properties.setPreKickoffMinutes(60);
+        properties.setDeadlineOffsetMinutes(90);
+        properties.setDeadlineWindowHours(24);
+        properties.setDailyTimes(new String[]{"01:35"});
+        properties.setZone("Europe/London");
+        cadence = new RefreshCadence(fplIndexService, properties);
+
+        List<Fixture> fixtures = List.of(
+                fixture(1L, 5, GW5_KICKOFF),
+                fixture(2L, 5, GW5_KICKOFF.plus(Duration.ofHours(3))),
+                fixture(3L, 6, GW6_KICKOFF));
+        fplIndexService.rebuildFixtures(fixtures);
+        calendar = fplIndexService.current().calendar();
+    }
+
+    @Test
+    @DisplayName("Matches in progress or about to kick off are polled at the live interval")
+    void testLive() {
+        assertPlan(GW5_KICKOFF.minus(Duration.ofMinutes(30)), Phase.LIVE, Duration.ofMinutes(2));
+        assertPlan(GW5_KICKOFF.plus(Duration.ofMinutes(100)), Phase.LIVE, Duration.ofMinutes(2));
+        // Between the two matches' windows there is no gap: the second kicks off within the hour
+        assertPlan(GW5_KICKOFF.plus(Duration.ofMinutes(140)), Phase.LIVE, Duration.ofMinutes(2));
+    }
+
+    @Test
+    @DisplayName("The day before a deadline is polled at the deadline interval, never sleeping into a pre-kickoff window")
+    void testDeadline() {
+        Instant deadline = GW5_KICKOFF.minus(Duration.ofMinutes(90));
+        assertPlan(deadline.minus(Duration.ofHours(10)), Phase.DEADLINE, Duration.ofMinutes(15));
+
+        assertPlan(deadline.minus(Duration.ofMinutes(5)), Phase.DEADLINE, Duration.ofMinutes(15));
+
+        // Past the deadline the next one is a week away, but the match about to start wakes it up
+        Plan afterDeadline = cadence.plan(calendar, GW5_KICKOFF.minus(Duration.ofMinutes(65)));
+        assertThat(afterDeadline.phase()).isEqualTo(Phase.IDLE);
+        assertThat(afterDeadline.next()).isEqualTo(GW5_KICKOFF.minus(Duration.ofMinutes(60)));
+    }
+
+    @Test
+    @DisplayName("Quiet periods back off, waking up for the daily news time and the next deadline window")
+    void testIdle() {
+        // Tuesday 12:00 UTC after gameweek 5: six hours later is before 01:35 London
+        Instant tuesday = Instant.parse("2025-09-23T12:00:00Z");
+        assertPlan(tuesday, Phase.IDLE, Duration.ofHours(6));
+
+        // Tuesday 22:00 UTC: the 01:35 London (00:35 UTC) price update comes first
+        Plan night = cadence.plan(calendar, Instant.parse("2025-09-23T22:00:00Z"));
+        assertThat(night.phase()).isEqualTo(Phase.IDLE);
+        assertThat(night.next()).isEqualTo(Instant.parse("2025-09-24T00:35:00Z"));
+
+        // Thursday 20:00 UTC: the deadline window for gameweek 6 opens at Friday 12:30 UTC
+        Instant deadlineWindow = GW6_KICKOFF.minus(Duration.ofMinutes(90)).minus(Duration.ofHours(24));
+        Plan thursday = cadence.plan(calendar, deadlineWindow.minus(Duration.ofHours(2)));
+        assertThat(thursday.phase()).isEqualTo(Phase.IDLE);
+        assertThat(thursday.next()).isEqualTo(deadlineWindow);
+    }
+
+    @Test
+    @DisplayName("The next refresh is planned from the current snapshot's calendar")
+    void testNext() {
+        Instant now = GW5_KICKOFF.plus(Duration.ofMinutes(10));
+
+        assertThat(cadence.next(now)).isEqualTo(now.plus(Duration.ofMinutes(2)));
+    }
+
+    @Test
+    @DisplayName("Without fixtures the refresh keeps trying at the deadline pace")
+    void testEmptyCalendar() {
+        Instant now = Instant.parse("2025-09-23T12:00:00Z");
+        Plan plan = cadence.plan(GameweekCalendar.empty(), now);
+
+        assertThat(plan.next()).isEqualTo(now.plus(Duration.ofMinutes(15)));
+    }
+
+    private void assertPlan(Instant now, Phase phase, Duration delay) {
+        Plan plan = cadence.plan(calendar, now);
+        assertThat(plan.phase()).isEqualTo(phase);
+        assertThat(plan.next()).isEqualTo(now.plus(delay));
+    }
+
+    private static Fixture fixture(long id, int gameweek, Instant kickoff) {
+        return Fixture.builder().id(id).gameWeek(gameweek).teamHome(1).teamAway(2)
+                .kickoffTime(kickoff.toString()).finished(false).build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.dto.RefreshJobStatus;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RefreshCoordinatorTest {
+
+    private final FPLDataService fplDataService = mock(FPLDataService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RefreshCoordinator refreshCoordinator =
+            new RefreshCoordinator(fplDataService, new IngestionMetrics(meterRegistry));
+
+    @Test
+    @DisplayName("A trigger while a refresh is in flight joins it instead of starting another")
+    void testCoalescesConcurrentTriggers() {
+        Sinks.Empty<Void> upstream = Sinks.empty();
+        when(fplDataService.refresh(any())).thenReturn(upstream.asMono());
+
+        RefreshJobStatus first = refreshCoordinator.trigger("scheduled");
+        RefreshJobStatus second = refreshCoordinator.trigger("manual");
+        assertThat(refreshCoordinator.running()).get().extracting(RefreshJobStatus::getJobId).isEqualTo(first.getJobId());
+
+        assertThat(first.getCoalesced()).isFalse();
+        assertThat(second.getCoalesced()).isTrue();
+        assertThat(second.getJobId()).isEqualTo(first.getJobId());
+        assertThat(second.getTrigger()).isEqualTo("scheduled");
+        verify(fplDataService, times(1)).refresh(any());
+
+        upstream.tryEmitEmpty();
+
+        assertThat(refreshCoordinator.status(first.getJobId())).get()
+                .extracting(RefreshJobStatus::getState).isEqualTo("SUCCEEDED");
+        assertThat(refreshCoordinator.running()).isEmpty();
+        RefreshJobStatus next = refreshCoordinator.trigger("manual");
+        assertThat(next.getJobId()).isNotEqualTo(first.getJobId());
+        verify(fplDataService, times(2)).refresh(any());
+    }
+
+    @Test
+    @DisplayName("A failed refresh is reported as FAILED with its error and does not block the next one")
+    void testFailedRefresh() {
+        when(fplDataService.refresh(any())).thenReturn(Mono.error(new IllegalStateException("upstream down")));
+
+        RefreshJobStatus status = refreshCoordinator.refresh("manual").block();
+
+        assertThat(status.getState()).isEqualTo("FAILED");
+        assertThat(status.getError()).isEqualTo("upstream down");
+        assertThat(status.getFinishedAt()).isNotNull();
+        assertThat(refreshCoordinator.trigger("manual").getCoalesced()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Stage timings recorded by the pipeline show up in the job status")
+    void testStageTimings() {
+        when(fplDataService.refresh(any())).thenAnswer(invocation -> {
+            RefreshJob job = invocation.getArgument(0);
+            job.record(RefreshJob.Stage.FETCH, 2_000_000);
+            job.record(RefreshJob.Stage.FETCH, 500_000);
+            job.unchanged("fixtures");
+            return Mono.empty();
+        });
+
+        RefreshJobStatus status = refreshCoordinator.refresh("manual").block();
+
+        assertThat(status.getState()).isEqualTo("SUCCEEDED");
+        assertThat(status.getStages()).singleElement()
+                .satisfies(stage -> {
+                    assertThat(stage.getStage()).isEqualTo("fetch");
+                    assertThat(stage.getDurationMs()).isEqualTo(2.5);
+                });
+        assertThat(status.getUnchanged()).containsExactly("fixtures");
+        // Every finished run also lands in the duration histograms
+        Timer run = meterRegistry.get(IngestionMetrics.REFRESH_DURATION)
+                .tag("trigger", "manual").tag("outcome", "succeeded").timer();
+        assertThat(run.count()).isEqualTo(1);
+        assertThat(meterRegistry.get(IngestionMetrics.REFRESH_STAGE_DURATION).tag("stage", "fetch").timer()
+                .totalTime(TimeUnit.NANOSECONDS)).isEqualTo(2_500_000);
+    }
+
+    @Test
+    @DisplayName("Unknown job ids have no status")
+    void testUnknownJob() {
+        assertThat(refreshCoordinator.status("missing")).isEmpty();
+    }
+}
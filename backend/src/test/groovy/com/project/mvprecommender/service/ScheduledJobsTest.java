@@ -0,0 +1,140 @@
+package com.project.mvprecommender.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobBuilder;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.StdSchedulerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the self-rescheduling jobs on an in-memory Quartz scheduler.
+ */
+class ScheduledJobsTest {
+
+    private final SchedulerService schedulerService = mock(SchedulerService.class);
+    private Scheduler scheduler;
+
+    @BeforeEach
+    void startScheduler() throws SchedulerException {
+        Properties properties = new Properties();
+        properties.setProperty("org.quartz.scheduler.instanceName", "scheduled-jobs-test");
+        properties.setProperty("org.quartz.threadPool.threadCount", "1");
+        properties.setProperty("org.quartz.jobStore.class", "org.quartz.simpl.RAMJobStore");
+        scheduler = new StdSchedulerFactory(properties).getScheduler();
+        scheduler.setJobFactory((bundle, owner) -> bundle.getJobDetail().getJobClass() == ScheduledJobs.Refresh.class
+                ? new ScheduledJobs.Refresh(schedulerService)
+                : new ScheduledJobs.LivePoll(schedulerService));
+    }
+
+    @AfterEach
+    void stopScheduler() throws SchedulerException {
+        scheduler.shutdown(true);
+    }
+
+    private static final Duration FALLBACK = Duration.ofDays(1);
+
+    @Test
+    @DisplayName("A refresh moves its trigger to the time it planned next, keeping the fallback interval")
+    void testRefreshReschedulesItself() throws Exception {
+        Instant next = Instant.now().plus(Duration.ofHours(1)).truncatedTo(ChronoUnit.MILLIS);
+        when(schedulerService.updateFplData()).thenReturn(next);
+        scheduler.scheduleJob(JobBuilder.newJob(ScheduledJobs.Refresh.class).withIdentity(ScheduledJobs.REFRESH).build(),
+                ScheduledJobs.recurring(ScheduledJobs.REFRESH, Instant.now(), FALLBACK));
+
+        scheduler.start();
+        Trigger trigger = awaitNextFire(TriggerKey.triggerKey(ScheduledJobs.REFRESH.getName(), ScheduledJobs.GROUP), next);
+
+        verify(schedulerService, times(1)).updateFplData();
+        assertThat(trigger.getMisfireInstruction()).isEqualTo(SimpleTrigger.MISFIRE_INSTRUCTION_FIRE_NOW);
+        assertThat(((SimpleTrigger) trigger).getRepeatInterval()).isEqualTo(FALLBACK.toMillis());
+    }
+
+    @Test
+    @DisplayName("A planned time beyond the fallback interval is brought forward to it")
+    void testPlannedTimeIsCappedByFallback() throws Exception {
+        when(schedulerService.updateFplData()).thenReturn(Instant.now().plus(Duration.ofDays(30)));
+        scheduler.scheduleJob(JobBuilder.newJob(ScheduledJobs.Refresh.class).withIdentity(ScheduledJobs.REFRESH).build(),
+                ScheduledJobs.recurring(ScheduledJobs.REFRESH, Instant.now(), FALLBACK));
+        TriggerKey key = TriggerKey.triggerKey(ScheduledJobs.REFRESH.getName(), ScheduledJobs.GROUP);
+
+        scheduler.start();
+        verify(schedulerService, timeout(5_000)).updateFplData();
+        Thread.sleep(100);
+
+        Date nextFire = scheduler.getTrigger(key).getNextFireTime();
+        assertThat(nextFire).isBefore(Date.from(Instant.now().plus(FALLBACK).plusSeconds(1)));
+        assertThat(nextFire).isAfter(Date.from(Instant.now().plus(FALLBACK).minus(Duration.ofMinutes(1))));
+    }
+
+    @Test
+    @DisplayName("A run that fails before rescheduling still fires again after the fallback interval")
+    void testFailedRunKeepsTrigger() throws Exception {
+        when(schedulerService.updateFplData()).thenThrow(new IllegalStateException("boom"));
+        scheduler.scheduleJob(JobBuilder.newJob(ScheduledJobs.Refresh.class).withIdentity(ScheduledJobs.REFRESH).build(),
+                ScheduledJobs.recurring(ScheduledJobs.REFRESH, Instant.now(), Duration.ofMillis(200)));
+
+        scheduler.start();
+
+        verify(schedulerService, timeout(5_000).atLeast(2)).updateFplData();
+    }
+
+    @Test
+    @DisplayName("A missed live poll fires as soon as the scheduler is up")
+    void testMissedPollFiresNow() throws Exception {
+        Instant next = Instant.now().plus(Duration.ofMinutes(5)).truncatedTo(ChronoUnit.MILLIS);
+        when(schedulerService.pollLiveGameweek()).thenReturn(next);
+        scheduler.scheduleJob(JobBuilder.newJob(ScheduledJobs.LivePoll.class).withIdentity(ScheduledJobs.LIVE_POLL).build(),
+                ScheduledJobs.recurring(ScheduledJobs.LIVE_POLL, Instant.now().minus(Duration.ofMinutes(10)), FALLBACK));
+
+        scheduler.start();
+        awaitNextFire(TriggerKey.triggerKey(ScheduledJobs.LIVE_POLL.getName(), ScheduledJobs.GROUP), next);
+
+        verify(schedulerService, times(1)).pollLiveGameweek();
+    }
+
+    @Test
+    @DisplayName("Registering a self-planning trigger keeps the time an earlier run planned")
+    void testScheduleIfAbsentKeepsPlannedTime() throws Exception {
+        Instant planned = Instant.now().plus(Duration.ofHours(1)).truncatedTo(ChronoUnit.MILLIS);
+        scheduler.scheduleJob(JobBuilder.newJob(ScheduledJobs.Refresh.class).withIdentity(ScheduledJobs.REFRESH).build(),
+                ScheduledJobs.recurring(ScheduledJobs.REFRESH, planned, FALLBACK));
+        scheduler.addJob(JobBuilder.newJob(ScheduledJobs.LivePoll.class).withIdentity(ScheduledJobs.LIVE_POLL)
+                .storeDurably().build(), false);
+
+        boolean refreshAdded = ScheduledJobs.scheduleIfAbsent(scheduler,
+                ScheduledJobs.recurring(ScheduledJobs.REFRESH, Instant.now(), FALLBACK));
+        boolean livePollAdded = ScheduledJobs.scheduleIfAbsent(scheduler,
+                ScheduledJobs.recurring(ScheduledJobs.LIVE_POLL, Instant.now(), FALLBACK));
+
+        assertThat(refreshAdded).isFalse();
+        assertThat(scheduler.getTrigger(TriggerKey.triggerKey(ScheduledJobs.REFRESH.getName(), ScheduledJobs.GROUP))
+                .getNextFireTime()).isEqualTo(Date.from(planned));
+        assertThat(livePollAdded).isTrue();
+        assertThat(scheduler.checkExists(TriggerKey.triggerKey(ScheduledJobs.LIVE_POLL.getName(), ScheduledJobs.GROUP))).isTrue();
+    }
+
+    private Trigger awaitNextFire(TriggerKey key, Instant expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            Trigger trigger = scheduler.getTrigger(key);
+            if (trigger != null && Date.from(expected).equals(trigger.getNextFireTime())) return trigger;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Trigger " + key + " was not rescheduled to " + expected);
+    }
+}
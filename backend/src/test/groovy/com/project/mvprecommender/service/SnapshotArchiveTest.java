@@ -0,0 +1,104 @@
+package com.project.mvprecommender.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotArchiveTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path dir;
+
+    private SnapshotArchive archive(int retain) {
+        SnapshotArchive archive = new SnapshotArchive(objectMapper, true, dir, retain, null);
+        archive.loadManifest();
+        return archive;
+    }
+
+    private SnapshotArchive.Entry store(SnapshotArchive archive, String payload, String json) throws IOException {
+        Path source = Files.writeString(dir.resolve("source.json"), json);
+        return archive.store(payload, source, "%064x".formatted(json.hashCode())).orElseThrow();
+    }
+
+    private static String read(SnapshotArchive archive, SnapshotArchive.Entry entry) {
+        return DataBufferUtils.join(archive.read(entry))
+                .map(buffer -> {
+                    String text = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return text;
+                })
+                .block();
+    }
+
+    @Test
+    @DisplayName("Archived payloads are compressed, round-trip intact and survive a restart once recorded")
+    void testRoundTrip() throws IOException {
+        SnapshotArchive archive = archive(10);
+        String json = "{\"elements\": [" + "{\"id\": 1, \"web_name\": \"Salah\"},".repeat(500) + "{\"id\": 2}]}";
+
+        SnapshotArchive.Entry entry = store(archive, SnapshotArchive.BOOTSTRAP, json);
+        assertThat(archive.latest(SnapshotArchive.BOOTSTRAP)).isEmpty();
+        archive.record(entry, 3);
+
+        assertThat(entry.bytes()).isLessThan(json.length() / 10);
+        assertThat(read(archive, entry)).isEqualTo(json);
+
+        SnapshotArchive restarted = archive(10);
+        assertThat(restarted.latest(SnapshotArchive.BOOTSTRAP)).get()
+                .satisfies(latest -> {
+                    assertThat(latest.version()).isEqualTo(entry.version());
+                    assertThat(latest.gameweek()).isEqualTo(3);
+                });
+        assertThat(read(restarted, restarted.latest(SnapshotArchive.BOOTSTRAP).orElseThrow())).isEqualTo(json);
+    }
+
+    @Test
+    @DisplayName("Versions are looked up by gameweek, newest first")
+    void testLatestByGameweek() throws IOException {
+        SnapshotArchive archive = archive(10);
+        archive.record(store(archive, SnapshotArchive.FIXTURES, "[1]"), 2);
+        archive.record(store(archive, SnapshotArchive.FIXTURES, "[2]"), 4);
+        archive.record(store(archive, SnapshotArchive.FIXTURES, "[3]"), 4);
+
+        assertThat(archive.latest(SnapshotArchive.FIXTURES, 3).map(entry -> read(archive, entry))).contains("[1]");
+        assertThat(archive.latest(SnapshotArchive.FIXTURES, 4).map(entry -> read(archive, entry))).contains("[3]");
+        assertThat(archive.latest(SnapshotArchive.FIXTURES, 1)).isEmpty();
+        assertThat(archive.latest(SnapshotArchive.BOOTSTRAP)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Versions beyond the retention limit are deleted and dropped from the manifest")
+    void testRetention() throws IOException {
+        SnapshotArchive archive = archive(2);
+        SnapshotArchive.Entry oldest = store(archive, SnapshotArchive.FIXTURES, "[1]");
+        archive.record(oldest, 1);
+        archive.record(store(archive, SnapshotArchive.FIXTURES, "[2]"), 2);
+        archive.record(store(archive, SnapshotArchive.FIXTURES, "[3]"), 3);
+
+        assertThat(dir.resolve(oldest.file())).doesNotExist();
+        assertThat(archive.latest(SnapshotArchive.FIXTURES, 1)).isEmpty();
+        assertThat(archive(2).latest(SnapshotArchive.FIXTURES, 2)).isPresent();
+        assertThat(archive(2).latest(SnapshotArchive.FIXTURES, 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A disabled archive stores nothing")
+    void testDisabled() throws IOException {
+        SnapshotArchive archive = new SnapshotArchive(objectMapper, false, dir, 10, null);
+        Path source = Files.writeString(dir.resolve("source.json"), "{}");
+
+        assertThat(archive.store(SnapshotArchive.BOOTSTRAP, source, "abc")).isEmpty();
+    }
+}
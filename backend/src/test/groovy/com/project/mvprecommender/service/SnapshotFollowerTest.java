@@ -0,0 +1,168 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.configuration.ClusterFollowConfig;
+import com.project.mvprecommender.configuration.SchedulingConfig;
+import com.project.mvprecommender.model.SnapshotPublication;
+import com.project.mvprecommender.service.SnapshotPublications.Kind;
+import com.project.mvprecommender.repository.SnapshotPublicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SnapshotFollowerTest {
+
+    private final SnapshotPublicationRepository repository = mock(SnapshotPublicationRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final FPLDataService fplDataService = mock(FPLDataService.class);
+    private final LiveGameweekService liveGameweekService = mock(LiveGameweekService.class);
+    private final SnapshotPublications publications = new SnapshotPublications(repository, jdbcTemplate);
+    // Reloads run when the queued task is drained, standing in for the background thread
+    private final List<Runnable> queued = new ArrayList<>();
+    private final SnapshotFollower follower = new SnapshotFollower(publications, fplDataService, liveGameweekService,
+            new FplIndexService(), queued::add);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(false);
+        when(repository.bump(anyInt(), any(), anyString())).thenReturn(1);
+    }
+
+    private void stored(long generation) {
+        stored(Kind.SNAPSHOT, generation);
+    }
+
+    private void stored(Kind kind, long generation) {
+        when(repository.findById(kind.id()))
+                .thenReturn(Optional.of(new SnapshotPublication(kind.id(), generation, LocalDateTime.now(), "other")));
+    }
+
+    private void drain() {
+        List<Runnable> tasks = List.copyOf(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    @DisplayName("A node reloads what other nodes published in the background, but not its own publications")
+    void testFollow() {
+        stored(1);
+
+        assertThat(publications.announce(Kind.SNAPSHOT)).isEqualTo(1);
+        follower.published(Kind.SNAPSHOT, 1);
+        follower.catchUp();
+        assertThat(queued).isEmpty();
+
+        stored(2);
+        follower.published(Kind.SNAPSHOT, 2);
+        verifyNoInteractions(fplDataService);
+        drain();
+
+        verify(fplDataService, times(1)).reloadFromDatabase();
+        verify(liveGameweekService, times(1)).reload();
+        assertThat(publications.seen(Kind.SNAPSHOT)).isEqualTo(2);
+        follower.published(Kind.SNAPSHOT, 2);
+        assertThat(queued).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A live publication reloads only the live stats, not the whole snapshot")
+    void testLiveReloadsLiveOnly() {
+        stored(Kind.SNAPSHOT, 2);
+        publications.seen(Kind.SNAPSHOT, 2);
+        stored(Kind.LIVE, 40);
+
+        follower.published(Kind.LIVE, 40);
+        drain();
+
+        verify(liveGameweekService).reload();
+        verify(fplDataService, never()).reloadFromDatabase();
+        assertThat(publications.seen(Kind.LIVE)).isEqualTo(40);
+        assertThat(Kind.ofChannel(Kind.LIVE.channel())).contains(Kind.LIVE);
+        assertThat(Kind.ofChannel("other")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A burst of announcements reloads once, at the latest generation")
+    void testBurstCoalesces() {
+        stored(5);
+
+        follower.published(Kind.SNAPSHOT, 3);
+        follower.published(Kind.SNAPSHOT, 4);
+        follower.published(Kind.SNAPSHOT, 5);
+        assertThat(queued).hasSize(1);
+        drain();
+
+        verify(fplDataService, times(1)).reloadFromDatabase();
+        assertThat(publications.seen(Kind.SNAPSHOT)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Publishing after missing another node's publication still reloads it")
+    void testAnnounceAfterMissedPublication() {
+        stored(3);
+
+        publications.announce(Kind.SNAPSHOT);
+        follower.catchUp();
+        drain();
+
+        verify(fplDataService).reloadFromDatabase();
+        assertThat(publications.seen(Kind.SNAPSHOT)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("The first publication creates the marker row")
+    void testFirstAnnouncement() {
+        when(repository.bump(eq(Kind.SNAPSHOT.id()), any(), anyString())).thenReturn(0);
+        stored(1);
+
+        assertThat(publications.announce(Kind.SNAPSHOT)).isEqualTo(1);
+
+        verify(repository).save(argThat(row -> row.getGeneration() == 1L));
+        verify(jdbcTemplate, never()).queryForList(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("The periodic catch-up is scheduled on read-only nodes with the ingestion jobs switched off")
+    void testCatchUpScheduledWithoutIngestionJobs() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withUserConfiguration(SchedulingConfig.class, ClusterFollowConfig.class)
+                .withPropertyValues("mvp.scheduler.enabled=false");
+
+        runner.run(context -> assertThat(context)
+                .doesNotHaveBean(SchedulingConfig.class)
+                .hasSingleBean(ScheduledAnnotationBeanPostProcessor.class));
+        runner.withPropertyValues("mvp.cluster.follow-enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(ScheduledAnnotationBeanPostProcessor.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("On PostgreSQL the generation is sent on the notification channel")
+    void testNotify() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(true);
+        stored(7);
+
+        publications.announce(Kind.SNAPSHOT);
+
+        verify(jdbcTemplate).queryForList("SELECT pg_notify(?, ?)", Kind.SNAPSHOT.channel(), SnapshotPublications.payload(7));
+        assertThat(SnapshotPublications.generationOf(SnapshotPublications.payload(7))).isEqualTo(7);
+        assertThat(SnapshotPublications.generationOf("garbage")).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,176 @@
+package com.project.mvprecommender.service;
+
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.helper.PlayerGenerator;
+import com.project.mvprecommender.snapshot.FixtureDifficultyMatrix;
+import com.project.mvprecommender.snapshot.PlayerScores;
+import com.project.mvprecommender.snapshot.PlayerSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SquadOptimizerTest {
+
+    private final SquadOptimizer optimizer = new SquadOptimizer(1_000);
+
+    @Test
+    void matchesBruteForceOnSmallPools() {
+        // Two clubs and tight budgets, so both the club limit and the budget decide the answer
+        int[] slots = {0, 1, 2, 2, 1};
+        for (long seed = 1; seed <= 12; seed++) {
+            List<Player> pool = PlayerGenerator.generatePlayerPool(28, seed);
+            pool.forEach(p -> p.setTeam(1 + (int) (p.getId() % 2)));
+            PlayerScores scores = scores(pool);
+            for (int budget : new int[]{300, 400, 550, 900}) {
+                SquadOptimizer.Solution solution = optimizer.solve(scores,
+                        new SquadOptimizer.Constraints(budget, slots, List.of(), List.of()));
+                double expected = bruteForce(scores, slots, budget, Set.of());
+
+                if (expected == Double.NEGATIVE_INFINITY) {
+                    assertThat(solution.feasible()).as("seed %d budget %d", seed, budget).isFalse();
+                } else {
+                    assertThat(solution.feasible()).as("seed %d budget %d", seed, budget).isTrue();
+                    assertThat(solution.optimal()).isTrue();
+                    assertThat(solution.totalScore()).as("seed %d budget %d", seed, budget).isCloseTo(expected, within());
+                    assertLegal(scores.getSnapshot(), solution, slots, budget);
+                }
+            }
+        }
+    }
+
+    @Test
+    void staysExactWhenTheBoundTableIsCoarsened() {
+        // Prices far above real ones push the bound table past its cell cap, so its budget axis is stepped
+        int[] slots = {0, 1, 2, 2, 1};
+        for (long seed = 1; seed <= 6; seed++) {
+            List<Player> pool = PlayerGenerator.generatePlayerPool(28, seed);
+            pool.forEach(p -> {
+                p.setTeam(1 + (int) (p.getId() % 2));
+                p.setNowCost(p.getNowCost() * 100 + (int) (p.getId() * 37 % 97));
+            });
+            PlayerScores scores = scores(pool);
+            for (int budget : new int[]{30_000, 40_000, 55_000}) {
+                assertThat(budget).isGreaterThan(SquadOptimizer.MAX_BOUND_CELLS / 100);
+                SquadOptimizer.Solution solution = optimizer.solve(scores,
+                        new SquadOptimizer.Constraints(budget, slots, List.of(), List.of()));
+                double expected = bruteForce(scores, slots, budget, Set.of());
+
+                assertThat(solution.feasible()).as("seed %d budget %d", seed, budget)
+                        .isEqualTo(expected != Double.NEGATIVE_INFINITY);
+                if (solution.feasible()) {
+                    assertThat(solution.optimal()).isTrue();
+                    assertThat(solution.totalScore()).as("seed %d budget %d", seed, budget).isCloseTo(expected, within());
+                    assertLegal(scores.getSnapshot(), solution, slots, budget);
+                }
+            }
+        }
+    }
+
+    @Test
+    void fixesMustHavesAndSkipsExcludedPlayers() {
+        PlayerScores scores = scores(PlayerGenerator.generatePlayerPool(300, 3L));
+        PlayerSnapshot snapshot = scores.getSnapshot();
+        int[] slots = {0, 1, 4, 4, 2};
+        SquadOptimizer.Solution unconstrained = optimizer.solve(scores,
+                new SquadOptimizer.Constraints(1000, slots, List.of(), List.of()));
+        long star = snapshot.id(unconstrained.rows()[1]);
+        long mustHave = snapshot.id(Arrays.stream(snapshot.rowsForPosition(4))
+                .filter(row -> Arrays.stream(unconstrained.rows()).noneMatch(r -> r == row))
+                .findFirst().orElseThrow());
+
+        SquadOptimizer.Solution solution = optimizer.solve(scores,
+                new SquadOptimizer.Constraints(1000, slots, List.of(mustHave), List.of(star)));
+
+        List<Long> ids = Arrays.stream(solution.rows()).mapToObj(snapshot::id).toList();
+        assertThat(ids).hasSize(11).contains(mustHave).doesNotContain(star);
+        assertThat(solution.totalScore()).isLessThanOrEqualTo(unconstrained.totalScore());
+        assertLegal(snapshot, solution, slots, 1000);
+    }
+
+    @Test
+    void reportsInfeasibleConstraints() {
+        PlayerScores scores = scores(PlayerGenerator.generatePlayerPool(300, 3L));
+        SquadOptimizer.Solution tooPoor = optimizer.solve(scores,
+                new SquadOptimizer.Constraints(100, new int[]{0, 1, 4, 4, 2}, List.of(), List.of()));
+        SquadOptimizer.Solution noPlayers = optimizer.solve(scores(List.of()),
+                new SquadOptimizer.Constraints(1000, new int[]{0, 1, 4, 4, 2}, null, null));
+
+        assertThat(tooPoor.feasible()).isFalse();
+        assertThat(tooPoor.rows()).isEmpty();
+        assertThat(tooPoor.infeasibleReason()).isEqualTo("budget too small for the formation");
+        assertThat(noPlayers.feasible()).isFalse();
+    }
+
+    @Test
+    void rejectsMustHavesThatBreakTheFormation() {
+        PlayerScores scores = scores(PlayerGenerator.generatePlayerPool(300, 3L));
+        PlayerSnapshot snapshot = scores.getSnapshot();
+        List<Long> twoKeepers = Arrays.stream(snapshot.rowsForPosition(1)).limit(2).mapToObj(snapshot::id).toList();
+
+        assertThatThrownBy(() -> optimizer.solve(scores,
+                new SquadOptimizer.Constraints(1000, new int[]{0, 1, 4, 4, 2}, twoKeepers, List.of())))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> optimizer.solve(scores,
+                new SquadOptimizer.Constraints(1000, new int[]{0, 1, 4, 4, 2}, List.of(9999L), List.of())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PlayerScores scores(List<Player> players) {
+        return PlayerScores.build(PlayerSnapshot.build(players), FixtureDifficultyMatrix.empty(), 1);
+    }
+
+    private static org.assertj.core.data.Offset<Double> within() {
+        return org.assertj.core.data.Offset.offset(1e-9);
+    }
+
+    private static void assertLegal(PlayerSnapshot snapshot, SquadOptimizer.Solution solution, int[] slots, int budget) {
+        int[] perPosition = new int[slots.length];
+        int[] perClub = new int[snapshot.getMaxTeamId() + 1];
+        int cost = 0;
+        for (int row : solution.rows()) {
+            perPosition[snapshot.position(row)]++;
+            perClub[snapshot.team(row)]++;
+            cost += snapshot.nowCost(row);
+        }
+        assertThat(perPosition).containsExactly(slots);
+        assertThat(Arrays.stream(perClub).max().orElse(0)).isLessThanOrEqualTo(SquadOptimizer.MAX_PLAYERS_PER_CLUB);
+        assertThat(cost).isEqualTo(solution.totalCost()).isLessThanOrEqualTo(budget);
+    }
+
+    // Exhaustive search over every formation-legal combination of available players
+    private static double bruteForce(PlayerScores scores, int[] slots, int budget, Set<Long> excluded) {
+        PlayerSnapshot snapshot = scores.getSnapshot();
+        int[][] pools = new int[slots.length][];
+        for (int position = 1; position < slots.length; position++) {
+            pools[position] = Arrays.stream(snapshot.rowsForPosition(position))
+                    .filter(row -> !snapshot.isUnavailable(row) && !excluded.contains(snapshot.id(row)))
+                    .toArray();
+        }
+        return enumerate(scores, pools, slots, 1, 0, slots[1], budget, new int[snapshot.getMaxTeamId() + 1], 0.0);
+    }
+
+    private static double enumerate(PlayerScores scores, int[][] pools, int[] slots, int position, int from,
+                                    int left, int budget, int[] clubs, double score) {
+        if (left == 0) {
+            if (position + 1 == slots.length) return score;
+            return enumerate(scores, pools, slots, position + 1, 0, slots[position + 1], budget, clubs, score);
+        }
+        PlayerSnapshot snapshot = scores.getSnapshot();
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < pools[position].length; i++) {
+            int row = pools[position][i];
+            int club = snapshot.team(row);
+            if (snapshot.nowCost(row) > budget || clubs[club] == SquadOptimizer.MAX_PLAYERS_PER_CLUB) continue;
+            clubs[club]++;
+            best = Math.max(best, enumerate(scores, pools, slots, position, i + 1, left - 1,
+                    budget - snapshot.nowCost(row), clubs, score + scores.score(row)));
+            clubs[club]--;
+        }
+        return best;
+    }
+}
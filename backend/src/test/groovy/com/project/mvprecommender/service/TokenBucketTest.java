@@ -0,0 +1,47 @@
+package com.project.mvprecommender.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("A full bucket serves a burst immediately, then spaces permits at the configured rate")
+    void testBurstThenRate() {
+        TokenBucket bucket = new TokenBucket(10, 3, now::get);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isEqualTo(Duration.ofMillis(100));
+        assertThat(bucket.reserve()).isEqualTo(Duration.ofMillis(200));
+    }
+
+    @Test
+    @DisplayName("Idle time refills the bucket, but never beyond the burst size")
+    void testRefill() {
+        TokenBucket bucket = new TokenBucket(10, 2, now::get);
+        bucket.reserve();
+        bucket.reserve();
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    @DisplayName("Rate and burst must be positive")
+    void testInvalid() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
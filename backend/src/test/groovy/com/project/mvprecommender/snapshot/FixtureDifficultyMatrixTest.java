@@ -0,0 +1,84 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Fixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FixtureDifficultyMatrixTest {
+
+    private FixtureDifficultyMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        matrix = FixtureDifficultyMatrix.build(List.of(
+                fixture(1L, 1, 1, 2, 2, 4),
+                fixture(2L, 2, 3, 1, 5, 2),
+                fixture(3L, 3, 1, 3, null, 3),
+                // Double gameweek for team 1
+                fixture(4L, 3, 2, 1, 3, 5),
+                // Postponed fixture without a gameweek is ignored
+                fixture(5L, null, 1, 2, 1, 1)
+        ));
+    }
+
+    @Test
+    @DisplayName("Average difficulty uses the team's own perspective")
+    void testAverageDifficulty() {
+        // GW1 home (2), GW2 away (2), GW3 home (default 3) and away (5)
+        assertThat(matrix.averageDifficulty(1, 1, 3)).isEqualTo(3.0);
+        assertThat(matrix.averageDifficulty(1, 2, 2)).isEqualTo(2.0);
+        assertThat(matrix.averageDifficulty(2, 1, 3)).isEqualTo(3.5);
+    }
+
+    @Test
+    @DisplayName("Ranges are clamped to the known season")
+    void testRangeOutsideSeason() {
+        assertThat(matrix.fixtureCount(1, 0, 100)).isEqualTo(4);
+        assertThat(matrix.fixtureCount(1, 4, 9)).isZero();
+        assertThat(matrix.averageDifficulty(1, 4, 9)).isEqualTo(FixtureDifficultyMatrix.DEFAULT_DIFFICULTY);
+    }
+
+    @Test
+    @DisplayName("Unknown teams fall back to the default difficulty")
+    void testUnknownTeam() {
+        assertThat(matrix.averageDifficulty(99, 1, 3)).isEqualTo(FixtureDifficultyMatrix.DEFAULT_DIFFICULTY);
+        assertThat(matrix.averageDifficulty(null, 1, 3)).isEqualTo(FixtureDifficultyMatrix.DEFAULT_DIFFICULTY);
+        assertThat(matrix.fixtures(99, 1, 3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Team fixtures are returned in gameweek order")
+    void testTeamFixtures() {
+        List<Fixture> fixtures = matrix.fixtures(1, 2, 3);
+
+        assertThat(fixtures).extracting(Fixture::getId).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Empty matrix answers every query with defaults")
+    void testEmptyMatrix() {
+        FixtureDifficultyMatrix empty = FixtureDifficultyMatrix.build(List.of());
+
+        assertThat(empty.isEmpty()).isTrue();
+        assertThat(empty.averageDifficulty(1, 1, 5)).isEqualTo(FixtureDifficultyMatrix.DEFAULT_DIFFICULTY);
+        assertThat(empty.fixtures(1, 1, 5)).isEmpty();
+    }
+
+    private static Fixture fixture(long id, Integer gw, int home, int away, Integer homeDiff, Integer awayDiff) {
+        return Fixture.builder()
+                .id(id)
+                .gameWeek(gw)
+                .teamHome(home)
+                .teamAway(away)
+                .teamHomeDifficulty(homeDiff)
+                .teamAwayDifficulty(awayDiff)
+                .kickoffTime("2025-08-1" + id + "T15:00:00Z")
+                .finished(false)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.PlayerGameweekLive;
+import com.project.mvprecommender.model.Team;
+import com.project.mvprecommender.service.FplIndexService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FplSnapshotTest {
+
+    private final FplIndexService indexService = new FplIndexService();
+
+    @Test
+    @DisplayName("A staged snapshot is invisible to readers until it is published")
+    void testStagedIsInvisibleUntilPublished() {
+        FplSnapshot.Builder staged = indexService.stage()
+                .teams(List.of(Team.builder().id(1).shortName("LIV").build()))
+                .players(List.of(player(1L), player(2L)));
+
+        assertThat(indexService.current()).isSameAs(FplSnapshot.empty());
+        assertThat(indexService.getPlayerSnapshot().size()).isZero();
+
+        FplSnapshot published = indexService.publish(staged);
+
+        assertThat(indexService.current()).isSameAs(published);
+        assertThat(published.version()).isEqualTo(1);
+        assertThat(published.players().size()).isEqualTo(2);
+        assertThat(published.teams().shortName(1)).isEqualTo("LIV");
+    }
+
+    @Test
+    @DisplayName("Publishing bumps the version and shares the parts that were not replaced")
+    void testPublishSharesUnchangedParts() {
+        indexService.rebuildFixtures(List.of(fixture(1L, 5)));
+        FplSnapshot before = indexService.current();
+
+        FplSnapshot after = indexService.publish(indexService.stage().players(List.of(player(1L))));
+
+        assertThat(after.version()).isEqualTo(before.version() + 1);
+        assertThat(after.fixtureMatrix()).isSameAs(before.fixtureMatrix());
+        assertThat(after.calendar()).isSameAs(before.calendar());
+        assertThat(after.teams()).isSameAs(before.teams());
+        assertThat(after.players()).isNotSameAs(before.players());
+        assertThat(indexService.stage().isChanged()).isFalse();
+    }
+
+    @Test
+    @DisplayName("A pinned snapshot keeps serving the data it was read with after a newer one is published")
+    void testPinnedSnapshotIsStable() {
+        indexService.publish(indexService.stage()
+                .players(List.of(player(1L)))
+                .fixtures(List.of(fixture(1L, 5))));
+        FplSnapshot pinned = indexService.current();
+
+        indexService.publish(indexService.stage()
+                .players(List.of(player(1L), player(2L), player(3L)))
+                .fixtures(List.of(fixture(2L, 9))));
+
+        assertThat(pinned.players().size()).isEqualTo(1);
+        assertThat(pinned.currentGameweek(Instant.now())).isEqualTo(5);
+        assertThat(indexService.current().players().size()).isEqualTo(3);
+        assertThat(indexService.current().currentGameweek(Instant.now())).isEqualTo(9);
+        // Scores computed for the old snapshot reflect that snapshot only
+        assertThat(indexService.getPlayerScores(pinned).getSnapshot()).isSameAs(pinned.players());
+        assertThat(indexService.getPlayerScores().getSnapshot().size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Ingesters staging different parts concurrently keep each other's changes")
+    void testConcurrentStagesMerge() {
+        FplSnapshot.Builder refresh = indexService.stage().players(List.of(player(1L), player(2L)));
+        FplSnapshot.Builder livePoll = indexService.stage().live(LiveGameweek.build(5, List.of(
+                PlayerGameweekLive.builder().playerId(1L).gameWeek(5).totalPoints(6).minutes(90).build())));
+
+        indexService.publish(livePoll);
+        FplSnapshot published = indexService.publish(refresh);
+
+        assertThat(published.version()).isEqualTo(2);
+        assertThat(published.players().size()).isEqualTo(2);
+        assertThat(published.live().points(published.live().rowOf(1L))).isEqualTo(6);
+    }
+
+    private static Player player(Long id) {
+        Player player = new Player();
+        player.setId(id);
+        player.setWebName("Player" + id);
+        player.setPosition(3);
+        player.setTeam(1);
+        player.setNowCost(50);
+        return player;
+    }
+
+    private static Fixture fixture(Long id, int gameweek) {
+        return Fixture.builder().id(id).gameWeek(gameweek).teamHome(1).teamAway(2)
+                .kickoffTime(Instant.now().plusSeconds(86_400).toString()).finished(false).build();
+    }
+}
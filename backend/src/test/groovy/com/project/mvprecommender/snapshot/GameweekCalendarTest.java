@@ -0,0 +1,103 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Fixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameweekCalendarTest {
+
+    private static final Instant GW5_KICKOFF = Instant.parse("2025-09-20T14:00:00Z");
+    private static final Instant GW6_KICKOFF = Instant.parse("2025-09-27T14:00:00Z");
+
+    @Test
+    @DisplayName("Current gameweek is the lowest one with an unfinished fixture")
+    void testCurrentGameweek() {
+        GameweekCalendar calendar = GameweekCalendar.build(List.of(
+                fixture(1L, 4, GW5_KICKOFF.minusSeconds(7 * 86400), true),
+                fixture(2L, 5, GW5_KICKOFF, false),
+                fixture(3L, 6, GW6_KICKOFF, false)
+        ));
+
+        assertThat(calendar.currentGameweek(GW5_KICKOFF.minusSeconds(3600))).isEqualTo(5);
+        assertThat(calendar.nextGameweek(GW5_KICKOFF.minusSeconds(3600))).isEqualTo(6);
+        assertThat(calendar.firstKickoff(6)).isEqualTo(GW6_KICKOFF);
+    }
+
+    @Test
+    @DisplayName("Calendar advances once the last fixture's match window has passed")
+    void testAdvancesWithTime() {
+        GameweekCalendar calendar = GameweekCalendar.build(List.of(
+                fixture(1L, 5, GW5_KICKOFF, false),
+                fixture(2L, 5, GW5_KICKOFF.plusSeconds(3 * 3600), false),
+                fixture(3L, 6, GW6_KICKOFF, false)
+        ));
+
+        Instant lastFinish = GW5_KICKOFF.plusSeconds(3 * 3600).plus(GameweekCalendar.MATCH_WINDOW);
+        assertThat(calendar.currentGameweek(lastFinish.minusSeconds(1))).isEqualTo(5);
+        assertThat(calendar.currentGameweek(lastFinish)).isEqualTo(6);
+        assertThat(calendar.nextGameweek(lastFinish)).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("A match is live from kickoff for the match window, and finished fixtures are ignored")
+    void testLiveAndNextKickoff() {
+        GameweekCalendar calendar = GameweekCalendar.build(List.of(
+                fixture(1L, 5, GW5_KICKOFF.minusSeconds(3 * 3600), true),
+                fixture(2L, 5, GW5_KICKOFF, false),
+                fixture(3L, 5, GW5_KICKOFF.plusSeconds(2 * 3600), false),
+                fixture(4L, 6, GW6_KICKOFF, false)
+        ));
+
+        assertThat(calendar.isLive(GW5_KICKOFF.minusSeconds(3600))).isFalse();
+        assertThat(calendar.nextKickoff(GW5_KICKOFF.minusSeconds(3600))).isEqualTo(GW5_KICKOFF);
+        assertThat(calendar.isLive(GW5_KICKOFF)).isTrue();
+        assertThat(calendar.nextKickoff(GW5_KICKOFF)).isEqualTo(GW5_KICKOFF.plusSeconds(2 * 3600));
+        // Overlapping matches keep it live until the last one's window ends
+        Instant lastFinish = GW5_KICKOFF.plusSeconds(2 * 3600).plus(GameweekCalendar.MATCH_WINDOW);
+        assertThat(calendar.isLive(lastFinish.minusSeconds(1))).isTrue();
+        assertThat(calendar.isLive(lastFinish)).isFalse();
+        assertThat(calendar.nextKickoff(lastFinish)).isEqualTo(GW6_KICKOFF);
+        assertThat(calendar.nextKickoff(GW6_KICKOFF)).isNull();
+        assertThat(calendar.hasFixturesInPlay()).isFalse();
+
+        Fixture running = fixture(5L, 5, GW5_KICKOFF, false);
+        running.setStarted(true);
+        assertThat(GameweekCalendar.build(List.of(running)).hasFixturesInPlay()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Fixtures without a kickoff keep their gameweek open")
+    void testUnscheduledFixtureKeepsGameweekOpen() {
+        GameweekCalendar calendar = GameweekCalendar.build(List.of(
+                fixture(1L, 3, null, false),
+                fixture(2L, 5, GW5_KICKOFF, false)
+        ));
+
+        assertThat(calendar.currentGameweek(GW6_KICKOFF)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Empty or finished season falls back to the default gameweek")
+    void testDefaults() {
+        assertThat(GameweekCalendar.build(List.of()).currentGameweek(Instant.now()))
+                .isEqualTo(GameweekCalendar.DEFAULT_GAMEWEEK);
+        assertThat(GameweekCalendar.build(List.of(fixture(1L, 38, GW5_KICKOFF, true))).currentGameweek(GW6_KICKOFF))
+                .isEqualTo(GameweekCalendar.DEFAULT_GAMEWEEK);
+    }
+
+    private static Fixture fixture(long id, int gw, Instant kickoff, boolean finished) {
+        return Fixture.builder()
+                .id(id)
+                .gameWeek(gw)
+                .teamHome(1)
+                .teamAway(2)
+                .kickoffTime(kickoff != null ? kickoff.toString() : null)
+                .finished(finished)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlayerIdIndexTest {
+
+    private PlayerIdIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = PlayerSnapshot.build(List.of(
+                player(1L, "a"),
+                player(2L, "d"),
+                player(64L, "i"),
+                player(65L, "u"),
+                player(130L, "s"),
+                player(131L, null)
+        )).idIndex();
+    }
+
+    @Test
+    @DisplayName("Membership covers every indexed id, across word boundaries")
+    void testContains() {
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(index.contains(1L)).isTrue();
+        assertThat(index.contains(64L)).isTrue();
+        assertThat(index.contains(131L)).isTrue();
+        assertThat(index.contains(0L)).isFalse();
+        assertThat(index.contains(3L)).isFalse();
+        assertThat(index.contains(-1L)).isFalse();
+        assertThat(index.contains(10_000L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Status bits follow the FPL status code; injured includes unavailable")
+    void testStatusBits() {
+        assertThat(index.has(1L, PlayerIdIndex.Status.AVAILABLE)).isTrue();
+        assertThat(index.has(2L, PlayerIdIndex.Status.DOUBTFUL)).isTrue();
+        assertThat(index.has(2L, PlayerIdIndex.Status.AVAILABLE)).isFalse();
+        assertThat(index.has(64L, PlayerIdIndex.Status.INJURED)).isTrue();
+        assertThat(index.has(65L, PlayerIdIndex.Status.INJURED)).isTrue();
+        assertThat(index.count(PlayerIdIndex.Status.INJURED)).isEqualTo(2);
+
+        // Suspended players are indexed without a status bit; a missing status reads as available
+        for (PlayerIdIndex.Status status : PlayerIdIndex.Status.values()) {
+            assertThat(index.has(130L, status)).isFalse();
+        }
+        assertThat(index.has(131L, PlayerIdIndex.Status.AVAILABLE)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Iterating several statuses visits the union of their ids in ascending order")
+    void testForEachUnion() {
+        List<Long> ids = new ArrayList<>();
+        index.forEach(ids::add, PlayerIdIndex.Status.INJURED, PlayerIdIndex.Status.DOUBTFUL);
+
+        assertThat(ids).containsExactly(2L, 64L, 65L);
+    }
+
+    @Test
+    @DisplayName("Ids too large for the bitsets are still indexed, without failing the build or sizing the bitsets")
+    void testLargeIds() {
+        long huge = Integer.MAX_VALUE + 10L;
+        PlayerIdIndex large = PlayerSnapshot.build(List.of(
+                player(3L, "a"),
+                player(PlayerIdIndex.MAX_DENSE_ID, "d"),
+                player(huge, "i"),
+                player(Long.MAX_VALUE, "s")
+        )).idIndex();
+
+        assertThat(large.size()).isEqualTo(4);
+        assertThat(large.contains(huge)).isTrue();
+        assertThat(large.contains(Long.MAX_VALUE)).isTrue();
+        assertThat(large.contains(huge + 1)).isFalse();
+        assertThat(large.has(huge, PlayerIdIndex.Status.INJURED)).isTrue();
+        assertThat(large.has(Long.MAX_VALUE, PlayerIdIndex.Status.AVAILABLE)).isFalse();
+        assertThat(large.count(PlayerIdIndex.Status.DOUBTFUL)).isEqualTo(1);
+
+        List<Long> ids = new ArrayList<>();
+        large.forEach(ids::add, PlayerIdIndex.Status.INJURED, PlayerIdIndex.Status.DOUBTFUL, PlayerIdIndex.Status.AVAILABLE);
+        assertThat(ids).containsExactly(3L, PlayerIdIndex.MAX_DENSE_ID, huge);
+    }
+
+    @Test
+    @DisplayName("An empty snapshot indexes nothing")
+    void testEmpty() {
+        PlayerIdIndex empty = PlayerSnapshot.build(List.of()).idIndex();
+
+        assertThat(empty.size()).isZero();
+        assertThat(empty.contains(1L)).isFalse();
+        assertThat(empty.count(PlayerIdIndex.Status.AVAILABLE)).isZero();
+    }
+
+    private static Player player(long id, String status) {
+        return Player.builder().id(id).webName("P" + id).position(3).team(1).status(status).build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlayerScoresTest {
+
+    private PlayerSnapshot snapshot;
+    private FixtureDifficultyMatrix matrix;
+    private PlayerScores scores;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = PlayerSnapshot.build(List.of(
+                player(1L, 3, 1, 100, 6.0, 120, "a"),
+                player(2L, 3, 2, 60, 4.0, 80, "a"),
+                player(3L, 3, 2, 45, 2.0, 30, "d"),
+                player(4L, 3, 1, 130, 9.0, 150, "i"),
+                player(5L, 4, 1, 80, 5.0, 90, "a")
+        ));
+        matrix = FixtureDifficultyMatrix.build(List.of(
+                Fixture.builder().id(1L).gameWeek(3).teamHome(1).teamAway(2)
+                        .teamHomeDifficulty(2).teamAwayDifficulty(4).build()
+        ));
+        scores = PlayerScores.build(snapshot, matrix, 3);
+    }
+
+    @Test
+    @DisplayName("Scores combine form, points, value and fixtures")
+    void testScore() {
+        int row = snapshot.rowOf(1L);
+
+        assertThat(scores.valueForMoney(row)).isEqualTo(12.0);
+        assertThat(scores.fixtureScore(row)).isEqualTo(3.0);
+        // 6.0 * 2 + 120 / 10 + 12.0 * 1.5 + 3.0 * 1.5
+        assertThat(scores.score(row)).isEqualTo(46.5);
+    }
+
+    @Test
+    @DisplayName("Scored views are built once and carry the scores without touching the entity")
+    void testScoredView() {
+        int row = snapshot.rowOf(1L);
+        ScoredPlayer view = scores.scored(row);
+
+        assertThat(view).isSameAs(scores.scored(row));
+        assertThat(view.id()).isEqualTo(1L);
+        assertThat(view.webName()).isEqualTo("Player1");
+        assertThat(view.priceInMillions()).isEqualTo(10.0);
+        assertThat(view.form()).isEqualTo(6.0);
+        assertThat(view.valueForMoney()).isEqualTo(12.0);
+        assertThat(view.fixtureScore()).isEqualTo(3.0);
+        assertThat(view.score()).isEqualTo(46.5);
+        assertThat(scores.scored(snapshot.rowOf(4L)).isInjured()).isTrue();
+        assertThat(scores.scored(snapshot.rowOf(3L)).isDoubtful()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Top players per position come from the ranking and skip injured players")
+    void testTopForPosition() {
+        int[] top = scores.topForPosition(3, 2);
+
+        assertThat(top).hasSize(2);
+        assertThat(snapshot.id(top[0])).isEqualTo(1L);
+        assertThat(snapshot.id(top[1])).isEqualTo(2L);
+        assertThat(scores.topForPosition(3, 10)).hasSize(3);
+        assertThat(scores.topForPosition(9, 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Bounded top-K applies ad-hoc filters and keeps score order")
+    void testTopK() {
+        int[] midfielders = snapshot.rowsForPosition(3);
+
+        int[] affordable = scores.topK(midfielders, row -> snapshot.nowCost(row) <= 60, 5);
+        assertThat(affordable).hasSize(2);
+        assertThat(snapshot.id(affordable[0])).isEqualTo(2L);
+        assertThat(snapshot.id(affordable[1])).isEqualTo(3L);
+
+        int[] best = scores.topK(midfielders, row -> true, 1);
+        assertThat(snapshot.id(best[0])).isEqualTo(4L);
+
+        assertThat(scores.topK(midfielders, row -> true, 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Scores are tied to the snapshot, fixtures and gameweek they were built from")
+    void testIsFor() {
+        assertThat(scores.isFor(snapshot, FixtureDifficultyMatrix.empty(), 3, 0)).isFalse();
+        assertThat(scores.isFor(snapshot, FixtureDifficultyMatrix.empty(), 4, 0)).isFalse();
+        assertThat(scores.isFor(snapshot, matrix, 3, 0)).isTrue();
+        // A new stats capture invalidates them too
+        assertThat(scores.isFor(snapshot, matrix, 3, 1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Rising form over the captured gameweeks adds its slope to the score")
+    void testFormTrend() {
+        PlayerSnapshot earlier = PlayerSnapshot.build(List.of(player(1L, 3, 1, 100, 4.0, 100, "a")));
+        StatWindow history = StatWindow.of(List.of(
+                StatSegment.capture(2, Instant.now(), earlier),
+                StatSegment.capture(3, Instant.now(), snapshot)), null);
+
+        PlayerScores trended = PlayerScores.build(snapshot, matrix, 3, history, 1);
+
+        int row = snapshot.rowOf(1L);
+        // Form went from 4.0 in gameweek 2 to 6.0 in gameweek 3
+        assertThat(trended.formTrend(row)).isEqualTo(2.0);
+        assertThat(trended.score(row)).isEqualTo(46.5 + 2.0 * PlayerScores.FORM_TREND_WEIGHT);
+        // Only captured once, so no trend
+        assertThat(trended.formTrend(snapshot.rowOf(2L))).isZero();
+        assertThat(scores.formTrend(row)).isZero();
+    }
+
+    private static Player player(Long id, int position, int team, int cost, double form, int points, String status) {
+        return Player.builder()
+                .id(id)
+                .webName("Player" + id)
+                .position(position)
+                .team(team)
+                .nowCost(cost)
+                .form(form)
+                .totalPoints(points)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Player;
+import com.project.mvprecommender.model.helper.PlayerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlayerSnapshotTest {
+
+    private PlayerSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        List<Player> players = new ArrayList<>(PlayerGenerator.generateSamplePlayers());
+        players.add(Player.builder().id(10L).webName("Broken").position(3).team(4)
+                .form(null).status("i").build());
+        snapshot = PlayerSnapshot.build(players);
+    }
+
+    @Test
+    @DisplayName("Typed stats are copied into primitive columns")
+    void testNumericColumns() {
+        int salah = snapshot.rowOf(1L);
+
+        assertThat(snapshot.size()).isEqualTo(4);
+        assertThat(snapshot.form(salah)).isEqualTo(7.2);
+        assertThat(snapshot.selectedByPercent(salah)).isEqualTo(45.5);
+        assertThat(snapshot.expectedGoals(salah)).isEqualTo(20.5);
+        assertThat(snapshot.ictIndex(salah)).isEqualTo(70.5);
+        assertThat(snapshot.nowCost(salah)).isEqualTo(125);
+        assertThat(snapshot.team(salah)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Missing values default to zero")
+    void testMalformedValues() {
+        int broken = snapshot.rowOf(10L);
+
+        assertThat(snapshot.form(broken)).isZero();
+        assertThat(snapshot.totalPoints(broken)).isZero();
+        assertThat(snapshot.isUnavailable(broken)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Rows are grouped by position")
+    void testRowsByPosition() {
+        int[] forwards = snapshot.rowsForPosition(4);
+
+        assertThat(forwards).hasSize(2);
+        assertThat(snapshot.id(forwards[0])).isEqualTo(1L);
+        assertThat(snapshot.id(forwards[1])).isEqualTo(3L);
+        assertThat(snapshot.rowsForPosition(1)).hasSize(1);
+        assertThat(snapshot.rowsForPosition(7)).isEmpty();
+        assertThat(snapshot.getMaxTeamId()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Unknown ids are not found")
+    void testRowOfUnknownId() {
+        assertThat(snapshot.rowOf(99L)).isEqualTo(-1);
+        assertThat(PlayerSnapshot.empty().rowOf(1L)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.mvprecommender.snapshot;
+
+import com.project.mvprecommender.model.Fixture;
+import com.project.mvprecommender.model.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamRegistryTest {
+
+    private TeamRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = TeamRegistry.build(List.of(
+                Team.builder().id(1).name("Arsenal").shortName("ARS").build(),
+                Team.builder().id(12).name("Liverpool").shortName("LIV").build()
+        ));
+    }
+
+    @Test
+    @DisplayName("Teams and short names are looked up by id")
+    void testLookup() {
+        assertThat(registry.size()).isEqualTo(2);
+        assertThat(registry.get(12).getName()).isEqualTo("Liverpool");
+        assertThat(registry.shortName(1)).isEqualTo("ARS");
+        assertThat(registry.get(5)).isNull();
+        assertThat(registry.shortName(5)).isEqualTo(TeamRegistry.UNKNOWN_SHORT_NAME);
+        assertThat(registry.shortName(null)).isEqualTo(TeamRegistry.UNKNOWN_SHORT_NAME);
+    }
+
+    @Test
+    @DisplayName("Fixture labels are rendered from the player's team perspective")
+    void testFixtureLabel() {
+        Fixture fixture = Fixture.builder().id(1L).gameWeek(1).teamHome(1).teamAway(12)
+                .teamHomeDifficulty(5).teamAwayDifficulty(4).build();
+
+        assertThat(registry.fixtureLabel(fixture, 1)).isEqualTo("LIV (H) [Diff: 5]");
+        assertThat(registry.fixtureLabel(fixture, 12)).isEqualTo("ARS (A) [Diff: 4]");
+        // Precomputed labels are shared rather than rebuilt per call
+        assertThat(registry.fixtureLabel(fixture, 1)).isSameAs(registry.fixtureLabel(fixture, 1));
+    }
+
+    @Test
+    @DisplayName("Missing difficulty and unknown opponents still produce a label")
+    void testFixtureLabelFallbacks() {
+        Fixture fixture = Fixture.builder().id(2L).gameWeek(2).teamHome(7).teamAway(1).build();
+
+        assertThat(registry.fixtureLabel(fixture, 1)).isEqualTo("UNK (A) [Diff: 3]");
+    }
+}
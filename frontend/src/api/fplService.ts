@@ -29,6 +29,8 @@ export interface ApiPlayer {
   nextFixtures: string[];
   injuryStatus: string;
   chanceOfPlaying: number | null;
+  livePoints?: number | null;
+  liveMinutes?: number | null;
   aiScore: number | null;
   recommendation: string;
 }